@@ -17,8 +17,15 @@
 
 
 // Import required libraries
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Iterator;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
 
 /**
  * Self-balancing binary search tree (AVL Tree) implementation.
@@ -31,11 +38,13 @@ public class AVLTree<K, V> implements MapSet<K, V> {
 
     /**
      * Internal Node class for the AVL tree.
-     * Each node stores a key-value pair, references to children, and height information.
+     * Each node stores a key-value pair, references to children, height information,
+     * and the number of nodes in its subtree.
      */
     private static class Node<K, V> extends KeyValuePair<K, V> {
         Node<K, V> left, right;
         int height;
+        int count;
 
         /**
          * Creates a new AVL tree node.
@@ -48,13 +57,15 @@ public class AVLTree<K, V> implements MapSet<K, V> {
             left = null;
             right = null;
             height = 0;
+            count = 1;
         }
     }
 
     // Instance fields
     private Node<K, V> root;        // Root node of the tree
-    private int size;               // Number of key-value pairs in the tree
+    private int size;               // Number of key-value pairs in the tree, always equal to root.count
     private Comparator<K> comparator; // Comparator for key comparison
+    private Node<K, V>[] path = newPath(32); // Nodes on the current put, merge or remove descent, reused between calls
 
     /**
      * Constructs a new AVL tree with the specified comparator.
@@ -95,10 +106,11 @@ public class AVLTree<K, V> implements MapSet<K, V> {
 
   
     /*
-     * updates the height of the avl tree
+     * updates the height of the avl tree, along with the subtree size of the node
      */
     private void updateHeight(Node<K, V> node) {
         node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.count = 1 + count(node.left) + count(node.right);
     }
     
 
@@ -168,61 +180,126 @@ public class AVLTree<K, V> implements MapSet<K, V> {
     
     
 
-    //puts a key, value pair in the BST Map
+    /*
+     * walks back up the first depth nodes of the current descent, rebalancing each node and linking
+     * the possibly new subtree root into its parent. path[i - 1] must be the parent of path[i]
+     */
+    private void rebalancePath(int depth) {
+        for (int i = depth - 1; i >= 0; i--) {
+            Node<K, V> node = path[i];
+            Node<K, V> balanced = rebalance(node);
+            if (i == 0) {
+                root = balanced;
+            } else if (path[i - 1].left == node) {
+                path[i - 1].left = balanced;
+            } else {
+                path[i - 1].right = balanced;
+            }
+        }
+    }
+
+
+    //records node as the next node of the current descent and returns the new depth
+    private int remember(Node<K, V> node, int depth) {
+        if (depth == path.length) {
+            path = Arrays.copyOf(path, depth * 2);
+        }
+        path[depth] = node;
+        return depth + 1;
+    }
+
+
+    //makes an empty path buffer of the given length
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <K, V> Node<K, V>[] newPath(int length) {
+        return (Node<K, V>[]) new Node[length];
+    }
+
+
+    //puts a key, value pair in the avl tree and returns the old value, or null if the key was not in the tree
     @Override
     public V put(K key, V value) {
-        if (size == 0) {
-            root = new Node<>(key, value);
-            size++;
-            return null;
-        } else {
-            root = put(key, value, root);
-            return root.getValue();
+        int depth = 0;
+        Node<K, V> cur = root;
+        while (cur != null) {
+            int compareResult = comparator.compare(key, cur.getKey());
+            if (compareResult == 0) {
+                // the shape of the tree does not change, so there is nothing to rebalance
+                V oldVal = cur.getValue();
+                cur.setValue(value);
+                return oldVal;
+            }
+            depth = remember(cur, depth);
+            cur = compareResult < 0 ? cur.left : cur.right;
         }
+        attach(depth, key, value);
+        return null;
     }
 
 
-    
     /*
-     * puts a key value pair into the avl tree 
+     * adds a new leaf below the last of the first depth nodes of the current descent and rebalances the
+     * tree on the way back up. the path is kept in the reusable path buffer rather than on the call stack
      */
-    private Node<K, V> put(K key, V value, Node<K, V> curNode) {
-        if (curNode == null) {
-            size++;
-            return new Node<>(key, value);
+    private void attach(int depth, K key, V value) {
+        Node<K, V> leaf = new Node<>(key, value);
+        size++;
+        if (depth == 0) {
+            root = leaf;
+            return;
         }
-    
-        if (comparator.compare(key, curNode.getKey()) < 0) {
-            curNode.left = put(key, value, curNode.left);
-        } else if (comparator.compare(key, curNode.getKey()) > 0) {
-            curNode.right = put(key, value, curNode.right);
+        Node<K, V> parent = path[depth - 1];
+        if (comparator.compare(key, parent.getKey()) < 0) {
+            parent.left = leaf;
         } else {
-            curNode.setValue(value);
+            parent.right = leaf;
         }
-    
-        // Rebalance the tree after inserting the new node
-        return rebalance(curNode);
+        rebalancePath(depth);
+    }
+
+
+    /*
+     * merges a value into the avl tree in a single descent. an existing key is updated in place with no
+     * rebalancing, since the shape of the tree does not change. a new key is attached at the end of the
+     * same descent and the tree is rebalanced on the way back up
+     */
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        int depth = 0;
+        Node<K, V> cur = root;
+        while (cur != null) {
+            int compareResult = comparator.compare(key, cur.getKey());
+            if (compareResult == 0) {
+                V newVal = remappingFunction.apply(cur.getValue(), value);
+                cur.setValue(newVal);
+                return newVal;
+            }
+            depth = remember(cur, depth);
+            cur = compareResult < 0 ? cur.left : cur.right;
+        }
+        attach(depth, key, value);
+        return value;
     }
     
-    
+
 
     /*
      * removes a given key, value pair from the avl tree
+     * 
+     * a node with two children is replaced by its in-order successor. every node on the path from the
+     * root down to where the tree changed is then rebalanced, bottom up, so the tree stays balanced
      */
     public V remove(K key) {
-        Node<K, V> toRemoveParent = null;
+        int depth = 0;
         Node<K, V> toRemove = root;
 
         while(toRemove != null){
-            if(comparator.compare(key, toRemove.getKey()) < 0){
-                toRemoveParent = toRemove;
-                toRemove = toRemove.left;
-            } else if(comparator.compare(key, toRemove.getKey()) > 0){
-                toRemoveParent = toRemove;
-                toRemove = toRemove.right;
-            }else{
+            int compareResult = comparator.compare(key, toRemove.getKey());
+            if(compareResult == 0){
                 break;
             }
+            depth = remember(toRemove, depth);
+            toRemove = compareResult < 0 ? toRemove.left : toRemove.right;
         }
 
         if(toRemove == null){
@@ -230,60 +307,45 @@ public class AVLTree<K, V> implements MapSet<K, V> {
         }
 
         V value = toRemove.getValue();
+        Node<K, V> toRemoveParent = depth == 0 ? null : path[depth - 1];
 
-        handleReplacement(toRemove, toRemoveParent);
-        if(toRemoveParent != null){
-            rebalance(toRemoveParent);
-        } 
-        size--;
-
-        root = rebalance(root);
-
-        return value;
-
-    }
-
-
-    /*
-     * method that handles the replacement of nodes within the avl tree
-     * for when you remove from the avl tree
-     */
-    public void handleReplacement(Node<K, V> toDelete, Node<K, V> toDeleteParent){
         Node<K, V> replacement;
-        if(toDelete.left == null){
-            replacement = toDelete.right;
-        }else if(toDelete.right == null){
-            replacement = toDelete.left;
+        if(toRemove.left == null){
+            replacement = toRemove.right;
+        }else if(toRemove.right == null){
+            replacement = toRemove.left;
         }else{
-            Node<K, V> parent = toDelete;
-            replacement = toDelete.right;
-            while(replacement.left!= null){
-                parent = replacement;
+            // find the successor, remembering the path to it so it can be rebalanced. the successor takes
+            // the removed node's place on the path, so its slot is held by the removed node until then
+            int replacementDepth = depth;
+            depth = remember(toRemove, depth);
+            replacement = toRemove.right;
+            while(replacement.left != null){
+                depth = remember(replacement, depth);
                 replacement = replacement.left;
             }
 
-            if(parent != toDelete){
-                parent.left = replacement.right;
-            }
-            else{
-                parent.right = replacement.right;
+            if(depth > replacementDepth + 1){
+                path[depth - 1].left = replacement.right;
+                replacement.right = toRemove.right;
             }
+            replacement.left = toRemove.left;
 
-            replacement.left = toDelete.left;
-            replacement.right = toDelete.right;
+            path[replacementDepth] = replacement;
         }
 
-        if(toDeleteParent == null){
+        if(toRemoveParent == null){
             root = replacement;
-        }else if (toDeleteParent.left == toDelete){
-            toDeleteParent.left = replacement;
+        }else if(toRemoveParent.left == toRemove){
+            toRemoveParent.left = replacement;
         }else{
-            toDeleteParent.right = replacement;
+            toRemoveParent.right = replacement;
         }
+        size--;
 
-        if(toDeleteParent != null){
-            rebalance(toDeleteParent);
-        }
+        rebalancePath(depth);
+
+        return value;
 
     }
 
@@ -306,132 +368,235 @@ public class AVLTree<K, V> implements MapSet<K, V> {
      */
     @Override
     public V get(K key) {
-        return get(key, root);
-    }
-
-    /*
-     * recursive method for get - compares node values until the correct node is found, and that nodes
-     * value is returned
-     */
-    private V get(K key, Node<K, V> cur){
-        if (cur == null){
-            return null;
-        }
-        if(comparator.compare(key, cur.getKey()) < 0){
-            return get(key, cur.left);
-        }else if(comparator.compare(key, cur.getKey()) > 0){
-            return get(key, cur.right);
-        }else{
-            return cur.getValue();
+        Node<K, V> cur = root;
+        while (cur != null) {
+            int compareResult = comparator.compare(key, cur.getKey());
+            if (compareResult < 0) {
+                cur = cur.left;
+            } else if (compareResult > 0) {
+                cur = cur.right;
+            } else {
+                return cur.getValue();
+            }
         }
-
+        return null;
     }
 
     /*
-     * returns an arraylist of the keys in the avl tree
+     * returns an arraylist of the keys in the avl tree, in key order
      */
     public ArrayList<K> keySet() {
-        ArrayList keys = new ArrayList();
-        keySet(root, keys);
+        ArrayList<K> keys = new ArrayList<>();
+        forEach((key, value) -> keys.add(key));
         return keys;
     }
 
-
-    //recursive method that gathers the keys in the avl tree
-    public void keySet(Node<K, V> cur, ArrayList<K> output){
-        if(cur == null){
-            return;
-        }
-
-        keySet(cur.left, output);
-        output.add(cur.getKey());
-        keySet(cur.right, output);
-    }
-
-
-
-     //returns an arraylist of the values in the avl tree
+    //returns an arraylist of the values in the avl tree, in key order
     public ArrayList<V> values() {
-        ArrayList vals = new ArrayList();
-        values(root, vals);
+        ArrayList<V> vals = new ArrayList<>();
+        forEach((key, value) -> vals.add(value));
         return vals;
     }
 
-    //recursive method that gathers the values in the avl tree
-    public void values(Node<K, V> cur, ArrayList<V> output){
-        if(cur == null){
-            return;
-        }
-
-        values(cur.left, output);
-        output.add(cur.getValue());
-        values(cur.right, output);
+    //returns an arraylist of the keyvalue pairs in the avl tree, in key order
+    public ArrayList<MapSet.KeyValuePair<K, V>> entrySet() {
+        ArrayList<MapSet.KeyValuePair<K, V>> pairs = new ArrayList<>();
+        forEach((key, value) -> pairs.add(new KeyValuePair<>(key, value)));
+        return pairs;
     }
 
 
-    //returns an arraylist of the keyvalue pairs in the avl tree
-    public ArrayList<MapSet.KeyValuePair<K, V>> entrySet() {
-        ArrayList pairs = new ArrayList();
-        entrySet(root, pairs);
-        return pairs;
+    /*
+     * calls action on every key value pair in key order using a Morris traversal, which threads
+     * temporary links from each node's in-order predecessor back to the node instead of using a
+     * stack, so no extra memory is needed. every temporary link is removed before this returns,
+     * even if action throws
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        forEachNode(node -> action.accept(node.getKey(), node.getValue()));
     }
 
-    //recursive method that gathers the key value pairs in the avl tree
-    public void entrySet(Node<K, V> cur, ArrayList<MapSet.KeyValuePair<K, V>> output){
-        if(cur == null){
-            return;
+    //calls action on every node in key order, with the same Morris traversal forEach uses
+    private void forEachNode(Consumer<Node<K, V>> action) {
+        RuntimeException failure = null;
+        Node<K, V> cur = root;
+        while (cur != null) {
+            Node<K, V> visit = null;
+            if (cur.left == null) {
+                visit = cur;
+                cur = cur.right;
+            } else {
+                Node<K, V> pred = cur.left;
+                while (pred.right != null && pred.right != cur) {
+                    pred = pred.right;
+                }
+                if (pred.right == null) {
+                    pred.right = cur;
+                    cur = cur.left;
+                } else {
+                    pred.right = null;
+                    visit = cur;
+                    cur = cur.right;
+                }
+            }
+            // after a failure, keep walking only to undo the temporary links
+            if (visit != null && failure == null) {
+                try {
+                    action.accept(visit);
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+            }
         }
+        if (failure != null) {
+            throw failure;
+        }
+    }
 
-        entrySet(cur.left, output);
-        K key = cur.getKey();
-        V val = cur.getValue();
-        output.add(new KeyValuePair<>(key, val));
-        entrySet(cur.right, output);
 
+    /*
+     * removes every key value pair that filter accepts and returns how many were removed
+     * 
+     * instead of rebalancing along the path once per removed key, the surviving nodes are
+     * collected in key order and relinked into a perfectly balanced tree in a single pass,
+     * so this runs in linear time however many keys are removed. filter must not modify the tree
+     */
+    @Override
+    public int removeIf(BiPredicate<? super K, ? super V> filter) {
+        ArrayList<Node<K, V>> kept = new ArrayList<>(size);
+        forEachNode(node -> {
+            if (!filter.test(node.getKey(), node.getValue())) {
+                kept.add(node);
+            }
+        });
+        int removed = size - kept.size();
+        if (removed > 0) {
+            root = buildBalanced(kept, 0, kept.size());
+            size = kept.size();
+        }
+        return removed;
     }
 
+    /**
+     * Replaces the contents of this tree with the given entries, which must be in strictly
+     * ascending key order. The nodes are linked into a perfectly balanced tree in linear
+     * time with no rotations, instead of the n log n time and many rotations that inserting
+     * them one at a time takes.
+     * 
+     * @param entries the key-value pairs to load, in ascending key order
+     * @throws IllegalArgumentException if a key is not greater than the key before it,
+     *         in which case the tree is left unchanged
+     */
+    public void buildFromSorted(Iterator<? extends MapSet.KeyValuePair<K, V>> entries) {
+        ArrayList<Node<K, V>> nodes = new ArrayList<>();
+        Node<K, V> previous = null;
+        while (entries.hasNext()) {
+            MapSet.KeyValuePair<K, V> entry = entries.next();
+            if (previous != null && comparator.compare(previous.getKey(), entry.getKey()) >= 0) {
+                throw new IllegalArgumentException("Keys are not in ascending order: " + previous.getKey() + " then " + entry.getKey());
+            }
+            previous = new Node<>(entry.getKey(), entry.getValue());
+            nodes.add(previous);
+        }
+        root = buildBalanced(nodes, 0, nodes.size());
+        size = nodes.size();
+    }
 
+    /*
+     * links nodes[lo, hi), which are in key order, into a balanced subtree and returns its root.
+     * the middle node becomes the root, so the recursion is only log n deep
+     */
+    private Node<K, V> buildBalanced(ArrayList<Node<K, V>> nodes, int lo, int hi) {
+        if (lo >= hi) {
+            return null;
+        }
+        int mid = (lo + hi) >>> 1;
+        Node<K, V> node = nodes.get(mid);
+        node.left = buildBalanced(nodes, lo, mid);
+        node.right = buildBalanced(nodes, mid + 1, hi);
+        updateHeight(node);
+        return node;
+    }
 
-    //returns the size of the data structure
+    //returns the size of the data structure, which is kept up to date by every insertion and removal
     @Override
     public int size() {
-        return size(root);
+        return size;
     }
 
-    //recursive method that calculates the size of the tree
-    public int size(Node<K, V> cur){
-        if(cur == null){
-            return 0;
+    //returns the number of nodes in the subtree rooted at node
+    private int count(Node<K, V> node) {
+        return (node == null) ? 0 : node.count;
+    }
+
+    /**
+     * Returns the number of keys in the tree that are strictly less than key,
+     * which is the index key has (or would have) in keySet(). Runs in
+     * O(log n) time, using the subtree sizes.
+     * 
+     * @param key the key to rank
+     * @return the number of keys smaller than key
+     */
+    public int rank(K key) {
+        int rank = 0;
+        Node<K, V> cur = root;
+        while (cur != null) {
+            int compareResult = comparator.compare(key, cur.getKey());
+            if (compareResult < 0) {
+                cur = cur.left;
+            } else if (compareResult > 0) {
+                rank += count(cur.left) + 1;
+                cur = cur.right;
+            } else {
+                return rank + count(cur.left);
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the key at the given index in key order, so select(0) is the smallest key.
+     * Runs in O(log n) time, using the subtree sizes.
+     * 
+     * @param index the position of the key in keySet()
+     * @return the key at that position
+     * @throws IndexOutOfBoundsException if index is negative or not less than size()
+     */
+    public K select(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        Node<K, V> cur = root;
+        while (true) {
+            int leftCount = count(cur.left);
+            if (index < leftCount) {
+                cur = cur.left;
+            } else if (index > leftCount) {
+                index -= leftCount + 1;
+                cur = cur.right;
+            } else {
+                return cur.getKey();
+            }
         }
-        int sizeLeft = size(cur.left);
-        int sizeRight = size(cur.right);
-        return 1 + sizeLeft + sizeRight;
     }
 
 
 
+
     //clears the contents of the avl tree
     @Override
     public void clear() {
         this.size = 0;
         root = null;
+        path = newPath(32);
     }
 
 
-    //returns the max depth of the avl tree
+    //returns the max depth of the avl tree, which is the height stored at the root plus one
     @Override
     public int maxDepth() {
-        return maxDepth(root);
-    }
-
-    //recursive method that calculates the maxdepth of the avl tree 
-    public int maxDepth(Node<K, V> cur){
-        if (cur == null){
-            return 0;
-        }
-        int depthLeft = maxDepth(cur.left);
-        int depthRight = maxDepth(cur.right);
-        return 1 + Math.max(depthLeft, depthRight);
+        return height(root) + 1;
     }
 
     //returns a string representation of the avl tree
@@ -440,31 +605,46 @@ public class AVLTree<K, V> implements MapSet<K, V> {
             return "Empty Tree";
         }
         else{
-            return toString(root,0,"root");
+            return toString(root);
         }
     }
 
-    //builds the strin grepresentation to be returned if the AVL tree contains nodes
-    private String toString(Node<K, V> curNode, int depth, String direction) {
-        if (curNode == null) {
-            return "";
-        }
-    
-        String myself = curNode.toString();
-    
-        String left = toString(curNode.left, depth + 1, "left");
-        String right = toString(curNode.right, depth + 1, "right");
-    
-        String result = "";
-        if (!right.isEmpty()) {
-            result += right + '\n';
-        }
-        result += "  ".repeat(depth) + direction + ": " + myself;
-        if (!left.isEmpty()) {
-            result += '\n' + left;
+    /*
+     * builds the string representation to be returned if the AVL tree contains nodes: one line per node,
+     * right subtree above and left subtree below, indented by depth. walks the tree in reverse order
+     * with an explicit stack
+     */
+    private String toString(Node<K, V> top) {
+        StringBuilder result = new StringBuilder();
+        ArrayDeque<Node<K, V>> nodes = new ArrayDeque<>();
+        ArrayDeque<Integer> depths = new ArrayDeque<>();
+        ArrayDeque<String> directions = new ArrayDeque<>();
+
+        Node<K, V> curNode = top;
+        int depth = 0;
+        String direction = "root";
+        while (curNode != null || !nodes.isEmpty()) {
+            while (curNode != null) {
+                nodes.push(curNode);
+                depths.push(depth);
+                directions.push(direction);
+                curNode = curNode.right;
+                depth++;
+                direction = "right";
+            }
+            curNode = nodes.pop();
+            depth = depths.pop();
+            direction = directions.pop();
+
+            if (result.length() > 0) {
+                result.append('\n');
+            }
+            result.append("  ".repeat(depth)).append(direction).append(": ").append(curNode);
+
+            curNode = curNode.left;
+            depth++;
+            direction = "left";
         }
-        return result;
+        return result.toString();
     }
-    
-    
 }
\ No newline at end of file
@@ -13,6 +13,12 @@
  *   java -ea AVLTreeTest
  */
 
+// Import required libraries
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.Random;
+import java.util.TreeMap;
+
 /**
  * Test suite for AVL Tree self-balancing functionality.
  */
@@ -28,6 +34,12 @@ public class AVLTreeTest {
         System.out.println("Running AVL Tree tests...");
         testPutAndRebalance();
         testRemoveAndRebalance();
+        testMergeAndRebalance();
+        testForEach();
+        testRandomOperations();
+        testRankAndSelect();
+        testRemoveIf();
+        testBuildFromSorted();
         System.out.println("All AVL Tree tests passed!");
     }
 
@@ -81,8 +93,183 @@ public class AVLTreeTest {
         assert rootHeight == 4 : "Error: Expected height 4 after removal, found " + rootHeight;
 
         // Remove another node and verify balance
+        // (an AVL tree needs at least 7 nodes to reach height 4, so 6 nodes must fit in 3 levels)
         tree.remove("15");        
         rootHeight = tree.maxDepth();
-        assert rootHeight == 4 : "Error: Expected height 4 after second removal, found " + rootHeight;
+        assert rootHeight == 3 : "Error: Expected height 3 after second removal, found " + rootHeight;
+        assert tree.size() == 6 : "Error: Expected size 6 after two removals, found " + tree.size();
+    }
+
+    /**
+     * Tests merge operations on new and existing keys.
+     * Verifies that counts are combined and that new keys still trigger rebalancing.
+     */
+    public static void testMergeAndRebalance() {
+        AVLTree<String, Integer> tree = new AVLTree<>();
+
+        // Sorted keys would make a linked list without rebalancing
+        for (int i = 0; i < 7; i++) {
+            tree.merge("key" + i, 1, Integer::sum);
+        }
+        assert tree.maxDepth() == 3 : "Error: Expected height 3 after merging sorted keys, found " + tree.maxDepth();
+
+        tree.merge("key3", 1, Integer::sum);
+        int merged = tree.merge("key3", 5, Integer::sum);
+        assert merged == 7 : "Error: Expected merged value 7, found " + merged;
+        assert tree.get("key3") == 7 : "Error: Expected key3 to map to 7, found " + tree.get("key3");
+        assert tree.size() == 7 : "Error: Expected size 7, found " + tree.size();
+    }
+
+    /**
+     * Tests in-order iteration with forEach.
+     * Verifies that keys are visited in sorted order and the tree is left balanced.
+     */
+    public static void testForEach() {
+        AVLTree<String, Integer> tree = new AVLTree<>();
+        for (int i = 0; i < 100; i++) {
+            tree.put(String.format("%03d", (i * 37) % 100), i);
+        }
+        int height = tree.maxDepth();
+        StringBuilder previous = new StringBuilder();
+        int[] visited = new int[1];
+        tree.forEach((key, value) -> {
+            assert key.compareTo(previous.toString()) > 0 : "Error: forEach visited " + key + " after " + previous;
+            previous.setLength(0);
+            previous.append(key);
+            visited[0]++;
+        });
+        assert visited[0] == 100 : "Error: Expected 100 keys visited, found " + visited[0];
+        assert tree.maxDepth() == height : "Error: forEach changed the tree height";
+    }
+
+    /**
+     * Tests a long random sequence of puts and removes against TreeMap.
+     * Verifies the contents after every step and that the height stays within the AVL bound.
+     */
+    public static void testRandomOperations() {
+        AVLTree<Integer, Integer> tree = new AVLTree<>();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        Random random = new Random(231);
+
+        for (int step = 0; step < 20000; step++) {
+            int key = random.nextInt(2000);
+            if (random.nextInt(3) == 0) {
+                assert Objects.equals(tree.remove(key), expected.remove(key)) : "Error: remove(" + key + ") disagreed at step " + step;
+            } else {
+                assert Objects.equals(tree.put(key, step), expected.put(key, step)) : "Error: put(" + key + ") disagreed at step " + step;
+            }
+        }
+
+        assert tree.size() == expected.size() : "Error: Expected size " + expected.size() + ", found " + tree.size();
+        assert tree.keySet().equals(new ArrayList<>(expected.keySet())) : "Error: keySet differs from TreeMap";
+        double bound = 1.45 * Math.log(expected.size() + 2) / Math.log(2);
+        assert tree.maxDepth() <= bound : "Error: height " + tree.maxDepth() + " exceeds AVL bound " + bound;
+    }
+
+    /**
+     * Tests rank() and select() against java.util.TreeMap after random puts and removes.
+     * Verifies that subtree sizes survive rotations and successor replacement.
+     */
+    public static void testRankAndSelect() {
+        AVLTree<Integer, Integer> tree = new AVLTree<>();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        Random random = new Random(42);
+        for (int step = 0; step < 5000; step++) {
+            int key = random.nextInt(1000) * 2;
+            if (random.nextInt(4) == 0) {
+                tree.remove(key);
+                expected.remove(key);
+            } else {
+                tree.put(key, step);
+                expected.put(key, step);
+            }
+        }
+
+        ArrayList<Integer> keys = new ArrayList<>(expected.keySet());
+        assert tree.size() == keys.size() : "Error: Expected size " + keys.size() + ", found " + tree.size();
+        for (int i = 0; i < keys.size(); i++) {
+            assert tree.select(i).equals(keys.get(i)) : "Error: select(" + i + ") returned " + tree.select(i);
+            assert tree.rank(keys.get(i)) == i : "Error: rank(" + keys.get(i) + ") returned " + tree.rank(keys.get(i));
+            assert tree.rank(keys.get(i) + 1) == i + 1 : "Error: rank of a missing key was wrong";
+        }
+    }
+
+    /**
+     * Tests removeIf() and removeAll() against java.util.TreeMap.
+     * Verifies that the rebuilt tree holds the right keys and is still a valid AVL tree.
+     */
+    public static void testRemoveIf() {
+        AVLTree<Integer, Integer> tree = new AVLTree<>();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 3000; i++) {
+            int key = random.nextInt(10000);
+            tree.put(key, i);
+            expected.put(key, i);
+        }
+        int before = expected.size();
+        expected.values().removeIf(value -> value % 3 == 0);
+        int removed = tree.removeIf((key, value) -> value % 3 == 0);
+        assert removed == before - expected.size() : "Error: removeIf removed " + removed;
+        assert tree.keySet().equals(new ArrayList<>(expected.keySet())) : "Error: removeIf kept the wrong keys";
+        assert tree.maxDepth() <= 1 + (int) Math.ceil(Math.log(expected.size() + 1) / Math.log(2)) : "Error: rebuilt tree is not balanced";
+
+        // the rebuilt tree must still rebalance correctly
+        ArrayList<Integer> toRemove = new ArrayList<>(new ArrayList<>(expected.keySet()).subList(0, 100));
+        assert tree.removeAll(toRemove) == 100 : "Error: removeAll removed the wrong number of keys";
+        for (Integer key : toRemove) {
+            expected.remove(key);
+        }
+        for (int i = 0; i < 1000; i++) {
+            tree.put(20000 + i, i);
+            expected.put(20000 + i, i);
+        }
+        assert tree.size() == expected.size() : "Error: size after removeAll is " + tree.size();
+        assert tree.keySet().equals(new ArrayList<>(expected.keySet())) : "Error: keys after removeAll differ";
+        assert tree.maxDepth() <= 1.45 * Math.log(expected.size() + 2) / Math.log(2) : "Error: tree height " + tree.maxDepth() + " exceeds the AVL bound";
+        assert tree.select(0).equals(expected.firstKey()) : "Error: select(0) after removeAll is wrong";
+    }
+
+    /**
+     * Tests buildFromSorted() against java.util.TreeMap.
+     * Verifies that the loaded tree is balanced and keeps rebalancing correctly afterwards.
+     */
+    public static void testBuildFromSorted() {
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        ArrayList<MapSet.KeyValuePair<Integer, Integer>> entries = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            expected.put(i * 3, i);
+            entries.add(new MapSet.KeyValuePair<>(i * 3, i));
+        }
+        AVLTree<Integer, Integer> tree = new AVLTree<>();
+        tree.buildFromSorted(entries.iterator());
+        assert tree.size() == 1000 : "Error: buildFromSorted loaded " + tree.size() + " entries";
+        assert tree.maxDepth() == 10 : "Error: buildFromSorted tree has height " + tree.maxDepth();
+        assert tree.keySet().equals(new ArrayList<>(expected.keySet())) : "Error: buildFromSorted keys differ";
+
+        Random random = new Random(3);
+        for (int step = 0; step < 3000; step++) {
+            int key = random.nextInt(4000);
+            if (random.nextBoolean()) {
+                tree.remove(key);
+                expected.remove(key);
+            } else {
+                tree.put(key, step);
+                expected.put(key, step);
+            }
+        }
+        assert tree.keySet().equals(new ArrayList<>(expected.keySet())) : "Error: keys differ after updates";
+        assert tree.select(expected.size() / 2).equals(new ArrayList<>(expected.keySet()).get(expected.size() / 2)) : "Error: select after updates is wrong";
+        assert tree.maxDepth() <= 1.45 * Math.log(expected.size() + 2) / Math.log(2) : "Error: tree height " + tree.maxDepth() + " exceeds the AVL bound";
+
+        entries.set(10, new MapSet.KeyValuePair<>(-1, 0));
+        boolean rejected = false;
+        try {
+            tree.buildFromSorted(entries.iterator());
+        } catch (IllegalArgumentException e) {
+            rejected = true;
+        }
+        assert rejected : "Error: buildFromSorted accepted unsorted keys";
+        assert tree.size() == expected.size() : "Error: a rejected buildFromSorted changed the tree";
     }
 }
\ No newline at end of file
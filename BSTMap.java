@@ -18,8 +18,15 @@
 
 
 //import required libraries
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Iterator;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
 
 /**
  * Binary Search Tree implementation of the MapSet interface.
@@ -54,10 +61,12 @@ public class BSTMap<K, V> implements MapSet<K, V> {
 
     /**
      * Internal Node class for the binary search tree.
-     * Each node contains a key-value pair and references to left and right children.
+     * Each node contains a key-value pair, references to left and right children,
+     * and the number of nodes in its subtree.
      */
     private static class Node<K, V> extends KeyValuePair<K, V> {
         Node<K, V> left, right;
+        int count;
 
         /**
          * Creates a new node with the specified key and value.
@@ -69,13 +78,15 @@ public class BSTMap<K, V> implements MapSet<K, V> {
             super(key, value);
             left = null;
             right = null;
+            count = 1;
         }
     }
 
     // Instance fields for BST Map
     private Node<K, V> root;        // Root node of the tree
-    private int size;               // Number of key-value pairs in the tree
+    private int size;               // Number of key-value pairs in the tree, always equal to root.count
     private Comparator<K> comparator; // Comparator for key comparison
+    private Node<K, V>[] path = newPath(32); // Nodes on the current put or merge descent, reused between calls
 
     /**
      * Constructs a new BSTMap with the specified comparator.
@@ -119,48 +130,134 @@ public class BSTMap<K, V> implements MapSet<K, V> {
      */
     @Override
     public V put(K key, V value) {
-        if (size == 0) {
+        if (root == null) {
             root = new Node<>(key, value);
             size++;
             return null;
-        } else {
-            return put(key, value, root);
+        }
+
+        // Walk down iteratively so a degenerate tree cannot overflow the stack
+        Node<K, V> curNode = root;
+        int depth = 0;
+        while (true) {
+            int compareResult = comparator.compare(key, curNode.getKey());
+            if (compareResult != 0) {
+                depth = remember(curNode, depth);
+            }
+            if (compareResult < 0) {
+                // Key is smaller, go to left subtree
+                if (curNode.left == null) {
+                    curNode.left = new Node<>(key, value);
+                    growPath(depth);
+                    return null;
+                }
+                curNode = curNode.left;
+            } else if (compareResult > 0) {
+                // Key is larger, go to right subtree
+                if (curNode.right == null) {
+                    curNode.right = new Node<>(key, value);
+                    growPath(depth);
+                    return null;
+                }
+                curNode = curNode.right;
+            } else {
+                // Key already exists, update value
+                V oldVal = curNode.getValue();
+                curNode.setValue(value);
+                return oldVal;
+            }
         }
     }
 
+
+    //records node as the next node of the current descent and returns the new depth
+    private int remember(Node<K, V> node, int depth) {
+        if (depth == path.length) {
+            path = Arrays.copyOf(path, depth * 2);
+        }
+        path[depth] = node;
+        return depth + 1;
+    }
+
+
+    /*
+     * adds one to the subtree size of the first depth nodes of the current descent, which are
+     * the ancestors of the leaf just attached, and to the tree size. the ancestors were recorded
+     * on the way down, so put and merge never search the tree a second time
+     */
+    private void growPath(int depth) {
+        size++;
+        for (int i = 0; i < depth; i++) {
+            path[i].count++;
+        }
+    }
+
+
+    //makes an empty path buffer of the given length
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <K, V> Node<K, V>[] newPath(int length) {
+        return (Node<K, V>[]) new Node[length];
+    }
+
+
+    /*
+     * adds delta to the subtree size of every strict ancestor of target, and to the tree size.
+     * called before a node is removed, so only happens when the shape of the tree changes,
+     * never on a plain update
+     */
+    private void addToCounts(Node<K, V> target, int delta) {
+        size += delta;
+        Node<K, V> cur = root;
+        while (cur != target) {
+            cur.count += delta;
+            cur = comparator.compare(target.getKey(), cur.getKey()) < 0 ? cur.left : cur.right;
+        }
+    }
+
+
     /**
-     * Recursive helper method for put operation.
-     * Finds the correct position for the new key-value pair in the tree.
+     * Merges a value into the tree in a single descent. If the key exists, its value is
+     * replaced with remappingFunction(old, value); otherwise a new leaf is added.
      * 
-     * @param key the key to insert
-     * @param value the value to insert
-     * @param curNode the current node being examined
-     * @return the previous value if key existed, null otherwise
+     * @param key the key to merge
+     * @param value the value to add, or to combine with the existing value
+     * @param remappingFunction combines the existing value with value
+     * @return the new value associated with key
      */
-    private V put(K key, V value, Node<K, V> curNode) {
-        if (comparator.compare(key, curNode.getKey()) < 0) {
-            // Key is smaller, go to left subtree
-            if (curNode.left == null) {
-                curNode.left = new Node<>(key, value);
-                size++;
-                return null;
-            } else {
-                return put(key, value, curNode.left);
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        if (root == null) {
+            root = new Node<>(key, value);
+            size++;
+            return value;
+        }
+
+        Node<K, V> curNode = root;
+        int depth = 0;
+        while (true) {
+            int compareResult = comparator.compare(key, curNode.getKey());
+            if (compareResult != 0) {
+                depth = remember(curNode, depth);
             }
-        } else if (comparator.compare(key, curNode.getKey()) > 0) {
-            // Key is larger, go to right subtree
-            if (curNode.right == null) {
-                curNode.right = new Node<>(key, value);
-                size++;
-                return null;
+            if (compareResult < 0) {
+                if (curNode.left == null) {
+                    curNode.left = new Node<>(key, value);
+                    growPath(depth);
+                    return value;
+                }
+                curNode = curNode.left;
+            } else if (compareResult > 0) {
+                if (curNode.right == null) {
+                    curNode.right = new Node<>(key, value);
+                    growPath(depth);
+                    return value;
+                }
+                curNode = curNode.right;
             } else {
-                return put(key, value, curNode.right);
+                V newVal = remappingFunction.apply(curNode.getValue(), value);
+                curNode.setValue(newVal);
+                return newVal;
             }
-        } else {
-            // Key already exists, update value
-            V oldVal = curNode.getValue();
-            curNode.setValue(value);
-            return oldVal;
         }
     }
 
@@ -185,30 +282,18 @@ public class BSTMap<K, V> implements MapSet<K, V> {
      */
     @Override
     public V get(K key) {
-        return get(key, root);
-    }
-
-    /**
-     * Recursive helper method for get operation.
-     * Searches the tree for the specified key.
-     * 
-     * @param key the key to search for
-     * @param cur the current node being examined
-     * @return the value associated with the key, or null if not found
-     */
-    private V get(K key, Node<K, V> cur) {
-        if (cur == null) {
-            return null;
-        }
-        
-        int compareResult = comparator.compare(key, cur.getKey());
-        if (compareResult < 0) {
-            return get(key, cur.left);
-        } else if (compareResult > 0) {
-            return get(key, cur.right);
-        } else {
-            return cur.getValue();
+        Node<K, V> cur = root;
+        while (cur != null) {
+            int compareResult = comparator.compare(key, cur.getKey());
+            if (compareResult < 0) {
+                cur = cur.left;
+            } else if (compareResult > 0) {
+                cur = cur.right;
+            } else {
+                return cur.getValue();
+            }
         }
+        return null;
     }
 
     /*
@@ -237,10 +322,9 @@ public class BSTMap<K, V> implements MapSet<K, V> {
 
         V value = toRemove.getValue();
 
+        addToCounts(toRemove, -1);
         handleReplacement(toRemove, toRemoveParent);
 
-        size--;
-
         return value;
 
     }
@@ -257,9 +341,11 @@ public class BSTMap<K, V> implements MapSet<K, V> {
         }else if(toDelete.right == null){
             replacement = toDelete.left;
         }else{
+            // every node passed on the way to the successor loses it from its subtree
             Node<K, V> parent = toDelete;
             replacement = toDelete.right;
             while(replacement.left!= null){
+                replacement.count--;
                 parent = replacement;
                 replacement = replacement.left;
             }
@@ -273,6 +359,7 @@ public class BSTMap<K, V> implements MapSet<K, V> {
 
             replacement.left = toDelete.left;
             replacement.right = toDelete.right;
+            replacement.count = toDelete.count - 1;
         }
 
         if(toDeleteParent == null){
@@ -287,101 +374,229 @@ public class BSTMap<K, V> implements MapSet<K, V> {
 
     
     /*
-     * returns an arraylist of the keys in the binary search tree
+     * returns an arraylist of the keys in the binary search tree, in key order
      */
     public ArrayList<K> keySet() {
-        ArrayList keys = new ArrayList();
-        keySet(root, keys);
+        ArrayList<K> keys = new ArrayList<>();
+        forEach((key, value) -> keys.add(key));
         return keys;
     }
 
+    //returns an arraylist of the values in the binary search tree, in key order
+    public ArrayList<V> values() {
+        ArrayList<V> vals = new ArrayList<>();
+        forEach((key, value) -> vals.add(value));
+        return vals;
+    }
 
-    //recursive method that gathers the keys in the binary search tree
-    public void keySet(Node<K, V> cur, ArrayList<K> output){
-        if(cur == null){
-            return;
-        }
-
-        keySet(cur.left, output);
-        output.add(cur.getKey());
-        keySet(cur.right, output);
+    //returns an arraylist of the keyvalue pairs in the binary search tree, in key order
+    public ArrayList<MapSet.KeyValuePair<K, V>> entrySet() {
+        ArrayList<MapSet.KeyValuePair<K, V>> pairs = new ArrayList<>();
+        forEach((key, value) -> pairs.add(new KeyValuePair<>(key, value)));
+        return pairs;
     }
 
-    //returns an arraylist of the values in the binary search tree
-    public ArrayList<V> values() {
-        ArrayList vals = new ArrayList();
-        values(root, vals);
-        return vals;
+    /*
+     * calls action on every key value pair in key order using a Morris traversal, which threads
+     * temporary links from each node's in-order predecessor back to the node instead of using a
+     * stack, so no extra memory is needed. every temporary link is removed before this returns,
+     * even if action throws
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        forEachNode(node -> action.accept(node.getKey(), node.getValue()));
     }
 
-    //recursive method that gathers the values in the binary search tree
-    public void values(Node<K, V> cur, ArrayList<V> output){
-        if(cur == null){
-            return;
+    //calls action on every node in key order, with the same Morris traversal forEach uses
+    private void forEachNode(Consumer<Node<K, V>> action) {
+        RuntimeException failure = null;
+        Node<K, V> cur = root;
+        while (cur != null) {
+            Node<K, V> visit = null;
+            if (cur.left == null) {
+                visit = cur;
+                cur = cur.right;
+            } else {
+                Node<K, V> pred = cur.left;
+                while (pred.right != null && pred.right != cur) {
+                    pred = pred.right;
+                }
+                if (pred.right == null) {
+                    pred.right = cur;
+                    cur = cur.left;
+                } else {
+                    pred.right = null;
+                    visit = cur;
+                    cur = cur.right;
+                }
+            }
+            // after a failure, keep walking only to undo the temporary links
+            if (visit != null && failure == null) {
+                try {
+                    action.accept(visit);
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
         }
+    }
 
-        values(cur.left, output);
-        output.add(cur.getValue());
-        values(cur.right, output);
+    /*
+     * removes every key value pair that filter accepts and returns how many were removed
+     * 
+     * instead of searching and splicing the tree once per removed key, the surviving nodes are
+     * collected in key order and relinked into a perfectly balanced tree in a single pass,
+     * so this runs in linear time however many keys are removed. filter must not modify the tree
+     */
+    @Override
+    public int removeIf(BiPredicate<? super K, ? super V> filter) {
+        ArrayList<Node<K, V>> kept = new ArrayList<>(size);
+        forEachNode(node -> {
+            if (!filter.test(node.getKey(), node.getValue())) {
+                kept.add(node);
+            }
+        });
+        int removed = size - kept.size();
+        if (removed > 0) {
+            root = buildBalanced(kept, 0, kept.size());
+            size = kept.size();
+        }
+        return removed;
     }
 
-    
-    //returns an arraylist of the keyvalue pairs in the binary search tree
-    public ArrayList<MapSet.KeyValuePair<K, V>> entrySet() {
-        ArrayList pairs = new ArrayList();
-        entrySet(root, pairs);
-        return pairs;
+    /**
+     * Replaces the contents of this tree with the given entries, which must be in strictly
+     * ascending key order. The nodes are linked into a perfectly balanced tree in linear
+     * time, instead of the degenerate, list-shaped tree that inserting them one at a time builds.
+     * 
+     * @param entries the key-value pairs to load, in ascending key order
+     * @throws IllegalArgumentException if a key is not greater than the key before it,
+     *         in which case the tree is left unchanged
+     */
+    public void buildFromSorted(Iterator<? extends MapSet.KeyValuePair<K, V>> entries) {
+        ArrayList<Node<K, V>> nodes = new ArrayList<>();
+        Node<K, V> previous = null;
+        while (entries.hasNext()) {
+            MapSet.KeyValuePair<K, V> entry = entries.next();
+            if (previous != null && comparator.compare(previous.getKey(), entry.getKey()) >= 0) {
+                throw new IllegalArgumentException("Keys are not in ascending order: " + previous.getKey() + " then " + entry.getKey());
+            }
+            previous = new Node<>(entry.getKey(), entry.getValue());
+            nodes.add(previous);
+        }
+        root = buildBalanced(nodes, 0, nodes.size());
+        size = nodes.size();
     }
 
-    //recursive method that gathers the key value pairs in the binary search tree
-    public void entrySet(Node<K, V> cur, ArrayList<MapSet.KeyValuePair<K, V>> output){
-        if(cur == null){
-            return;
+    /*
+     * links nodes[lo, hi), which are in key order, into a balanced subtree and returns its root.
+     * the middle node becomes the root, so the recursion is only log n deep
+     */
+    private Node<K, V> buildBalanced(ArrayList<Node<K, V>> nodes, int lo, int hi) {
+        if (lo >= hi) {
+            return null;
         }
+        int mid = (lo + hi) >>> 1;
+        Node<K, V> node = nodes.get(mid);
+        node.left = buildBalanced(nodes, lo, mid);
+        node.right = buildBalanced(nodes, mid + 1, hi);
+        node.count = 1 + count(node.left) + count(node.right);
+        return node;
+    }
 
-        entrySet(cur.left, output);
-        K key = cur.getKey();
-        V val = cur.getValue();
-        output.add(new KeyValuePair<>(key, val));
-        entrySet(cur.right, output);
+    //returns the size of the binary search tree, which is kept up to date by every insertion and removal
+    public int size() {
+        return size;
+    }
 
+    //returns the number of nodes in the subtree rooted at node
+    private int count(Node<K, V> node) {
+        return (node == null) ? 0 : node.count;
     }
 
-    //returns the size of the binary search tree
-    public int size() {
-        return size(root);
+    /**
+     * Returns the number of keys in the tree that are strictly less than key,
+     * which is the index key has (or would have) in keySet(). Runs in time
+     * proportional to the depth of the tree, using the subtree sizes.
+     * 
+     * @param key the key to rank
+     * @return the number of keys smaller than key
+     */
+    public int rank(K key) {
+        int rank = 0;
+        Node<K, V> cur = root;
+        while (cur != null) {
+            int compareResult = comparator.compare(key, cur.getKey());
+            if (compareResult < 0) {
+                cur = cur.left;
+            } else if (compareResult > 0) {
+                rank += count(cur.left) + 1;
+                cur = cur.right;
+            } else {
+                return rank + count(cur.left);
+            }
+        }
+        return rank;
     }
 
-    //recursive method that calculates the size of the tree
-    public int size(Node<K, V> cur){
-        if(cur == null){
-            return 0;
+    /**
+     * Returns the key at the given index in key order, so select(0) is the smallest key.
+     * Runs in time proportional to the depth of the tree, using the subtree sizes.
+     * 
+     * @param index the position of the key in keySet()
+     * @return the key at that position
+     * @throws IndexOutOfBoundsException if index is negative or not less than size()
+     */
+    public K select(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        Node<K, V> cur = root;
+        while (true) {
+            int leftCount = count(cur.left);
+            if (index < leftCount) {
+                cur = cur.left;
+            } else if (index > leftCount) {
+                index -= leftCount + 1;
+                cur = cur.right;
+            } else {
+                return cur.getKey();
+            }
         }
-        int sizeLeft = size(cur.left);
-        int sizeRight = size(cur.right);
-        return 1 + sizeLeft + sizeRight;
     }
 
+
     //clears the entire tree
     public void clear() {
         this.size = 0;
         root = null;
+        path = newPath(32);
     }
 
     
-    //returns the maxdepth of the BST
+    //returns the maxdepth of the BST, counting levels with a breadth-first walk instead of recursion
     public int maxDepth() {
-        return maxDepth(root);
-    }
-
-    //recursive method that calculates the maxdepth of the bst
-    public int maxDepth(Node<K, V> cur){
-        if (cur == null){
-            return 0;
+        int depth = 0;
+        ArrayDeque<Node<K, V>> level = new ArrayDeque<>();
+        if (root != null) {
+            level.add(root);
+        }
+        while (!level.isEmpty()) {
+            depth++;
+            for (int i = level.size(); i > 0; i--) {
+                Node<K, V> cur = level.poll();
+                if (cur.left != null) {
+                    level.add(cur.left);
+                }
+                if (cur.right != null) {
+                    level.add(cur.right);
+                }
+            }
         }
-        int depthLeft = maxDepth(cur.left);
-        int depthRight = maxDepth(cur.right);
-        return 1 + Math.max(depthLeft, depthRight);
+        return depth;
     }
 
     //returns a string representation of the BST
@@ -390,32 +605,46 @@ public class BSTMap<K, V> implements MapSet<K, V> {
             return "Empty Tree";
         }
         else{
-            return toString(root,0,"root");
+            return toString(root);
         }
     }
 
-    //builds the stringrepresentation to be returned if the BST contains nodes
-    private String toString(Node<K, V> curNode, int depth, String direction) {
-        if (curNode == null) {
-            return "";
-        }
-    
-        String myself = curNode.toString();
-    
-        String left = toString(curNode.left, depth + 1, "left");
-        String right = toString(curNode.right, depth + 1, "right");
-    
-        String result = "";
-        if (!right.isEmpty()) {
-            result += right + '\n';
-        }
-        result += "  ".repeat(depth) + direction + ": " + myself;
-        if (!left.isEmpty()) {
-            result += '\n' + left;
+    /*
+     * builds the string representation to be returned if the BST contains nodes: one line per node,
+     * right subtree above and left subtree below, indented by depth. walks the tree in reverse order
+     * with an explicit stack
+     */
+    private String toString(Node<K, V> top) {
+        StringBuilder result = new StringBuilder();
+        ArrayDeque<Node<K, V>> nodes = new ArrayDeque<>();
+        ArrayDeque<Integer> depths = new ArrayDeque<>();
+        ArrayDeque<String> directions = new ArrayDeque<>();
+
+        Node<K, V> curNode = top;
+        int depth = 0;
+        String direction = "root";
+        while (curNode != null || !nodes.isEmpty()) {
+            while (curNode != null) {
+                nodes.push(curNode);
+                depths.push(depth);
+                directions.push(direction);
+                curNode = curNode.right;
+                depth++;
+                direction = "right";
+            }
+            curNode = nodes.pop();
+            depth = depths.pop();
+            direction = directions.pop();
+
+            if (result.length() > 0) {
+                result.append('\n');
+            }
+            result.append("  ".repeat(depth)).append(direction).append(": ").append(curNode);
+
+            curNode = curNode.left;
+            depth++;
+            direction = "left";
         }
-        return result;
+        return result.toString();
     }
 }
-    
-    
-
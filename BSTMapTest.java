@@ -39,6 +39,12 @@ public class BSTMapTest {
         testSize();
         testClear();
         testMaxDepth();
+        testMerge();
+        testForEach();
+        testDegenerateTree();
+        testRankAndSelect();
+        testRemoveIf();
+        testBuildFromSorted();
         System.out.println("All BSTMap tests passed!");
     }
     
@@ -171,5 +177,155 @@ public class BSTMapTest {
         assert bst.maxDepth() == 3 : "testMaxDepth 4 failed";
     }
     
-}
 
+    /*
+     * tests the merge() method from BSTMap.java
+     */
+    private static void testMerge() {
+        BSTMap<String, Integer> bst = new BSTMap<>();
+        assert bst.merge("banana", 1, Integer::sum) == 1 : "testMerge 1 failed";
+        assert bst.merge("apple", 1, Integer::sum) == 1 : "testMerge 2 failed";
+        assert bst.merge("banana", 1, Integer::sum) == 2 : "testMerge 3 failed";
+        assert bst.merge("banana", 5, Integer::sum) == 7 : "testMerge 4 failed";
+        assert bst.get("banana") == 7 : "testMerge 5 failed";
+        assert bst.get("apple") == 1 : "testMerge 6 failed";
+        assert bst.size() == 2 : "testMerge 7 failed";
+    }
+    
+
+    /*
+     * tests the forEach() method from BSTMap.java
+     * 
+     * the Morris traversal must visit keys in order and leave the tree unchanged,
+     * even when the action throws part way through
+     */
+    private static void testForEach() {
+        BSTMap<String, Integer> bst = new BSTMap<>();
+        for (String key : new String[] {"m", "f", "t", "a", "h", "p", "z", "g"}) {
+            bst.put(key, key.charAt(0) - 'a');
+        }
+        ArrayList<String> visited = new ArrayList<>();
+        bst.forEach((key, value) -> visited.add(key));
+        assert visited.equals(bst.keySet()) : "testForEach 1 failed";
+
+        int depth = bst.maxDepth();
+        try {
+            bst.forEach((key, value) -> {
+                if (key.equals("h")) {
+                    throw new IllegalStateException("stop");
+                }
+            });
+            assert false : "testForEach 2 failed";
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assert bst.maxDepth() == depth : "testForEach 3 failed";
+        assert bst.keySet().equals(visited) : "testForEach 4 failed";
+    }
+
+
+    /*
+     * tests BSTMap.java on sorted keys, which turn the tree into a linked list
+     * 
+     * every operation must work without recursion, so none of them can overflow the stack
+     */
+    private static void testDegenerateTree() {
+        BSTMap<String, Integer> bst = new BSTMap<>();
+        int n = 20000;
+        for (int i = 0; i < n; i++) {
+            bst.put(String.format("%06d", i), i);
+        }
+        assert bst.maxDepth() == n : "testDegenerateTree 1 failed";
+        assert bst.size() == n : "testDegenerateTree 2 failed";
+        assert bst.get(String.format("%06d", n - 1)) == n - 1 : "testDegenerateTree 3 failed";
+        assert bst.keySet().size() == n : "testDegenerateTree 4 failed";
+        assert bst.entrySet().get(n - 1).getValue() == n - 1 : "testDegenerateTree 5 failed";
+        assert bst.remove(String.format("%06d", 0)) == 0 : "testDegenerateTree 6 failed";
+        assert bst.maxDepth() == n - 1 : "testDegenerateTree 7 failed";
+    }
+
+
+    /*
+     * tests the rank() and select() methods from BSTMap.java
+     * 
+     * subtree sizes must stay correct through inserts, updates and every kind of removal
+     */
+    private static void testRankAndSelect() {
+        BSTMap<String, Integer> bst = new BSTMap<>();
+        for (String key : new String[] {"m", "f", "t", "a", "h", "p", "z", "g", "r", "q"}) {
+            bst.put(key, 1);
+        }
+        bst.merge("h", 1, Integer::sum);
+        bst.remove("t");   // two children, successor deeper in the right subtree
+        bst.remove("a");   // leaf
+        bst.remove("m");   // root
+        bst.remove("pear");
+
+        ArrayList<String> keys = bst.keySet();
+        assert bst.size() == keys.size() : "testRankAndSelect 1 failed";
+        for (int i = 0; i < keys.size(); i++) {
+            assert bst.select(i).equals(keys.get(i)) : "testRankAndSelect 2 failed at " + i;
+            assert bst.rank(keys.get(i)) == i : "testRankAndSelect 3 failed at " + i;
+        }
+        assert bst.rank("a") == 0 : "testRankAndSelect 4 failed";
+        assert bst.rank("zz") == keys.size() : "testRankAndSelect 5 failed";
+        assert bst.rank("n") == keys.indexOf("p") : "testRankAndSelect 6 failed";
+    }
+
+    /**
+     * Tests the removeIf() and removeAll() methods.
+     * Verifies that a degenerate tree is rebuilt balanced with correct subtree sizes.
+     */
+    private static void testRemoveIf() {
+        BSTMap<Integer, Integer> bst = new BSTMap<>();
+        for (int i = 0; i < 1000; i++) {
+            bst.put(i, i);
+        }
+        assert bst.maxDepth() == 1000 : "testRemoveIf 1 failed";
+        int removed = bst.removeIf((key, value) -> key % 2 == 1);
+        assert removed == 500 : "testRemoveIf 2 failed";
+        assert bst.size() == 500 : "testRemoveIf 3 failed";
+        assert bst.maxDepth() == 9 : "testRemoveIf 4 failed, depth " + bst.maxDepth();
+        assert bst.get(10) == 10 && bst.get(11) == null : "testRemoveIf 5 failed";
+        for (int i = 0; i < 500; i++) {
+            assert bst.select(i) == i * 2 : "testRemoveIf 6 failed at " + i;
+        }
+
+        assert bst.removeAll(Arrays.asList(0, 2, 3)) == 2 : "testRemoveIf 7 failed";
+        assert bst.size() == 498 && bst.rank(4) == 0 : "testRemoveIf 8 failed";
+        assert bst.removeIf((key, value) -> false) == 0 : "testRemoveIf 9 failed";
+        bst.put(1, 1);
+        assert bst.keySet().get(0) == 1 : "testRemoveIf 10 failed";
+    }
+
+    /**
+     * Tests the buildFromSorted() method.
+     * Verifies that sorted input gives a balanced tree and unsorted input is rejected.
+     */
+    private static void testBuildFromSorted() {
+        ArrayList<MapSet.KeyValuePair<Integer, Integer>> entries = new ArrayList<>();
+        for (int i = 0; i < 1023; i++) {
+            entries.add(new MapSet.KeyValuePair<>(i, i * i));
+        }
+        BSTMap<Integer, Integer> bst = new BSTMap<>();
+        bst.put(5000, 1);
+        bst.buildFromSorted(entries.iterator());
+        assert bst.size() == 1023 : "testBuildFromSorted 1 failed";
+        assert bst.maxDepth() == 10 : "testBuildFromSorted 2 failed, depth " + bst.maxDepth();
+        assert bst.get(30) == 900 && !bst.containsKey(5000) : "testBuildFromSorted 3 failed";
+        assert bst.select(512) == 512 && bst.rank(700) == 700 : "testBuildFromSorted 4 failed";
+        bst.put(2000, 1);
+        bst.remove(0);
+        assert bst.size() == 1023 && bst.keySet().get(0) == 1 : "testBuildFromSorted 5 failed";
+
+        entries.add(new MapSet.KeyValuePair<>(1022, 0));
+        boolean rejected = false;
+        try {
+            bst.buildFromSorted(entries.iterator());
+        } catch (IllegalArgumentException e) {
+            rejected = true;
+        }
+        assert rejected : "testBuildFromSorted 6 failed";
+        assert bst.size() == 1023 && bst.containsKey(2000) : "testBuildFromSorted 7 failed";
+    }
+}
@@ -0,0 +1,494 @@
+/**
+ * Byte-level tokenizer for large Reddit comment files.
+ *
+ * Instead of decoding every line into a String and splitting it with a regex,
+ * this class memory-maps the file and scans the raw bytes for whitespace. Each
+ * token is hashed in place and looked up in a WordTable keyed by the token's
+ * bytes, so a String is only created the first time a word is seen. A CountMap
+ * target skips the table and is counted into token by token, so its memory use
+ * is not doubled by a second copy of the vocabulary.
+ *
+ * Tokens are produced exactly as {@code line.split("\\s+")} would produce them in
+ * WordCounter.readWords, including the empty token for an empty line or a line
+ * that starts with whitespace. Whitespace is the ASCII set matched by \s, so the
+ * file must be in an ASCII-compatible charset such as UTF-8.
+ *
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ *
+ * Compilation: javac ByteTokenizer.java
+ */
+
+// Import required libraries
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Memory-mapped whitespace tokenizer that counts words without per-token allocation.
+ */
+public class ByteTokenizer {
+
+    // Number of bytes mapped at once; windows are trimmed back to the last full line
+    private static final int WINDOW_BYTES = 64 * 1024 * 1024;
+
+    /**
+     * Receives each token found by the tokenizer, as a range of the mapped file.
+     * The buffer is only valid for the duration of the call.
+     */
+    interface TokenSink {
+
+        /**
+         * Called once per token, in file order.
+         *
+         * @param buffer the mapped window of the file holding the token
+         * @param offset the position of the token's first byte in buffer
+         * @param length the number of bytes in the token, 0 for the empty token
+         * @param hash   the hash of the token's bytes, computed while scanning it
+         */
+        void token(MappedByteBuffer buffer, int offset, int length, int hash);
+    }
+
+    /**
+     * Open-addressing hash table from token bytes to counts.
+     * Keys are compared byte by byte against the mapped file, and the String
+     * for a word is only built when the word is first inserted.
+     */
+    static class WordTable implements TokenSink {
+        private byte[][] keys;
+        private int[] hashes;
+        private int[] counts;
+        private String[] words;
+        private int size;
+        private Charset charset;
+
+        /**
+         * Creates an empty table that decodes words with the platform charset.
+         */
+        WordTable() {
+            this(1024);
+        }
+
+        /**
+         * Creates an empty table with room for roughly the given number of words.
+         *
+         * @param expectedWords the number of distinct words expected
+         */
+        WordTable(int expectedWords) {
+            int capacity = 16;
+            while (capacity * 0.6 < expectedWords) {
+                capacity *= 2;
+            }
+            keys = new byte[capacity][];
+            hashes = new int[capacity];
+            counts = new int[capacity];
+            words = new String[capacity];
+            charset = Charset.defaultCharset();
+        }
+
+        //counts one occurrence of a token
+        @Override
+        public void token(MappedByteBuffer buffer, int offset, int length, int hash) {
+            add(buffer, offset, length, hash, 1);
+        }
+
+        //returns the number of distinct words in the table
+        int size() {
+            return size;
+        }
+
+        /*
+         * returns the slot for a hash value in a table of the current capacity. numbers and
+         * short similar words hash to dense runs, so the hash is scattered by multiplying
+         * before the high bits are folded in, or linear probing would cluster them
+         */
+        private int slot(int hash) {
+            int h = hash * 0x9E3779B9;
+            return (h ^ (h >>> 16)) & (keys.length - 1);
+        }
+
+        /*
+         * adds amount to the count of the token stored in buffer[offset, offset + length),
+         * whose hash has already been computed while scanning it
+         */
+        void add(MappedByteBuffer buffer, int offset, int length, int hash, int amount) {
+            int mask = keys.length - 1;
+            int index = slot(hash);
+            while (keys[index] != null) {
+                if (hashes[index] == hash && matches(keys[index], buffer, offset, length)) {
+                    counts[index] += amount;
+                    return;
+                }
+                index = (index + 1) & mask;
+            }
+
+            byte[] key = new byte[length];
+            for (int i = 0; i < length; i++) {
+                key[i] = buffer.get(offset + i);
+            }
+            insert(index, key, hash, new String(key, charset), amount);
+        }
+
+        //returns true if key holds the same bytes as buffer[offset, offset + length)
+        private static boolean matches(byte[] key, MappedByteBuffer buffer, int offset, int length) {
+            if (key.length != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (key[i] != buffer.get(offset + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        //stores a new word in an empty slot and grows the table if needed
+        private void insert(int index, byte[] key, int hash, String word, int count) {
+            keys[index] = key;
+            hashes[index] = hash;
+            words[index] = word;
+            counts[index] = count;
+            size++;
+            if (size > keys.length * 0.6) {
+                resize(keys.length * 2);
+            }
+        }
+
+        //adds a word whose bytes are already held in an array, as when merging two tables
+        private void add(byte[] key, int hash, String word, int amount) {
+            int mask = keys.length - 1;
+            int index = slot(hash);
+            while (keys[index] != null) {
+                if (hashes[index] == hash && Arrays.equals(keys[index], key)) {
+                    counts[index] += amount;
+                    return;
+                }
+                index = (index + 1) & mask;
+            }
+            insert(index, key, hash, word, amount);
+        }
+
+        /*
+         * rehashes every word into arrays of the new capacity, reusing the cached hashes
+         */
+        private void resize(int newCapacity) {
+            byte[][] oldKeys = keys;
+            int[] oldHashes = hashes;
+            int[] oldCounts = counts;
+            String[] oldWords = words;
+            keys = new byte[newCapacity][];
+            hashes = new int[newCapacity];
+            counts = new int[newCapacity];
+            words = new String[newCapacity];
+
+            int mask = newCapacity - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    int index = slot(oldHashes[i]);
+                    while (keys[index] != null) {
+                        index = (index + 1) & mask;
+                    }
+                    keys[index] = oldKeys[i];
+                    hashes[index] = oldHashes[i];
+                    counts[index] = oldCounts[i];
+                    words[index] = oldWords[i];
+                }
+            }
+        }
+
+        //removes every word, keeping the capacity so the table can be filled again
+        void clear() {
+            Arrays.fill(keys, null);
+            Arrays.fill(words, null);
+            size = 0;
+        }
+
+        /**
+         * Adds every count in other to this table.
+         *
+         * @param other the table to merge in
+         */
+        void addAll(WordTable other) {
+            for (int i = 0; i < other.keys.length; i++) {
+                if (other.keys[i] != null) {
+                    add(other.keys[i], other.hashes[i], other.words[i], other.counts[i]);
+                }
+            }
+        }
+
+        /**
+         * Adds every count in this table to the target map.
+         *
+         * @param target the map to add the counts to
+         */
+        void drainTo(MapSet<String, Integer> target) {
+            drainTo(target, null);
+        }
+
+        /**
+         * Adds every count in this table to the target map, skipping stop words.
+         * Each distinct word is checked once, however often it occurred.
+         *
+         * @param target    the map to add the counts to
+         * @param stopWords the words to leave out, or null to keep every word
+         */
+        void drainTo(MapSet<String, Integer> target, StopWordFilter stopWords) {
+            // a shared concurrent map is added to without taking its locks for known words
+            ConcurrentCountMap shared = target instanceof ConcurrentCountMap ? (ConcurrentCountMap) target : null;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != null && (stopWords == null || !stopWords.contains(words[i]))) {
+                    if (shared != null) {
+                        shared.add(words[i], counts[i]);
+                    } else {
+                        target.merge(words[i], counts[i], Integer::sum);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Sink that counts every token straight into a CountMap. Each token is decoded
+     * into a short-lived String and passed to increment, so no table of the vocabulary
+     * is built on the heap next to the map: an off-heap map keeps its words off the
+     * heap, and a Count-Min Sketch stays the size it was made.
+     */
+    static class CountMapSink implements TokenSink {
+        private final CountMap target;
+        private final StopWordFilter stopWords;
+        private final Charset charset;
+        private byte[] scratch;
+
+        /**
+         * Creates a sink that counts into target, leaving out the stop words.
+         *
+         * @param target    the map the tokens are counted into
+         * @param stopWords the words to leave out, or null to keep every word
+         */
+        CountMapSink(CountMap target, StopWordFilter stopWords) {
+            this.target = target;
+            this.stopWords = stopWords;
+            this.charset = Charset.defaultCharset();
+            this.scratch = new byte[64];
+        }
+
+        //decodes a token and counts it unless it is a stop word
+        @Override
+        public void token(MappedByteBuffer buffer, int offset, int length, int hash) {
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            for (int i = 0; i < length; i++) {
+                scratch[i] = buffer.get(offset + i);
+            }
+            String word = new String(scratch, 0, length, charset);
+            if (stopWords == null || !stopWords.contains(word)) {
+                target.increment(word);
+            }
+        }
+    }
+
+    /**
+     * Counts every word of a file and adds the counts to target.
+     *
+     * @param filename the file to count
+     * @param target   the map the counts are added to
+     * @return the number of words read from the file
+     * @throws IOException if the file cannot be read
+     */
+    public static int count(String filename, MapSet<String, Integer> target) throws IOException {
+        return count(filename, target, null);
+    }
+
+    /**
+     * Counts every word of a file and adds the counts of all but the stop words to target.
+     * The returned word count still includes the stop words.
+     *
+     * @param filename  the file to count
+     * @param target    the map the counts are added to
+     * @param stopWords the words to leave out of target, or null to keep every word
+     * @return the number of words read from the file
+     * @throws IOException if the file cannot be read
+     */
+    public static int count(String filename, MapSet<String, Integer> target, StopWordFilter stopWords) throws IOException {
+        return count(filename, target, stopWords, 0);
+    }
+
+    /**
+     * Counts every word of a file and adds the counts of all but the stop words to target,
+     * sizing the table the words are first counted into for the given number of distinct words.
+     *
+     * A CountMap target is counted into directly, token by token, so the only memory that
+     * grows with the vocabulary is the map's own. Any other MapSet is fed through a WordTable,
+     * which makes a String only once per distinct word, and then receives one merge per word;
+     * the table briefly holds a second on-heap copy of the whole vocabulary.
+     *
+     * @param filename      the file to count
+     * @param target        the map the counts are added to
+     * @param stopWords     the words to leave out of target, or null to keep every word
+     * @param expectedWords the number of distinct words expected, or 0 to start small and grow
+     * @return the number of words read from the file
+     * @throws IOException if the file cannot be read
+     */
+    public static int count(String filename, MapSet<String, Integer> target, StopWordFilter stopWords, int expectedWords) throws IOException {
+        if (target instanceof CountMap) {
+            try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+                return count(channel, 0, channel.size(), new CountMapSink((CountMap) target, stopWords));
+            }
+        }
+        WordTable table = expectedWords > 0 ? new WordTable(expectedWords) : new WordTable();
+        int wordCount;
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            wordCount = count(channel, 0, channel.size(), table);
+        }
+        table.drainTo(target, stopWords);
+        return wordCount;
+    }
+
+    /**
+     * Calls action with every word of a file, in order, decoding each one to a String.
+     * Nothing is accumulated, so memory use does not depend on the size of the file
+     * or its vocabulary.
+     *
+     * @param filename the file to read
+     * @param action   the action to perform for each word
+     * @return the number of words read from the file
+     * @throws IOException if the file cannot be read
+     */
+    public static int forEachWord(String filename, Consumer<String> action) throws IOException {
+        Charset charset = Charset.defaultCharset();
+        byte[][] scratch = {new byte[64]};
+        TokenSink sink = (buffer, offset, length, hash) -> {
+            if (scratch[0].length < length) {
+                scratch[0] = new byte[Math.max(length, scratch[0].length * 2)];
+            }
+            for (int i = 0; i < length; i++) {
+                scratch[0][i] = buffer.get(offset + i);
+            }
+            action.accept(new String(scratch[0], 0, length, charset));
+        };
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            return count(channel, 0, channel.size(), sink);
+        }
+    }
+
+    /**
+     * Tokenizes the byte range [start, end) of a file, passing every token to sink.
+     * The range must start at the beginning of a line.
+     *
+     * @param channel the open file
+     * @param start   the first byte to read
+     * @param end     one past the last byte to read
+     * @param table   the sink that receives the tokens
+     * @return the number of words in the range
+     * @throws IOException if the file cannot be read
+     */
+    static int count(FileChannel channel, long start, long end, TokenSink table) throws IOException {
+        int wordCount = 0;
+        long pos = start;
+        int window = WINDOW_BYTES;
+        while (pos < end) {
+            int mapped = (int) Math.min(window, end - pos);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, pos, mapped);
+
+            // only scan up to the last complete line, unless this window reaches the end
+            int limit = mapped;
+            if (pos + mapped < end) {
+                limit = lastLineEnd(buffer, mapped);
+                if (limit == 0 && window == Integer.MAX_VALUE) {
+                    limit = mapped;
+                } else if (limit == 0) {
+                    // a single line longer than the window, so map a bigger one
+                    window = (int) Math.min(Integer.MAX_VALUE, window * 2L);
+                    continue;
+                }
+            }
+            wordCount += countLines(buffer, limit, table);
+            pos += limit;
+        }
+        return wordCount;
+    }
+
+    //returns the position just after the last '\n' in buffer[0, length), or 0 if there is none
+    private static int lastLineEnd(MappedByteBuffer buffer, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /*
+     * splits buffer[0, limit) into lines the way BufferedReader.readLine does
+     * (on \n, \r or \r\n) and counts the words of each line
+     */
+    private static int countLines(MappedByteBuffer buffer, int limit, TokenSink table) {
+        int wordCount = 0;
+        int pos = 0;
+        while (pos < limit) {
+            int lineEnd = pos;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n' && buffer.get(lineEnd) != '\r') {
+                lineEnd++;
+            }
+            wordCount += countLine(buffer, pos, lineEnd, table);
+
+            if (lineEnd + 1 < limit && buffer.get(lineEnd) == '\r' && buffer.get(lineEnd + 1) == '\n') {
+                pos = lineEnd + 2;
+            } else {
+                pos = lineEnd + 1;
+            }
+        }
+        return wordCount;
+    }
+
+    /*
+     * counts the words of the line buffer[start, end) the way line.split("\\s+") splits it:
+     * an empty line is one empty word, leading whitespace adds one empty word,
+     * and a line of only whitespace has no words
+     */
+    private static int countLine(MappedByteBuffer buffer, int start, int end, TokenSink table) {
+        if (start == end) {
+            table.token(buffer, start, 0, 0);
+            return 1;
+        }
+
+        int wordCount = 0;
+        int pos = start;
+        while (pos < end && isWhitespace(buffer.get(pos))) {
+            pos++;
+        }
+        if (pos > start && pos < end) {
+            table.token(buffer, start, 0, 0);
+            wordCount++;
+        }
+
+        while (pos < end) {
+            int wordStart = pos;
+            int hash = 0;
+            byte b;
+            while (pos < end && !isWhitespace(b = buffer.get(pos))) {
+                hash = 31 * hash + b;
+                pos++;
+            }
+            table.token(buffer, wordStart, pos - wordStart, hash);
+            wordCount++;
+
+            while (pos < end && isWhitespace(buffer.get(pos))) {
+                pos++;
+            }
+        }
+        return wordCount;
+    }
+
+    //returns true for the bytes matched by the regex \s: space, \t, \n, \u000B, \f and \r
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || (b >= '\t' && b <= '\r');
+    }
+}
@@ -0,0 +1,473 @@
+/**
+ * Thread-safe String to count map that many threads can increment at the same time.
+ *
+ * None of the other MapSet implementations can be shared between threads, so parallel
+ * counting has to give each thread a private map and merge them afterwards. This map
+ * is split into independently locked segments, each an open-addressing table of
+ * entries, and a key's segment is picked from the high bits of its hash.
+ *
+ * Only inserting a new key takes its segment's lock. Each entry holds its count in a
+ * LongAdder, and incrementing a key that is already present finds the entry without
+ * locking and adds to the adder. A LongAdder spreads updates from different threads
+ * over separate cells when they collide, so even the hottest words ("the", "[deleted]")
+ * do not make every thread wait on one counter. Entries are never copied, only moved
+ * between tables when a segment grows, so an increment landing on an entry while its
+ * segment resizes is never lost.
+ *
+ * Reads (get, getCount, forEach, ...) do not lock either and see the counts as of
+ * roughly when they ran. put and merge lock the key's segment and adjust the count by
+ * the difference from what they read, so increments racing with them are kept.
+ * remove, removeIf and clear are meant for after counting has finished: increments of
+ * a key that race with its removal may be dropped.
+ *
+ * Time Complexity:
+ * - Average case: O(1) for search, insert, increment, delete
+ * - Worst case: O(n) when all keys hash to the same run of slots
+ *
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ *
+ * Compilation: javac ConcurrentCountMap.java
+ */
+
+// Import required libraries
+import java.util.ArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Lock-striped hash table from String keys to concurrently updated counts.
+ */
+public class ConcurrentCountMap implements CountMap {
+
+    // Maximum fraction of a segment's slots in use before it doubles
+    private static final double MAX_LOAD_FACTOR = 0.6;
+
+    /**
+     * A key and its count. The fields are final, so a thread that finds an entry
+     * without locking always sees its key and adder fully built.
+     */
+    private static final class Entry {
+        final String key;
+        final int hash;
+        final LongAdder count;
+
+        Entry(String key, int hash, long count) {
+            this.key = key;
+            this.hash = hash;
+            this.count = new LongAdder();
+            this.count.add(count);
+        }
+    }
+
+    // Marks a removed slot so probe runs through it stay unbroken
+    private static final Entry TOMBSTONE = new Entry(null, 0, 0);
+
+    /**
+     * One independently locked part of the map. The table is replaced, never resized
+     * in place, and is volatile so lock-free readers see the newest one.
+     */
+    private static final class Segment {
+        volatile Entry[] table;
+        volatile int size;
+        int tombstones;     // removed slots still in the table, guarded by the lock
+
+        Segment(int capacity) {
+            table = new Entry[capacity];
+        }
+    }
+
+    // Instance fields
+    private final Segment[] segments;    // The parts of the map, a power of two of them
+    private final int segmentShift;      // Shift that leaves the hash bits picking a segment
+    private final int initialCapacity;   // Slots per segment to return to when cleared
+
+    /**
+     * Constructs a map with four segments per available processor and a small initial capacity.
+     */
+    public ConcurrentCountMap() {
+        this(16);
+    }
+
+    /**
+     * Constructs a map with room for the given number of keys, with four segments per
+     * available processor.
+     *
+     * @param initialCapacity the number of keys to hold without resizing
+     */
+    public ConcurrentCountMap(int initialCapacity) {
+        this(initialCapacity, 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a map with room for the given number of keys, split into at least the
+     * given number of segments.
+     *
+     * @param initialCapacity  the number of keys to hold without resizing
+     * @param concurrencyLevel the number of segments, rounded up to a power of two;
+     *                         inserting threads only wait for each other within a segment
+     */
+    public ConcurrentCountMap(int initialCapacity, int concurrencyLevel) {
+        int count = 1;
+        int bits = 0;
+        while (count < concurrencyLevel) {
+            count *= 2;
+            bits++;
+        }
+        int perSegment = 2;
+        while (perSegment * MAX_LOAD_FACTOR < (double) initialCapacity / count) {
+            perSegment *= 2;
+        }
+        this.initialCapacity = perSegment;
+        segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+        segmentShift = 32 - bits;
+    }
+
+    /*
+     * spreads the key's hash code over the low bits used to pick a slot. numbers and short
+     * similar words have hash codes in dense runs, which linear probing turns into long
+     * clusters, so the code is scattered by multiplying before the high bits are folded in
+     */
+    private static int hash(String key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    //returns the segment for a hash, chosen from bits that do not pick the slot within it
+    private Segment segmentFor(int hash) {
+        // a single segment would make the shift 32, which Java treats as 0
+        return segments.length == 1 ? segments[0] : segments[(hash * 0x9E3779B9) >>> segmentShift];
+    }
+
+    //returns the index of key in table, or of the empty slot where it would go
+    private static int find(Entry[] table, String key, int hash) {
+        int mask = table.length - 1;
+        int index = hash & mask;
+        Entry entry;
+        while ((entry = table[index]) != null) {
+            // tombstones have a null key, so they are stepped over
+            if (entry.hash == hash && key.equals(entry.key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    //returns the entry for key without locking, or null if it was not found
+    private Entry lookup(String key, int hash) {
+        Entry[] table = segmentFor(hash).table;
+        return table[find(table, key, hash)];
+    }
+
+    /*
+     * puts a new entry in the empty slot at index of the segment's table, growing the
+     * table if it is too full. the caller must hold the segment's lock
+     */
+    private static void insert(Segment segment, int index, Entry entry) {
+        Entry[] table = segment.table;
+        table[index] = entry;
+        segment.size++;
+        if (segment.size + segment.tombstones > table.length * MAX_LOAD_FACTOR) {
+            // only double if the table is still crowded once the tombstones are gone
+            int capacity = segment.size * 2 > table.length * MAX_LOAD_FACTOR ? table.length * 2 : table.length;
+            segment.table = rehash(table, capacity);
+            segment.tombstones = 0;
+        }
+    }
+
+    //returns a new table of the given capacity holding the same entries, without tombstones
+    private static Entry[] rehash(Entry[] table, int capacity) {
+        Entry[] newTable = new Entry[capacity];
+        int mask = capacity - 1;
+        for (Entry entry : table) {
+            if (entry != null && entry != TOMBSTONE) {
+                int index = entry.hash & mask;
+                while (newTable[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                newTable[index] = entry;
+            }
+        }
+        return newTable;
+    }
+
+    /**
+     * Adds one to the count of key, inserting it with a count of 1 if absent.
+     * Safe to call from any number of threads at once. If other threads are counting
+     * the same key at the same time, the count returned may already include theirs.
+     *
+     * @param key the word to count
+     * @return the count of key just after the increment
+     */
+    @Override
+    public int increment(String key) {
+        return addTo(key, 1).count.intValue();
+    }
+
+    /**
+     * Adds amount to the count of key, inserting it with a count of amount if absent.
+     * Safe to call from any number of threads at once; only a new key takes a lock.
+     *
+     * @param key the word to count
+     * @param amount the number to add to the count
+     */
+    public void add(String key, int amount) {
+        addTo(key, amount);
+    }
+
+    //adds amount to the count of key, inserting the key if absent, and returns its entry
+    private Entry addTo(String key, int amount) {
+        int hash = hash(key);
+        Entry entry = lookup(key, hash);
+        if (entry != null) {
+            entry.count.add(amount);
+            return entry;
+        }
+        Segment segment = segmentFor(hash);
+        synchronized (segment) {
+            // another thread may have inserted the key since the lock-free lookup
+            Entry[] table = segment.table;
+            int index = find(table, key, hash);
+            if (table[index] != null) {
+                table[index].count.add(amount);
+                return table[index];
+            }
+            entry = new Entry(key, hash, amount);
+            insert(segment, index, entry);
+            return entry;
+        }
+    }
+
+    /**
+     * Returns the count of key, or 0 if the key is not in the map.
+     *
+     * @param key the word to look up
+     * @return the count of key, or 0 if absent
+     */
+    @Override
+    public int getCount(String key) {
+        Entry entry = lookup(key, hash(key));
+        return entry == null ? 0 : entry.count.intValue();
+    }
+
+    //puts a key value pair into the map and returns the old value, or null if the key was not in the map
+    @Override
+    public Integer put(String key, Integer value) {
+        if (value == null) {
+            return null;
+        }
+        int hash = hash(key);
+        Segment segment = segmentFor(hash);
+        synchronized (segment) {
+            Entry[] table = segment.table;
+            int index = find(table, key, hash);
+            Entry entry = table[index];
+            if (entry == null) {
+                insert(segment, index, new Entry(key, hash, value));
+                return null;
+            }
+            int oldVal = entry.count.intValue();
+            entry.count.add((long) value - oldVal);
+            return oldVal;
+        }
+    }
+
+    /*
+     * merges a value into the map under the key's segment lock. the count is moved by the
+     * difference between the merged value and the count read, so concurrent increments survive
+     */
+    @Override
+    public Integer merge(String key, Integer value, BiFunction<? super Integer, ? super Integer, ? extends Integer> remappingFunction) {
+        int hash = hash(key);
+        Segment segment = segmentFor(hash);
+        synchronized (segment) {
+            Entry[] table = segment.table;
+            int index = find(table, key, hash);
+            Entry entry = table[index];
+            if (entry == null) {
+                insert(segment, index, new Entry(key, hash, value));
+                return value;
+            }
+            int oldVal = entry.count.intValue();
+            int newVal = remappingFunction.apply(oldVal, value);
+            entry.count.add((long) newVal - oldVal);
+            return newVal;
+        }
+    }
+
+    //checks to see if the map contains a given key
+    @Override
+    public boolean containsKey(String key) {
+        return lookup(key, hash(key)) != null;
+    }
+
+    //gets the value of a given key, returns null if the map doesnt contain the key
+    @Override
+    public Integer get(String key) {
+        Entry entry = lookup(key, hash(key));
+        return entry == null ? null : entry.count.intValue();
+    }
+
+    /*
+     * removes a key from the map and returns its value, or null if the key is not found
+     *
+     * the slot is overwritten with a tombstone rather than shifting the entries after it,
+     * so lock-free readers never see a gap in the middle of a probe run
+     */
+    @Override
+    public Integer remove(String key) {
+        int hash = hash(key);
+        Segment segment = segmentFor(hash);
+        synchronized (segment) {
+            Entry[] table = segment.table;
+            int index = find(table, key, hash);
+            Entry entry = table[index];
+            if (entry == null) {
+                return null;
+            }
+            table[index] = TOMBSTONE;
+            segment.size--;
+            segment.tombstones++;
+            return entry.count.intValue();
+        }
+    }
+
+    /*
+     * removes every key value pair that filter accepts and returns how many were removed
+     *
+     * each segment is rebuilt once, under its lock, from the entries that are kept
+     */
+    @Override
+    public int removeIf(BiPredicate<? super String, ? super Integer> filter) {
+        int removed = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                Entry[] table = segment.table;
+                Entry[] kept = new Entry[table.length];
+                int segmentRemoved = 0;
+                for (int i = 0; i < table.length; i++) {
+                    if (table[i] != null && table[i] != TOMBSTONE) {
+                        if (filter.test(table[i].key, table[i].count.intValue())) {
+                            segmentRemoved++;
+                        } else {
+                            kept[i] = table[i];
+                        }
+                    }
+                }
+                if (segmentRemoved > 0 || segment.tombstones > 0) {
+                    segment.table = rehash(kept, table.length);
+                    segment.tombstones = 0;
+                    segment.size -= segmentRemoved;
+                    removed += segmentRemoved;
+                }
+            }
+        }
+        return removed;
+    }
+
+    //returns an arraylist of the keys in the map
+    @Override
+    public ArrayList<String> keySet() {
+        ArrayList<String> result = new ArrayList<>(size());
+        forEachCount((key, count) -> result.add(key));
+        return result;
+    }
+
+    //returns an arraylist of the values in the map, in the same order as keySet
+    @Override
+    public ArrayList<Integer> values() {
+        ArrayList<Integer> result = new ArrayList<>(size());
+        forEachCount((key, count) -> result.add(count));
+        return result;
+    }
+
+    //returns an arraylist of the key value pairs in the map, in the same order as keySet
+    @Override
+    public ArrayList<MapSet.KeyValuePair<String, Integer>> entrySet() {
+        ArrayList<MapSet.KeyValuePair<String, Integer>> result = new ArrayList<>(size());
+        forEachCount((key, count) -> result.add(new KeyValuePair<>(key, count)));
+        return result;
+    }
+
+    //calls action on every key value pair in the map, in the same order as keySet
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Integer> action) {
+        forEachCount(action::accept);
+    }
+
+    /**
+     * Calls action on every word and its count without boxing the counts. Runs without
+     * locking, so counts that are still being incremented are read as they are at the time.
+     *
+     * @param action the action to be performed for each word and count
+     */
+    public void forEachCount(ObjIntConsumer<String> action) {
+        for (Segment segment : segments) {
+            for (Entry entry : segment.table) {
+                if (entry != null && entry != TOMBSTONE) {
+                    action.accept(entry.key, entry.count.intValue());
+                }
+            }
+        }
+    }
+
+    //returns the number of keys in the map
+    @Override
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    //clears the contents of the map
+    @Override
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.table = new Entry[initialCapacity];
+                segment.size = 0;
+                segment.tombstones = 0;
+            }
+        }
+    }
+
+    /*
+     * returns the maxDepth of the map - the longest probe sequence needed to find any key
+     */
+    @Override
+    public int maxDepth() {
+        int maxDepth = 0;
+        for (Segment segment : segments) {
+            Entry[] table = segment.table;
+            int mask = table.length - 1;
+            for (int i = 0; i < table.length; i++) {
+                if (table[i] != null && table[i] != TOMBSTONE) {
+                    maxDepth = Math.max(maxDepth, ((i - (table[i].hash & mask)) & mask) + 1);
+                }
+            }
+        }
+        return maxDepth;
+    }
+
+    //returns a string representation of the map
+    public String toString() {
+        StringBuilder result = new StringBuilder("{");
+        forEachCount((key, count) -> {
+            if (result.length() > 1) {
+                result.append(", ");
+            }
+            result.append(key).append('=').append(count);
+        });
+        return result.append('}').toString();
+    }
+}
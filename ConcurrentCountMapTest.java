@@ -0,0 +1,218 @@
+/**
+ * Unit tests for ConcurrentCountMap implementation.
+ *
+ * Tests all major functionality of the concurrent counting map
+ * including counting, insertion, deletion, and increments from many threads at once.
+ *
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ *
+ * Usage:
+ *   javac ConcurrentCountMapTest.java
+ *   java -ea ConcurrentCountMapTest
+ */
+
+// Import required libraries
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Comprehensive test suite for ConcurrentCountMap implementation.
+ */
+public class ConcurrentCountMapTest {
+
+    /**
+     * Main method to run all test cases.
+     * Uses Java assertions to verify correctness.
+     *
+     * @param args command line arguments (not used)
+     */
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("Running ConcurrentCountMap tests...");
+        testIncrement();
+        testPutAndGet();
+        testRemove();
+        testResize();
+        testRemoveIf();
+        testConcurrentIncrements();
+        testConcurrentInserts();
+        System.out.println("All ConcurrentCountMap tests passed!");
+    }
+
+    /**
+     * Tests the increment() and add() methods.
+     * Verifies that counts start at the added amount and accumulate.
+     */
+    private static void testIncrement() {
+        ConcurrentCountMap map = new ConcurrentCountMap();
+        assert map.increment("apple") == 1 : "testIncrement 5 failed";
+        assert map.increment("apple") == 2 : "testIncrement 6 failed";
+        map.add("banana", 5);
+        map.add("banana", 5);
+        assert map.getCount("apple") == 2 : "testIncrement 1 failed";
+        assert map.getCount("banana") == 10 : "testIncrement 2 failed";
+        assert map.getCount("cherry") == 0 : "testIncrement 3 failed";
+        assert map.size() == 2 : "testIncrement 4 failed";
+    }
+
+    /**
+     * Tests the MapSet put(), get(), containsKey() and merge() methods.
+     */
+    private static void testPutAndGet() {
+        ConcurrentCountMap map = new ConcurrentCountMap();
+        assert map.put("apple", 1) == null : "testPutAndGet 1 failed";
+        assert map.put("apple", 4) == 1 : "testPutAndGet 2 failed";
+        assert map.get("apple") == 4 : "testPutAndGet 3 failed";
+        assert map.get("pear") == null : "testPutAndGet 4 failed";
+        assert map.containsKey("apple") && !map.containsKey("pear") : "testPutAndGet 5 failed";
+        assert map.merge("apple", 2, Integer::sum) == 6 : "testPutAndGet 6 failed";
+        assert map.merge("pear", 2, Integer::sum) == 2 : "testPutAndGet 7 failed";
+        assert map.merge("apple", 10, Math::min) == 6 : "testPutAndGet 8 failed";
+        assert map.put("", 3) == null && map.get("") == 3 : "testPutAndGet 9 failed";
+        assert map.size() == 3 : "testPutAndGet 10 failed";
+        assert map.toString().length() > 2 : "testPutAndGet 11 failed";
+    }
+
+    /**
+     * Tests the remove() method.
+     * Verifies that keys probed past a removed slot can still be found.
+     */
+    private static void testRemove() {
+        ConcurrentCountMap map = new ConcurrentCountMap(1024, 1);
+        for (int i = 0; i < 500; i++) {
+            map.add("word" + i, i + 1);
+        }
+        for (int i = 0; i < 500; i += 2) {
+            assert map.remove("word" + i) == i + 1 : "testRemove 1 failed for word" + i;
+        }
+        assert map.remove("word0") == null : "testRemove 2 failed";
+        assert map.size() == 250 : "testRemove 3 failed";
+        for (int i = 1; i < 500; i += 2) {
+            assert map.getCount("word" + i) == i + 1 : "testRemove 4 failed for word" + i;
+        }
+
+        // removing and re-adding many keys reuses the segment instead of growing it forever
+        for (int round = 0; round < 50; round++) {
+            for (int i = 0; i < 100; i++) {
+                map.increment("temp" + round + "_" + i);
+            }
+            for (int i = 0; i < 100; i++) {
+                assert map.remove("temp" + round + "_" + i) == 1 : "testRemove 5 failed";
+            }
+        }
+        assert map.size() == 250 && map.getCount("word499") == 500 : "testRemove 6 failed";
+        assert map.maxDepth() < 250 : "testRemove 7 failed";
+    }
+
+    /**
+     * Tests growing every segment past its initial capacity.
+     * Verifies that every count survives the rehash and dense keys keep probes short.
+     */
+    private static void testResize() {
+        ConcurrentCountMap map = new ConcurrentCountMap(2, 4);
+        for (int i = 0; i < 10000; i++) {
+            map.increment("word" + (i % 1000));
+        }
+        assert map.size() == 1000 : "testResize 1 failed";
+        for (int i = 0; i < 1000; i++) {
+            assert map.getCount("word" + i) == 10 : "testResize 2 failed for word" + i;
+        }
+        assert map.maxDepth() >= 1 : "testResize 3 failed";
+        map.clear();
+        assert map.size() == 0 && map.keySet().isEmpty() && map.maxDepth() == 0 : "testResize 4 failed";
+
+        // numbers have hash codes in one dense run, which must not become long clusters
+        ConcurrentCountMap numbers = new ConcurrentCountMap();
+        for (int i = 0; i < 400000; i++) {
+            numbers.increment(Integer.toString(i));
+        }
+        assert numbers.size() == 400000 : "testResize 5 failed";
+        assert numbers.maxDepth() <= 48 : "testResize 6 failed, " + numbers.maxDepth();
+    }
+
+    /**
+     * Tests the removeIf() and removeAll() methods.
+     */
+    private static void testRemoveIf() {
+        ConcurrentCountMap map = new ConcurrentCountMap();
+        for (int i = 0; i < 1000; i++) {
+            map.add("word" + i, i);
+        }
+        assert map.removeIf((key, count) -> count < 600) == 600 : "testRemoveIf 1 failed";
+        assert map.size() == 400 : "testRemoveIf 2 failed";
+        for (int i = 0; i < 1000; i++) {
+            assert map.getCount("word" + i) == (i < 600 ? 0 : i) : "testRemoveIf 3 failed at " + i;
+        }
+        assert map.removeAll(Arrays.asList("word600", "word1")) == 1 : "testRemoveIf 4 failed";
+        ArrayList<String> keys = map.keySet();
+        ArrayList<Integer> values = map.values();
+        assert keys.size() == 399 && values.size() == 399 : "testRemoveIf 5 failed";
+        for (int i = 0; i < keys.size(); i++) {
+            assert map.getCount(keys.get(i)) == values.get(i) : "testRemoveIf 6 failed";
+        }
+    }
+
+    /**
+     * Tests many threads incrementing one hot key and a spread of cold keys at the same time.
+     * Verifies that no increment is lost, including those racing with segment resizes.
+     */
+    private static void testConcurrentIncrements() throws InterruptedException {
+        ConcurrentCountMap map = new ConcurrentCountMap(2, 2);
+        int threads = 8;
+        int perThread = 50000;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int offset = t;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    map.increment("the");
+                    map.increment("word" + ((i + offset) % 2000));
+                }
+            });
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assert map.getCount("the") == threads * perThread : "testConcurrentIncrements 1 failed, " + map.getCount("the");
+        assert map.size() == 2001 : "testConcurrentIncrements 2 failed";
+        long total = 0;
+        for (int count : map.values()) {
+            total += count;
+        }
+        assert total == 2L * threads * perThread : "testConcurrentIncrements 3 failed";
+        // each thread hits every cold word perThread / 2000 times
+        assert map.getCount("word1999") == threads * perThread / 2000 : "testConcurrentIncrements 4 failed";
+    }
+
+    /**
+     * Tests many threads inserting the same new keys at the same time.
+     * Verifies that each key is inserted once and keeps every thread's count.
+     */
+    private static void testConcurrentInserts() throws InterruptedException {
+        ConcurrentCountMap map = new ConcurrentCountMap();
+        int threads = 4;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < 20000; i++) {
+                    map.add("key" + i, 2);
+                }
+            });
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assert map.size() == 20000 : "testConcurrentInserts 1 failed, " + map.size();
+        assert map.keySet().size() == 20000 : "testConcurrentInserts 2 failed";
+        for (int i = 0; i < 20000; i++) {
+            assert map.getCount("key" + i) == 2 * threads : "testConcurrentInserts 3 failed for key" + i;
+        }
+    }
+}
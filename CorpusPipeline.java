@@ -0,0 +1,282 @@
+/**
+ * Multi-year pipeline that counts several Reddit comment files in one run.
+ *
+ * Each year file is counted on a worker thread into its own ObjectIntCountMap, and
+ * its counts are saved as a binary snapshot (see WordCountFile) next to the input.
+ * As each year finishes, the main thread merges its counts into one all-years map
+ * and the year's map is dropped. A year is only started once an earlier one has
+ * been merged, so at most maxConcurrentYears year vocabularies are in memory at
+ * once besides the merged one, whether they are still counting or waiting to be
+ * merged.
+ *
+ * Every file is read only once, however many results are wanted from it; later
+ * analyses can reload a year's snapshot with WordCounter.readWordCount instead of
+ * re-reading the comments. If a TimeSeriesIndex is set, each year is also added to
+ * it as it is merged, for trend queries across years.
+ *
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ *
+ * Usage:
+ *   javac CorpusPipeline.java
+ *   java -Xmx8g CorpusPipeline [maxConcurrentYears]
+ *
+ * With no arguments, two years are counted at a time.
+ */
+
+// Import required libraries
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Counts several year files concurrently, with bounded parallelism, into per-year
+ * snapshots and a merged all-years map.
+ */
+public class CorpusPipeline {
+
+    /**
+     * Summary of one year's run: where its snapshot was saved and what it held.
+     */
+    public static class YearResult {
+        private int year;
+        private String snapshotFile;
+        private long totalWords;
+        private int uniqueWords;
+        private double runTime;
+        private ObjectIntCountMap counts;    // dropped once the year has been merged
+
+        YearResult(int year, String snapshotFile, long totalWords, int uniqueWords, double runTime, ObjectIntCountMap counts) {
+            this.year = year;
+            this.snapshotFile = snapshotFile;
+            this.totalWords = totalWords;
+            this.uniqueWords = uniqueWords;
+            this.runTime = runTime;
+            this.counts = counts;
+        }
+
+        //returns the year this result is for
+        public int getYear() {
+            return year;
+        }
+
+        //returns the binary snapshot holding the year's counts
+        public String getSnapshotFile() {
+            return snapshotFile;
+        }
+
+        //returns the number of words read from the year's file
+        public long getTotalWords() {
+            return totalWords;
+        }
+
+        //returns the number of distinct words kept for the year
+        public int getUniqueWords() {
+            return uniqueWords;
+        }
+
+        //returns how long the year took to count and save, in milliseconds
+        public double getRunTime() {
+            return runTime;
+        }
+
+        public String toString() {
+            return year + ": " + totalWords + " words, " + uniqueWords + " unique, " + runTime + " ms -> " + snapshotFile;
+        }
+    }
+
+    // Instance fields
+    private String dataStructure;            // Backend of the merged map
+    private int maxConcurrentYears;          // Number of years counted at the same time
+    private StopWordFilter stopWords;        // Words dropped while counting, or null to keep every word
+    private TimeSeriesIndex index;           // Per-year counts of every word, or null to skip building one
+    private List<YearResult> yearResults;    // Results of the last run, in year order
+    private long totalWords;                 // Words read from every year of the last run, stop words included
+
+    /**
+     * Constructs a pipeline that merges into the given data structure.
+     *
+     * @param dataStructure      the backend of the merged map, as for the WordCounter constructor
+     * @param maxConcurrentYears the number of years counted at the same time; each one in
+     *                           flight holds a full year's vocabulary, so this bounds the heap
+     */
+    public CorpusPipeline(String dataStructure, int maxConcurrentYears) {
+        if (maxConcurrentYears <= 0) {
+            throw new IllegalArgumentException("maxConcurrentYears must be positive: " + maxConcurrentYears);
+        }
+        this.dataStructure = dataStructure;
+        this.maxConcurrentYears = maxConcurrentYears;
+        this.yearResults = new ArrayList<>();
+    }
+
+    //sets the words to drop while counting, or null to keep every word
+    public void setStopWords(StopWordFilter stopWords) {
+        this.stopWords = stopWords;
+    }
+
+    //sets the index each year's counts are added to as the year is merged, or null for none
+    public void setIndex(TimeSeriesIndex index) {
+        this.index = index;
+    }
+
+    //returns the per-year results of the last run, in year order
+    public List<YearResult> getYearResults() {
+        return yearResults;
+    }
+
+    //returns the number of words read from every year of the last run, which can exceed an int
+    public long getTotalWords() {
+        return totalWords;
+    }
+
+    /**
+     * Returns the reddit_comments_YYYY.txt files for the given range of years that exist
+     * in the current directory, keyed by year.
+     *
+     * @param firstYear the first year to look for
+     * @param lastYear  the last year to look for
+     * @return the files found, in year order
+     */
+    public static TreeMap<Integer, String> findYearFiles(int firstYear, int lastYear) {
+        TreeMap<Integer, String> files = new TreeMap<>();
+        for (int year = firstYear; year <= lastYear; year++) {
+            String filename = "reddit_comments_" + year + ".txt";
+            if (new File(filename).exists()) {
+                files.put(year, filename);
+            }
+        }
+        return files;
+    }
+
+    //returns the snapshot file name for a year's input, e.g. reddit_comments_2011_counts.bin
+    static String snapshotName(String filename) {
+        String base = filename.endsWith(".txt") ? filename.substring(0, filename.length() - 4) : filename;
+        return base + "_counts.bin";
+    }
+
+    /**
+     * Counts every year file, saves a snapshot for each year and merges all years into one map.
+     * At most maxConcurrentYears years are counted or waiting to be merged at the same time.
+     *
+     * @param yearFiles the files to count, keyed by year
+     * @return a WordCounter holding the merged counts; the total number of words in all years
+     *         overflows its int word count on the full corpus, so it is kept in getTotalWords
+     * @throws IOException if a file cannot be read or a snapshot cannot be written
+     */
+    public WordCounter run(Map<Integer, String> yearFiles) throws IOException {
+        WordCounter merged = new WordCounter(dataStructure);
+        TreeMap<Integer, YearResult> results = new TreeMap<>();
+        long total = 0;
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(maxConcurrentYears, yearFiles.size())));
+        ExecutorCompletionService<YearResult> completed = new ExecutorCompletionService<>(pool);
+        Iterator<Map.Entry<Integer, String>> pending = yearFiles.entrySet().iterator();
+        try {
+            for (int i = 0; i < maxConcurrentYears && pending.hasNext(); i++) {
+                submitYear(completed, pending.next());
+            }
+            // merge each year on this thread as soon as it is done, then let its map go.
+            // the next year is only started after that, so a finished year's map never
+            // waits in the queue alongside maxConcurrentYears others
+            for (int i = 0; i < yearFiles.size(); i++) {
+                YearResult result = takeResult(completed);
+                total += result.totalWords;
+                result.counts.forEachCount((word, count) -> merged.myMapSet.merge(word, count, Integer::sum));
+                if (index != null) {
+                    index.addYear(result.year, result.counts, result.totalWords);
+                }
+                result.counts = null;
+                results.put(result.year, result);
+                if (pending.hasNext()) {
+                    submitYear(completed, pending.next());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        yearResults = new ArrayList<>(results.values());
+        totalWords = total;
+        return merged;
+    }
+
+    //starts counting one year on the pool
+    private void submitYear(ExecutorCompletionService<YearResult> completed, Map.Entry<Integer, String> yearFile) {
+        int year = yearFile.getKey();
+        String filename = yearFile.getValue();
+        completed.submit(() -> countYear(year, filename));
+    }
+
+    //counts one year file into its own map and saves its snapshot
+    private YearResult countYear(int year, String filename) throws IOException {
+        long startTime = System.currentTimeMillis();
+        ObjectIntCountMap counts = new ObjectIntCountMap();
+        int totalWords = ByteTokenizer.count(filename, counts, stopWords);
+        String snapshot = snapshotName(filename);
+        WordCountFile.write(snapshot, totalWords, counts, false);
+        long endTime = System.currentTimeMillis();
+        return new YearResult(year, snapshot, totalWords, counts.size(), (double) (endTime - startTime), counts);
+    }
+
+    //waits for the next year to finish, rethrowing an IOException from its worker
+    private static YearResult takeResult(ExecutorCompletionService<YearResult> completed) throws IOException {
+        try {
+            Future<YearResult> future = completed.take();
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a year to finish", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Counts every reddit_comments_YYYY.txt file for 2008-2015 in the current directory,
+     * writing a snapshot per year, the merged counts to reddit_comments_all_counts.bin and
+     * the per-year index of every word to reddit_comments_index.bin.
+     *
+     * @param args the number of years to count at the same time, 2 if not given
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        int maxConcurrentYears = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+        TreeMap<Integer, String> files = findYearFiles(2008, 2015);
+        if (files.isEmpty()) {
+            System.out.println("No input files found. Place reddit_comments_YYYY.txt files here.");
+            return;
+        }
+
+        CorpusPipeline pipeline = new CorpusPipeline("hashmap", maxConcurrentYears);
+        TimeSeriesIndex index = new TimeSeriesIndex(2008, 2015);
+        pipeline.setIndex(index);
+        long startTime = System.currentTimeMillis();
+        WordCounter merged = pipeline.run(files);
+        long endTime = System.currentTimeMillis();
+
+        for (YearResult result : pipeline.getYearResults()) {
+            System.out.println(result);
+        }
+        System.out.println("All years: " + pipeline.getTotalWords() + " words, " + merged.uniqueWordCount() + " unique, "
+                + (endTime - startTime) + " ms");
+        WordCountFile.write("reddit_comments_all_counts.bin", pipeline.getTotalWords(), merged.myMapSet, false);
+        index.save("reddit_comments_index.bin");
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Unit tests for CorpusPipeline implementation.
+ *
+ * Tests that concurrently counted years give the same per-year snapshots and the
+ * same merged counts as counting each file on its own.
+ *
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ *
+ * Usage:
+ *   javac CorpusPipelineTest.java
+ *   java -ea CorpusPipelineTest
+ */
+
+// Import required libraries
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Test suite for the multi-year CorpusPipeline.
+ */
+public class CorpusPipelineTest {
+
+    /**
+     * Main method to run all test cases.
+     * Uses Java assertions to verify correctness.
+     *
+     * @param args command line arguments (not used)
+     * @throws IOException if the temporary test files cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        System.out.println("Running CorpusPipeline tests...");
+        testRun();
+        testMissingFile();
+        System.out.println("All CorpusPipeline tests passed!");
+    }
+
+    //writes a temporary year file and returns its path
+    private static String yearFile(File dir, int year, String text) throws IOException {
+        File file = new File(dir, "reddit_comments_" + year + ".txt");
+        file.deleteOnExit();
+        new File(CorpusPipeline.snapshotName(file.getPath())).deleteOnExit();
+        Files.write(file.toPath(), text.getBytes());
+        return file.getPath();
+    }
+
+    /**
+     * Tests that every year gets a correct snapshot and the merged map is the sum of the years,
+     * with more years than worker threads.
+     */
+    private static void testRun() throws IOException {
+        File dir = Files.createTempDirectory("pipeline").toFile();
+        dir.deleteOnExit();
+        TreeMap<Integer, String> files = new TreeMap<>();
+        files.put(2008, yearFile(dir, 2008, "the cat sat\non the mat"));
+        files.put(2009, yearFile(dir, 2009, "Obama the cat\n"));
+        files.put(2010, yearFile(dir, 2010, "the end of the year\nthe"));
+
+        CorpusPipeline pipeline = new CorpusPipeline("avl", 2);
+        pipeline.setStopWords(new StopWordFilter(Arrays.asList("of")));
+        WordCounter merged = pipeline.run(files);
+
+        assert pipeline.getTotalWords() == 6 + 3 + 6 : "testRun 1 failed";
+        assert merged.getCount("the") == 6 : "testRun 2 failed";
+        assert merged.getCount("cat") == 2 : "testRun 3 failed";
+        assert merged.getCount("of") == 0 : "testRun 4 failed";
+        assert merged.uniqueWordCount() == 8 : "testRun 5 failed, " + merged.uniqueWordCount();
+
+        List<CorpusPipeline.YearResult> results = pipeline.getYearResults();
+        assert results.size() == 3 : "testRun 6 failed";
+        for (int i = 0; i < results.size(); i++) {
+            CorpusPipeline.YearResult result = results.get(i);
+            assert result.getYear() == 2008 + i : "testRun 7 failed";
+
+            WordCounter direct = new WordCounter("hashmap");
+            direct.setStopWords(new StopWordFilter(Arrays.asList("of")));
+            direct.countFile(files.get(result.getYear()));
+            WordCounter snapshot = new WordCounter("hashmap");
+            assert snapshot.readWordCount(result.getSnapshotFile()) : "testRun 8 failed";
+            assert snapshot.totalWordCount() == direct.totalWordCount() && result.getTotalWords() == direct.totalWordCount() : "testRun 9 failed";
+            assert snapshot.uniqueWordCount() == direct.uniqueWordCount() && result.getUniqueWords() == direct.uniqueWordCount() : "testRun 10 failed";
+            for (String word : direct.myMapSet.keySet()) {
+                assert snapshot.getCount(word) == direct.getCount(word) : "testRun 11 failed for " + word;
+            }
+        }
+    }
+
+    /**
+     * Tests that a missing year file makes run() throw the worker's IOException.
+     */
+    private static void testMissingFile() {
+        TreeMap<Integer, String> files = new TreeMap<>();
+        files.put(2099, "no_such_reddit_comments_2099.txt");
+        boolean thrown = false;
+        try {
+            new CorpusPipeline("hashmap", 1).run(files);
+        } catch (IOException e) {
+            thrown = true;
+        }
+        assert thrown : "testMissingFile 1 failed";
+    }
+}
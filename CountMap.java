@@ -0,0 +1,35 @@
+/**
+ * Interface for a MapSet of word counts that can count a word without boxing.
+ *
+ * The counting backends (ObjectIntCountMap, RadixTrie, OffHeapCountMap,
+ * ConcurrentCountMap and CountMinSketch) implement this, so WordCounter can
+ * count into any of them with a single check instead of one cast per backend.
+ *
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ *
+ * Compilation: javac CountMap.java
+ */
+
+/**
+ * Map from words to primitive int counts.
+ */
+public interface CountMap extends MapSet<String, Integer> {
+
+    /**
+     * Adds one to the count of key, inserting it with a count of 1 if absent.
+     *
+     * @param key the word to count
+     * @return the new count of key
+     */
+    int increment(String key);
+
+    /**
+     * Returns the count of key, or 0 if the key is not in the map.
+     *
+     * @param key the word to look up
+     * @return the count of key, or 0 if absent
+     */
+    int getCount(String key);
+}
@@ -0,0 +1,486 @@
+/**
+ * Approximate word counter with a fixed memory footprint, built on a Count-Min Sketch.
+ *
+ * The sketch is a depth x width grid of int counters. Every word is hashed to one
+ * counter in each row, and its estimated count is the smallest of those counters.
+ * Counts are added with conservative update: a word's counters are only raised as
+ * far as its new estimate, never past it. This keeps the guarantee below and makes
+ * the long tail of rare words much less noisy than adding to every counter would.
+ *
+ * Guarantees, for n words counted with width w and depth d:
+ * - the estimate of a word is never below its true count
+ * - with probability at least 1 - e^-d, it overestimates by at most (e / w) * n
+ *
+ * The sketch cannot list the words it has seen, so it can optionally keep a small
+ * table of heavy hitters: the words with the highest estimates so far, held in a
+ * min-heap of fixed capacity. A word entering the table starts from its estimate at
+ * that moment and is then counted exactly, so the most frequent words, which are seen
+ * early in any large file, end up with counts close to exact. keySet, values, entrySet
+ * and forEach list only these words, which is what WordCounter.topK needs.
+ *
+ * Memory is fixed when the sketch is made and does not grow with the vocabulary.
+ * Counts can only grow, so remove and removeIf are not supported; stop words have
+ * to be filtered while counting with WordCounter.setCommonWordFilter.
+ *
+ * Time Complexity:
+ * - O(d + length of the word) to add or estimate a word, plus O(log k) to update a
+ *   table of k heavy hitters
+ *
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ *
+ * Compilation: javac CountMinSketch.java
+ */
+
+// Import required libraries
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+
+/**
+ * Fixed-memory approximate map from words to counts.
+ */
+public class CountMinSketch implements CountMap {
+
+    // Instance fields
+    private final int[] counters;        // depth rows of width counters, one row after another
+    private final int width;             // Counters per row, a power of two
+    private final int depth;             // Number of rows, each with its own hash
+    private final int[] slots;           // Counter indices of the word being added, reused
+    private long total;                  // Number of words counted so far
+
+    private final String[] hitters;      // Heavy hitter words, in heap order
+    private final long[] hitCounts;      // Estimated count of the heavy hitter in the same position
+    private final long[] hitErrors;      // Maximum overestimate of the count in the same position
+    private final ObjectIntCountMap hitIndex; // Heap position + 1 of every heavy hitter
+    private int hitSize;                 // Number of heavy hitters in the table
+
+    /**
+     * Constructs a sketch with the given error and confidence.
+     *
+     * @param epsilon      the largest overestimate, as a fraction of the total count
+     * @param delta        the probability that an estimate is off by more than that
+     * @param heavyHitters the number of most frequent words to keep by name, or 0 for none
+     */
+    public CountMinSketch(double epsilon, double delta, int heavyHitters) {
+        this(widthFor(epsilon), depthFor(delta), heavyHitters);
+    }
+
+    /**
+     * Constructs a sketch with the given number of rows and counters per row.
+     *
+     * @param width        the counters per row, rounded up to a power of two
+     * @param depth        the number of rows
+     * @param heavyHitters the number of most frequent words to keep by name, or 0 for none
+     */
+    public CountMinSketch(int width, int depth, int heavyHitters) {
+        if (width <= 0 || depth <= 0 || heavyHitters < 0) {
+            throw new IllegalArgumentException("Invalid sketch size: width " + width + ", depth " + depth + ", heavy hitters " + heavyHitters);
+        }
+        int roundedWidth = Integer.highestOneBit(width);
+        if (roundedWidth < width) {
+            roundedWidth *= 2;
+        }
+        if ((long) roundedWidth * depth > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Sketch too large: width " + roundedWidth + ", depth " + depth);
+        }
+        this.width = roundedWidth;
+        this.depth = depth;
+        counters = new int[roundedWidth * depth];
+        slots = new int[depth];
+        hitters = new String[heavyHitters];
+        hitCounts = new long[heavyHitters];
+        hitErrors = new long[heavyHitters];
+        hitIndex = new ObjectIntCountMap(Math.max(16, heavyHitters * 2));
+        total = 0;
+        hitSize = 0;
+    }
+
+    /**
+     * Returns the widest sketch whose counters fit in the given number of bytes.
+     * The heavy hitter table is not included in the budget; it takes roughly
+     * 100 bytes per word plus the words themselves.
+     *
+     * @param bytes        the memory available for the counters
+     * @param delta        the probability that an estimate is off by more than epsilon()
+     * @param heavyHitters the number of most frequent words to keep by name, or 0 for none
+     * @return a sketch using at most bytes bytes of counters
+     */
+    public static CountMinSketch withByteBudget(long bytes, double delta, int heavyHitters) {
+        int depth = depthFor(delta);
+        long maxWidth = bytes / (4L * depth);
+        if (maxWidth < 1) {
+            throw new IllegalArgumentException("A budget of " + bytes + " bytes cannot hold " + depth + " rows");
+        }
+        int width = Integer.highestOneBit((int) Math.min(maxWidth, Integer.MAX_VALUE / depth));
+        return new CountMinSketch(width, depth, heavyHitters);
+    }
+
+    //returns the counters per row needed for the given error
+    private static int widthFor(double epsilon) {
+        if (!(epsilon > 0 && epsilon < 1)) {
+            throw new IllegalArgumentException("epsilon must be between 0 and 1: " + epsilon);
+        }
+        return (int) Math.min(1 << 30, Math.ceil(Math.E / epsilon));
+    }
+
+    //returns the rows needed for the given failure probability
+    private static int depthFor(double delta) {
+        if (!(delta > 0 && delta < 1)) {
+            throw new IllegalArgumentException("delta must be between 0 and 1: " + delta);
+        }
+        return Math.max(1, (int) Math.ceil(Math.log(1 / delta)));
+    }
+
+    /*
+     * hashes the characters of a word to 64 bits with FNV-1a, then mixes that hash with a
+     * different constant for each row. every row gets its own counter index without
+     * reading the word again, and two words that share a counter in one row are no more
+     * likely than any others to share one in the next
+     */
+    private void locate(String word) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < word.length(); i++) {
+            h = (h ^ word.charAt(i)) * 0x100000001b3L;
+        }
+        int mask = width - 1;
+        for (int row = 0; row < depth; row++) {
+            long x = h + (row + 1) * 0x9E3779B97F4A7C15L;
+            x = (x ^ (x >>> 32)) * 0xd6e8feb86659fd93L;
+            x = (x ^ (x >>> 32)) * 0xd6e8feb86659fd93L;
+            slots[row] = row * width + ((int) (x ^ (x >>> 32)) & mask);
+        }
+    }
+
+    //returns the smallest of the counters found by the last call to locate
+    private int minCounter() {
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters[slots[row]]);
+        }
+        return min;
+    }
+
+    /**
+     * Counts amount occurrences of a word with conservative update.
+     *
+     * @param word the word to count
+     * @param amount the number of occurrences, at least 0
+     * @return the new estimated count of word
+     */
+    public int add(String word, int amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("A Count-Min Sketch cannot subtract: " + amount);
+        }
+        total += amount;
+        locate(word);
+        int before = minCounter();
+        int after = (int) Math.min((long) before + amount, Integer.MAX_VALUE);
+        for (int row = 0; row < depth; row++) {
+            if (counters[slots[row]] < after) {
+                counters[slots[row]] = after;
+            }
+        }
+        return hitters.length > 0 ? track(word, before, amount, after) : after;
+    }
+
+    /**
+     * Counts one occurrence of a word.
+     *
+     * @param word the word to count
+     * @return the new estimated count of word
+     */
+    @Override
+    public int increment(String word) {
+        return add(word, 1);
+    }
+
+    /*
+     * updates the heavy hitter table after amount occurrences of word were added.
+     * a new word enters the table with its estimate from before, which is never below
+     * its true earlier count, so its count stays an overestimate by at most the
+     * sketch's error at that moment. returns the word's estimate afterwards
+     */
+    private int track(String word, int before, int amount, int after) {
+        int pos = hitIndex.getCount(word) - 1;
+        if (pos >= 0) {
+            hitCounts[pos] += amount;
+            long count = hitCounts[pos];
+            siftDown(pos);
+            return (int) Math.min(count, Integer.MAX_VALUE);
+        } else if (hitSize < hitters.length) {
+            hitters[hitSize] = word;
+            hitCounts[hitSize] = (long) before + amount;
+            hitErrors[hitSize] = errorAt(total - amount);
+            hitIndex.put(word, hitSize + 1);
+            hitSize++;
+            siftUp(hitSize - 1);
+        } else if (after > hitCounts[0]) {
+            // the least frequent heavy hitter falls back to the sketch alone
+            hitIndex.remove(hitters[0]);
+            hitters[0] = word;
+            hitCounts[0] = (long) before + amount;
+            hitErrors[0] = errorAt(total - amount);
+            hitIndex.put(word, 1);
+            siftDown(0);
+        }
+        return after;
+    }
+
+    /**
+     * Returns the estimated count of a word, or 0 if it was never counted.
+     * The estimate is never below the true count.
+     *
+     * @param word the word to look up
+     * @return the estimated count of word
+     */
+    @Override
+    public int getCount(String word) {
+        int pos = hitIndex.getCount(word) - 1;
+        if (pos >= 0) {
+            return (int) Math.min(hitCounts[pos], Integer.MAX_VALUE);
+        }
+        locate(word);
+        return minCounter();
+    }
+
+    /**
+     * Returns the largest amount by which getCount may exceed the true count of a word,
+     * with probability at least 1 - delta(). Heavy hitters have a smaller bound, set when
+     * they entered the table.
+     *
+     * @param word the word to look up
+     * @return the maximum overestimate of word's count
+     */
+    public long errorBound(String word) {
+        int pos = hitIndex.getCount(word) - 1;
+        return pos >= 0 ? hitErrors[pos] : errorBound();
+    }
+
+    /**
+     * Returns the largest amount by which any estimate may exceed the true count,
+     * with probability at least 1 - delta(): epsilon() times the total count.
+     *
+     * @return the maximum overestimate of any word's count
+     */
+    public long errorBound() {
+        return errorAt(total);
+    }
+
+    //returns the error bound after the given number of words
+    private long errorAt(long count) {
+        return (long) Math.ceil(epsilon() * count);
+    }
+
+    //returns the largest overestimate as a fraction of the total count
+    public double epsilon() {
+        return Math.E / width;
+    }
+
+    //returns the probability that an estimate is off by more than epsilon times the total count
+    public double delta() {
+        return Math.exp(-depth);
+    }
+
+    //returns the number of counters per row
+    public int width() {
+        return width;
+    }
+
+    //returns the number of rows
+    public int depth() {
+        return depth;
+    }
+
+    //returns the number of words counted so far
+    public long totalCount() {
+        return total;
+    }
+
+    //returns the number of bytes used by the counters, which never changes
+    public long counterBytes() {
+        return 4L * counters.length;
+    }
+
+    /**
+     * Returns the k heavy hitters with the highest estimated counts, most frequent first.
+     * Words with the same estimate are ordered alphabetically.
+     *
+     * @param k the number of words to return
+     * @return up to k words paired with their estimated counts
+     */
+    public List<MapSet.KeyValuePair<String, Integer>> topK(int k) {
+        ArrayList<MapSet.KeyValuePair<String, Integer>> result = entrySet();
+        result.sort((a, b) -> {
+            int byCount = b.getValue().compareTo(a.getValue());
+            return byCount != 0 ? byCount : a.getKey().compareTo(b.getKey());
+        });
+        return new ArrayList<>(result.subList(0, Math.max(0, Math.min(k, result.size()))));
+    }
+
+    //raises the count of key to value and returns the old estimate, or null if it was 0
+    @Override
+    public Integer put(String key, Integer value) {
+        int oldVal = getCount(key);
+        if (value != null && value > oldVal) {
+            add(key, value - oldVal);
+        }
+        return oldVal == 0 ? null : oldVal;
+    }
+
+    /*
+     * merges a value into the estimate of key and returns the new estimate. the estimate
+     * can only grow, so a merged value below it leaves it unchanged
+     */
+    @Override
+    public Integer merge(String key, Integer value, BiFunction<? super Integer, ? super Integer, ? extends Integer> remappingFunction) {
+        int oldVal = getCount(key);
+        int newVal = oldVal == 0 ? value : remappingFunction.apply(oldVal, value);
+        if (newVal > oldVal) {
+            return add(key, newVal - oldVal);
+        }
+        return oldVal;
+    }
+
+    //checks whether the sketch has counted key; a word never counted may still collide with others
+    @Override
+    public boolean containsKey(String key) {
+        return getCount(key) > 0;
+    }
+
+    //returns the estimated count of key, or null if it is 0
+    @Override
+    public Integer get(String key) {
+        int count = getCount(key);
+        return count == 0 ? null : count;
+    }
+
+    //not supported: a sketch cannot take a word's occurrences back out of the counters it shares
+    @Override
+    public Integer remove(String key) {
+        throw new UnsupportedOperationException("A Count-Min Sketch cannot remove words");
+    }
+
+    //not supported: a sketch cannot take a word's occurrences back out of the counters it shares
+    @Override
+    public int removeIf(BiPredicate<? super String, ? super Integer> filter) {
+        throw new UnsupportedOperationException("A Count-Min Sketch cannot remove words");
+    }
+
+    //returns an arraylist of the heavy hitters
+    @Override
+    public ArrayList<String> keySet() {
+        ArrayList<String> result = new ArrayList<>(hitSize);
+        for (int i = 0; i < hitSize; i++) {
+            result.add(hitters[i]);
+        }
+        return result;
+    }
+
+    //returns an arraylist of the estimated counts of the heavy hitters, in the same order as keySet
+    @Override
+    public ArrayList<Integer> values() {
+        ArrayList<Integer> result = new ArrayList<>(hitSize);
+        for (int i = 0; i < hitSize; i++) {
+            result.add((int) Math.min(hitCounts[i], Integer.MAX_VALUE));
+        }
+        return result;
+    }
+
+    //returns an arraylist of the heavy hitters and their estimated counts, in the same order as keySet
+    @Override
+    public ArrayList<MapSet.KeyValuePair<String, Integer>> entrySet() {
+        ArrayList<MapSet.KeyValuePair<String, Integer>> result = new ArrayList<>(hitSize);
+        for (int i = 0; i < hitSize; i++) {
+            result.add(new KeyValuePair<>(hitters[i], (int) Math.min(hitCounts[i], Integer.MAX_VALUE)));
+        }
+        return result;
+    }
+
+    //calls action on every heavy hitter and its estimated count
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Integer> action) {
+        for (int i = 0; i < hitSize; i++) {
+            action.accept(hitters[i], (int) Math.min(hitCounts[i], Integer.MAX_VALUE));
+        }
+    }
+
+    //returns the number of heavy hitters, the words the sketch can list
+    @Override
+    public int size() {
+        return hitSize;
+    }
+
+    //resets every counter and empties the heavy hitter table, keeping the sketch's size
+    @Override
+    public void clear() {
+        Arrays.fill(counters, 0);
+        Arrays.fill(hitters, null);
+        hitIndex.clear();
+        hitSize = 0;
+        total = 0;
+    }
+
+    //returns the number of counters read for every lookup, one per row
+    @Override
+    public int maxDepth() {
+        return depth;
+    }
+
+    //moves the heavy hitter at pos towards the root while it is smaller than its parent
+    private void siftUp(int pos) {
+        while (pos > 0) {
+            int parent = (pos - 1) / 2;
+            if (hitCounts[parent] <= hitCounts[pos]) {
+                break;
+            }
+            swap(pos, parent);
+            pos = parent;
+        }
+    }
+
+    //moves the heavy hitter at pos towards the leaves while it is larger than a child
+    private void siftDown(int pos) {
+        while (true) {
+            int smallest = pos;
+            int left = 2 * pos + 1;
+            int right = left + 1;
+            if (left < hitSize && hitCounts[left] < hitCounts[smallest]) {
+                smallest = left;
+            }
+            if (right < hitSize && hitCounts[right] < hitCounts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == pos) {
+                return;
+            }
+            swap(pos, smallest);
+            pos = smallest;
+        }
+    }
+
+    //swaps two heavy hitters and updates the positions recorded in the index
+    private void swap(int i, int j) {
+        String tempWord = hitters[i];
+        long tempCount = hitCounts[i];
+        long tempError = hitErrors[i];
+        hitters[i] = hitters[j];
+        hitCounts[i] = hitCounts[j];
+        hitErrors[i] = hitErrors[j];
+        hitters[j] = tempWord;
+        hitCounts[j] = tempCount;
+        hitErrors[j] = tempError;
+        hitIndex.put(hitters[i], i + 1);
+        hitIndex.put(hitters[j], j + 1);
+    }
+
+    //returns a summary of the sketch's size and error
+    public String toString() {
+        return "CountMinSketch(" + width + " x " + depth + ", " + total + " words, error <= " + errorBound()
+                + " with probability " + (1 - delta()) + ", " + hitSize + " heavy hitters)";
+    }
+}
@@ -0,0 +1,205 @@
+/**
+ * Unit tests for CountMinSketch implementation.
+ *
+ * Tests sizing from error bounds and byte budgets, the guarantee that estimates
+ * are never too low, conservative update, and the heavy hitter table.
+ *
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ *
+ * Usage:
+ *   javac CountMinSketchTest.java
+ *   java -ea CountMinSketchTest
+ */
+
+// Import required libraries
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Comprehensive test suite for CountMinSketch implementation.
+ */
+public class CountMinSketchTest {
+
+    /**
+     * Main method to run all test cases.
+     * Uses Java assertions to verify correctness.
+     *
+     * @param args command line arguments (not used)
+     */
+    public static void main(String[] args) {
+        System.out.println("Running CountMinSketch tests...");
+        testSizing();
+        testExactWhenSparse();
+        testNeverUnderestimates();
+        testConservativeUpdate();
+        testHeavyHitters();
+        testMapSetMethods();
+        System.out.println("All CountMinSketch tests passed!");
+    }
+
+    /**
+     * Tests that the sketch is sized from epsilon and delta, or from a byte budget.
+     */
+    private static void testSizing() {
+        CountMinSketch sketch = new CountMinSketch(0.001, 0.01, 0);
+        assert sketch.epsilon() <= 0.001 : "testSizing 1 failed";
+        assert sketch.delta() <= 0.01 : "testSizing 2 failed";
+        assert sketch.width() == 4096 && sketch.depth() == 5 : "testSizing 3 failed";
+
+        CountMinSketch budget = CountMinSketch.withByteBudget(1 << 20, 0.01, 0);
+        assert budget.counterBytes() <= 1 << 20 : "testSizing 4 failed";
+        assert budget.counterBytes() > 1 << 19 : "testSizing 5 failed";
+        assert budget.depth() == 5 : "testSizing 6 failed";
+
+        boolean thrown = false;
+        try {
+            CountMinSketch.withByteBudget(8, 0.01, 0);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "testSizing 7 failed";
+    }
+
+    /**
+     * Tests that a few words in a wide sketch are counted exactly.
+     */
+    private static void testExactWhenSparse() {
+        CountMinSketch sketch = new CountMinSketch(1 << 16, 4, 0);
+        assert sketch.increment("apple") == 1 : "testExactWhenSparse 1 failed";
+        assert sketch.increment("apple") == 2 : "testExactWhenSparse 2 failed";
+        assert sketch.add("banana", 5) == 5 : "testExactWhenSparse 3 failed";
+        assert sketch.getCount("apple") == 2 && sketch.getCount("banana") == 5 : "testExactWhenSparse 4 failed";
+        assert sketch.getCount("cherry") == 0 : "testExactWhenSparse 5 failed";
+        assert sketch.totalCount() == 7 : "testExactWhenSparse 6 failed";
+    }
+
+    //returns a stream of words whose frequencies fall off like word frequencies in text
+    private static int[] zipfStream(int vocabulary, int length, long seed) {
+        Random random = new Random(seed);
+        double[] cdf = new double[vocabulary];
+        double sum = 0;
+        for (int i = 0; i < vocabulary; i++) {
+            sum += 1.0 / (i + 1);
+            cdf[i] = sum;
+        }
+        int[] stream = new int[length];
+        for (int i = 0; i < length; i++) {
+            double target = random.nextDouble() * sum;
+            int lo = 0;
+            int hi = vocabulary - 1;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (cdf[mid] < target) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            stream[i] = lo;
+        }
+        return stream;
+    }
+
+    /**
+     * Tests a sketch much smaller than its vocabulary.
+     * Verifies that no estimate is below the true count and nearly all are within the bound.
+     */
+    private static void testNeverUnderestimates() {
+        int vocabulary = 20000;
+        int[] stream = zipfStream(vocabulary, 200000, 231);
+        int[] truth = new int[vocabulary];
+        CountMinSketch sketch = new CountMinSketch(1024, 5, 0);
+        for (int id : stream) {
+            sketch.increment("w" + id);
+            truth[id]++;
+        }
+        long bound = sketch.errorBound();
+        assert bound == (long) Math.ceil(sketch.epsilon() * 200000) : "testNeverUnderestimates 1 failed";
+        int outside = 0;
+        for (int i = 0; i < vocabulary; i++) {
+            int estimate = sketch.getCount("w" + i);
+            assert estimate >= truth[i] : "testNeverUnderestimates 2 failed for w" + i;
+            if (estimate - truth[i] > bound) {
+                outside++;
+            }
+        }
+        // delta is e^-5, under 1%
+        assert outside <= vocabulary / 100 : "testNeverUnderestimates 3 failed, " + outside;
+        assert sketch.errorBound("w0") == bound : "testNeverUnderestimates 4 failed";
+    }
+
+    /**
+     * Tests that conservative update only raises a word's counters as far as its new estimate,
+     * so rare words sharing counters with a frequent one do not push its estimate up.
+     */
+    private static void testConservativeUpdate() {
+        // two counters per row: every rare word shares about half of the counters of "the"
+        CountMinSketch sketch = new CountMinSketch(2, 16, 0);
+        sketch.add("the", 100);
+        for (int i = 0; i < 50; i++) {
+            assert sketch.increment("rare" + i) <= 50 : "testConservativeUpdate 1 failed for rare" + i;
+        }
+        // adding to every counter would have put "the" near 125
+        assert sketch.getCount("the") == 100 : "testConservativeUpdate 2 failed, " + sketch.getCount("the");
+    }
+
+    /**
+     * Tests that the heavy hitter table finds the most frequent words of a skewed stream
+     * and counts them far more closely than the sketch's error bound.
+     */
+    private static void testHeavyHitters() {
+        int vocabulary = 20000;
+        int[] stream = zipfStream(vocabulary, 200000, 42);
+        int[] truth = new int[vocabulary];
+        CountMinSketch sketch = new CountMinSketch(1024, 5, 50);
+        for (int id : stream) {
+            sketch.increment("w" + id);
+            truth[id]++;
+        }
+        assert sketch.size() == 50 && sketch.keySet().size() == 50 : "testHeavyHitters 1 failed";
+
+        List<MapSet.KeyValuePair<String, Integer>> top = sketch.topK(10);
+        for (int rank = 0; rank < 10; rank++) {
+            String word = top.get(rank).getKey();
+            int id = Integer.parseInt(word.substring(1));
+            int estimate = top.get(rank).getValue();
+            assert estimate >= truth[id] : "testHeavyHitters 2 failed for " + word;
+            assert estimate - truth[id] <= sketch.errorBound(word) : "testHeavyHitters 3 failed for " + word;
+            assert sketch.errorBound(word) < sketch.errorBound() : "testHeavyHitters 4 failed for " + word;
+            assert sketch.getCount(word) == estimate : "testHeavyHitters 5 failed for " + word;
+        }
+        // the five most frequent words stand far enough apart to be ranked exactly
+        for (int rank = 0; rank < 5; rank++) {
+            assert top.get(rank).getKey().equals("w" + rank) : "testHeavyHitters 6 failed at " + rank + ", " + top;
+        }
+    }
+
+    /**
+     * Tests the MapSet methods, which only ever raise a count, and that removing is refused.
+     */
+    private static void testMapSetMethods() {
+        CountMinSketch sketch = new CountMinSketch(1 << 12, 4, 10);
+        assert sketch.put("apple", 3) == null : "testMapSetMethods 1 failed";
+        assert sketch.put("apple", 5) == 3 : "testMapSetMethods 2 failed";
+        assert sketch.get("apple") == 5 && sketch.containsKey("apple") : "testMapSetMethods 3 failed";
+        assert sketch.put("apple", 1) == 5 && sketch.get("apple") == 5 : "testMapSetMethods 4 failed";
+        assert sketch.merge("apple", 2, Integer::sum) == 7 : "testMapSetMethods 5 failed";
+        assert sketch.merge("pear", 2, Integer::sum) == 2 : "testMapSetMethods 6 failed";
+        assert sketch.get("plum") == null && !sketch.containsKey("plum") : "testMapSetMethods 7 failed";
+        assert sketch.keySet().contains("apple") && sketch.values().contains(7) : "testMapSetMethods 8 failed";
+
+        boolean thrown = false;
+        try {
+            sketch.remove("apple");
+        } catch (UnsupportedOperationException e) {
+            thrown = true;
+        }
+        assert thrown : "testMapSetMethods 9 failed";
+
+        sketch.clear();
+        assert sketch.size() == 0 && sketch.totalCount() == 0 && sketch.getCount("apple") == 0 : "testMapSetMethods 10 failed";
+        assert sketch.counterBytes() == 4L * (1 << 12) * 4 : "testMapSetMethods 11 failed";
+    }
+}
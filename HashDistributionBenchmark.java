@@ -0,0 +1,105 @@
+/**
+ * Benchmark comparing HashMap bucket distributions under different hash strategies.
+ *
+ * For each input file, the vocabulary is counted once and then inserted into a
+ * HashMap per HashStrategy. The program reports the capacity, the maxDepth (longest
+ * chain) and the full chain-length histogram for each strategy.
+ *
+ * The identity strategy uses only the low bits of String.hashCode(), which is what
+ * the old Math.abs(hashCode % capacity) bucket selection amounted to, since the
+ * capacity was always 16 doubled some number of times. It is the baseline for the
+ * Max Depth figures in dataStructureData.txt.
+ *
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ *
+ * Usage:
+ *   javac HashDistributionBenchmark.java
+ *   java -Xmx4g HashDistributionBenchmark [file ...]
+ *
+ * With no arguments, every reddit_comments_YYYY.txt for 2008-2015 in the current
+ * directory is used.
+ */
+
+// Import required libraries
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Prints HashMap chain-length statistics for real vocabularies.
+ */
+public class HashDistributionBenchmark {
+
+    /**
+     * Runs the benchmark on the given files, or on the Reddit comment files if none are given.
+     *
+     * @param args the files whose vocabularies are hashed
+     * @throws IOException if a file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        List<String> files = new ArrayList<>(Arrays.asList(args));
+        if (files.isEmpty()) {
+            for (int year = 2008; year <= 2015; year++) {
+                String filename = "reddit_comments_" + year + ".txt";
+                if (new File(filename).exists()) {
+                    files.add(filename);
+                }
+            }
+        }
+        if (files.isEmpty()) {
+            System.out.println("No input files found. Pass file names, or place reddit_comments_YYYY.txt files here.");
+            return;
+        }
+
+        String[] names = {"identity", "spread", "murmur"};
+        for (String filename : files) {
+            ObjectIntCountMap vocabulary = new ObjectIntCountMap();
+            ByteTokenizer.count(filename, vocabulary);
+            ArrayList<String> words = vocabulary.keySet();
+            System.out.println(filename + ": " + words.size() + " unique words");
+
+            for (String name : names) {
+                HashMap<String, Integer> map = new HashMap<>(16, 0.75, false, strategy(name));
+                for (String word : words) {
+                    map.put(word, 1);
+                }
+                int[] histogram = map.chainLengthHistogram();
+                int buckets = 0;
+                for (int count : histogram) {
+                    buckets += count;
+                }
+                System.out.println(String.format("  %-8s capacity: %d, Max Depth: %d, mean non-empty chain: %.3f",
+                        name, buckets, map.maxDepth(), (double) words.size() / (buckets - histogram[0])));
+                System.out.println("           chain lengths (length=buckets): " + formatHistogram(histogram));
+            }
+        }
+    }
+
+    //returns the hash strategy with the given name
+    private static HashMap.HashStrategy<String> strategy(String name) {
+        switch (name) {
+            case "identity":
+                return HashMap.HashStrategy.identity();
+            case "murmur":
+                return HashMap.HashStrategy.murmur();
+            default:
+                return HashMap.HashStrategy.spread();
+        }
+    }
+
+    //formats a histogram as "0=123 1=456 ..."
+    private static String formatHistogram(int[] histogram) {
+        StringBuilder result = new StringBuilder();
+        for (int length = 0; length < histogram.length; length++) {
+            if (length > 0) {
+                result.append(' ');
+            }
+            result.append(length).append('=').append(histogram[length]);
+        }
+        return result.toString();
+    }
+}
@@ -4,6 +4,10 @@
  * This class implements a hash table using separate chaining for collision resolution.
  * Features dynamic resizing to maintain optimal load factor and performance.
  * 
+ * The capacity is always a power of two, so a bucket is picked by masking the low bits
+ * of the key's hash instead of an integer division. The hash code is first run through
+ * a HashStrategy that mixes its high bits into the low ones.
+ * 
  * Time Complexity:
  * - Average case: O(1) for search, insert, delete
  * - Worst case: O(n) when all keys hash to same bucket
@@ -19,6 +23,9 @@
 
 // Import required library
 import java.util.ArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
 
 /**
  * Hash Table implementation using separate chaining for collision resolution.
@@ -64,11 +71,83 @@ public class HashMap<K, V> implements MapSet<K, V> {
         }
     }
 
+
+    /**
+     * Strategy for turning a key into the hash used to pick its bucket.
+     * Only the low bits of the result are used, since the capacity is a power of two,
+     * so a good strategy spreads the entropy of the whole hash code into them.
+     *
+     * @param <K> the type of keys being hashed
+     */
+    public interface HashStrategy<K> {
+
+        /**
+         * Returns the hash of a key.
+         *
+         * @param key the key to hash
+         * @return the hash used to pick the key's bucket
+         */
+        int hash(K key);
+
+        /**
+         * Returns the default strategy: the key's hash code with its high half
+         * XORed into its low half, as java.util.HashMap does.
+         *
+         * @param <K> the type of keys being hashed
+         * @return the spreading strategy
+         */
+        static <K> HashStrategy<K> spread() {
+            return key -> {
+                int h = key.hashCode();
+                return h ^ (h >>> 16);
+            };
+        }
+
+        /**
+         * Returns a strategy that runs the hash code through the MurmurHash3 finalizer,
+         * so every bit of the hash code affects every bit of the result.
+         *
+         * @param <K> the type of keys being hashed
+         * @return the MurmurHash3 mixing strategy
+         */
+        static <K> HashStrategy<K> murmur() {
+            return key -> {
+                int h = key.hashCode();
+                h ^= h >>> 16;
+                h *= 0x85ebca6b;
+                h ^= h >>> 13;
+                h *= 0xc2b2ae35;
+                h ^= h >>> 16;
+                return h;
+            };
+        }
+
+        /**
+         * Returns a strategy that uses the hash code unchanged, so only its low bits
+         * pick the bucket. Useful as a baseline when measuring chain lengths.
+         *
+         * @param <K> the type of keys being hashed
+         * @return the identity strategy
+         */
+        static <K> HashStrategy<K> identity() {
+            return key -> key.hashCode();
+        }
+    }
+
     
     // Instance fields
     private Node<K, V>[] buckets;    // Array of hash table buckets
     private int size;                // Number of key-value pairs
     private double maxLoadFactor;    // Maximum load factor before resizing
+    private int initialCapacity;     // Capacity to return to when cleared, and the smallest it shrinks to
+    private HashStrategy<K> hashStrategy;   // Mixes key hash codes before they are masked
+
+    // Incremental resizing: while oldBuckets is not null, entries are still being
+    // moved from it into buckets, a few buckets per operation
+    private boolean incrementalResize;   // Whether resizes are spread across operations
+    private Node<K, V>[] oldBuckets;     // Buckets of the table being migrated away from, or null
+    private int migrated;                // Number of old buckets already moved
+    private static final int MIGRATE_STEP = 8;   // Old buckets moved per operation
 
     /**
      * Constructs a new HashMap with default initial capacity of 16.
@@ -92,11 +171,46 @@ public class HashMap<K, V> implements MapSet<K, V> {
      * @param initialCapacity the initial capacity of the hash table
      * @param maxLoadFactor the maximum load factor before resizing occurs
      */
-    @SuppressWarnings("unchecked")
     public HashMap(int initialCapacity, double maxLoadFactor) {
-        this.buckets = (Node<K, V>[]) new Node[initialCapacity];
+        this(initialCapacity, maxLoadFactor, false);
+    }
+
+    /**
+     * Constructs a new HashMap with specified initial capacity, load factor and resizing mode.
+     * 
+     * With incremental resizing, a resize only allocates the new bucket array. The old
+     * array is kept alongside it and a bounded number of its buckets are moved on each
+     * later operation, so no single put or remove has to rehash the whole table.
+     * 
+     * @param initialCapacity the initial capacity of the hash table
+     * @param maxLoadFactor the maximum load factor before resizing occurs
+     * @param incrementalResize true to spread each resize across later operations
+     */
+    public HashMap(int initialCapacity, double maxLoadFactor, boolean incrementalResize) {
+        this(initialCapacity, maxLoadFactor, incrementalResize, HashStrategy.spread());
+    }
+
+    /**
+     * Constructs a new HashMap with specified initial capacity, load factor, resizing mode
+     * and hash strategy.
+     * 
+     * @param initialCapacity the initial capacity of the hash table, rounded up to a power of two
+     * @param maxLoadFactor the maximum load factor before resizing occurs
+     * @param incrementalResize true to spread each resize across later operations
+     * @param hashStrategy mixes each key's hash code before its low bits pick a bucket
+     */
+    @SuppressWarnings("unchecked")
+    public HashMap(int initialCapacity, double maxLoadFactor, boolean incrementalResize, HashStrategy<K> hashStrategy) {
+        int capacity = 2;
+        while (capacity < initialCapacity) {
+            capacity *= 2;
+        }
+        this.buckets = (Node<K, V>[]) new Node[capacity];
         this.size = 0;
         this.maxLoadFactor = maxLoadFactor;
+        this.initialCapacity = capacity;
+        this.incrementalResize = incrementalResize;
+        this.hashStrategy = hashStrategy;
     }
 
     //returns the capacity of the hashmap
@@ -106,69 +220,141 @@ public class HashMap<K, V> implements MapSet<K, V> {
 
     //returns the hash value for a given key
     private int hash(K key){
-        return Math.abs(key.hashCode() % capacity());
+        return indexFor(key, capacity());
     }
 
-   
-    //puts a key value pair into the hash map and returns the value 
-    //if the key pair is already in the hashmap, it will return the old value but replace it with the new value 
-    public V put(K key, V value) {
-        int index = hash(key);
+    //returns the bucket index for a key in a table with the given number of buckets, a power of two
+    private int indexFor(K key, int numBuckets){
+        return hashStrategy.hash(key) & (numBuckets - 1);
+    }
 
-        if(buckets[index] == null){
-            buckets[index] = new Node<K, V>(key, value, null);
-        }else{
-            for(Node<K, V> curNode = buckets[index]; curNode!= null; curNode = curNode.next){
-                if(curNode.getKey().equals(key)){
-                    V oldVal = curNode.getValue();
-                    curNode.setValue(value);
-                    return oldVal;
+    /*
+     * returns the node holding key, looking in the old buckets too if a resize is in progress
+     */
+    private Node<K, V> findNode(K key){
+        for(Node<K, V> curNode = buckets[hash(key)]; curNode != null; curNode = curNode.next){
+            if(curNode.getKey().equals(key)){
+                return curNode;
+            }
+        }
+        if(oldBuckets != null){
+            int oldIndex = indexFor(key, oldBuckets.length);
+            if(oldIndex >= migrated){
+                for(Node<K, V> curNode = oldBuckets[oldIndex]; curNode != null; curNode = curNode.next){
+                    if(curNode.getKey().equals(key)){
+                        return curNode;
+                    }
                 }
             }
-            buckets[index] = new Node <K, V> (key, value, buckets[index]);
         }
+        return null;
+    }
+
+    //adds a new key to the front of its bucket and grows the table if needed
+    private void addNode(K key, V value){
+        int index = hash(key);
+        buckets[index] = new Node<K, V>(key, value, buckets[index]);
 
         size++;
         if(size > capacity() * maxLoadFactor){
             resize(capacity() * 2);
         }
+    }
+
+   
+    //puts a key value pair into the hash map and returns the value 
+    //if the key pair is already in the hashmap, it will return the old value but replace it with the new value 
+    public V put(K key, V value) {
+        migrateStep();
+        Node<K, V> curNode = findNode(key);
+        if(curNode != null){
+            V oldVal = curNode.getValue();
+            curNode.setValue(value);
+            return oldVal;
+        }
+        addNode(key, value);
         return null;
     }
 
+    /*
+     * merges a value into the hashmap: if the key is already in its bucket, the old value is replaced with
+     * remappingFunction(old, value), otherwise the key is added with the value. only one bucket scan is needed
+     */
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        migrateStep();
+        Node<K, V> curNode = findNode(key);
+        if(curNode != null){
+            V newVal = remappingFunction.apply(curNode.getValue(), value);
+            curNode.setValue(newVal);
+            return newVal;
+        }
+        addNode(key, value);
+        return value;
+    }
+
 
     /*
      * resizes the HashMap to a newCapacity 
+     * 
+     * nodes are relinked into the new buckets rather than copied. with incremental resizing,
+     * only the new array is allocated here and the nodes are moved by later operations
      */
+    @SuppressWarnings("unchecked")
     private void resize(int newCapacity){
+        finishMigration();
         Node<K, V>[] myBuckets = buckets;
         buckets = (Node<K, V>[]) new Node[newCapacity];
-        size = 0;
-        for(Node<K, V> curNode : myBuckets){
-
-            while(curNode != null){
-                put(curNode.getKey(), curNode.getValue());
-                curNode = curNode.next;
+        if(incrementalResize){
+            oldBuckets = myBuckets;
+            migrated = 0;
+        }else{
+            for(Node<K, V> curNode : myBuckets){
+                moveChain(curNode);
             }
         }
     }
 
+    //relinks every node of a chain into its bucket in the current table
+    private void moveChain(Node<K, V> curNode){
+        while(curNode != null){
+            Node<K, V> next = curNode.next;
+            int index = hash(curNode.getKey());
+            curNode.next = buckets[index];
+            buckets[index] = curNode;
+            curNode = next;
+        }
+    }
+
+    //moves up to MIGRATE_STEP old buckets into the current table, if a resize is in progress
+    private void migrateStep(){
+        if(oldBuckets == null){
+            return;
+        }
+        int stop = Math.min(oldBuckets.length, migrated + MIGRATE_STEP);
+        for(; migrated < stop; migrated++){
+            moveChain(oldBuckets[migrated]);
+            oldBuckets[migrated] = null;
+        }
+        if(migrated == oldBuckets.length){
+            oldBuckets = null;
+        }
+    }
+
+    //moves every remaining old bucket into the current table
+    private void finishMigration(){
+        while(oldBuckets != null){
+            migrateStep();
+        }
+    }
+
     /*
      * checks to see if the hashmap contains a given key
      */
     @Override
     public boolean containsKey(K key) {
-        int index = hash(key);
-
-        if(buckets[index] == null){
-            return false;
-        }else{
-            for(Node<K, V> curNode = buckets[index]; curNode!= null; curNode = curNode.next){
-                if(curNode.getKey().equals(key)){
-                    return true;
-                }
-        }
-        return false;
-    }
+        migrateStep();
+        return findNode(key) != null;
     }
 
     /*
@@ -176,18 +362,9 @@ public class HashMap<K, V> implements MapSet<K, V> {
      */
     @Override
     public V get(K key) {
-        int index = hash(key);
-
-        if(buckets[index] == null){
-            return null;
-        }else{
-            for(Node<K, V> curNode = buckets[index]; curNode!= null; curNode = curNode.next){
-                if(curNode.getKey().equals(key)){
-                    return curNode.getValue();
-                }
-        }
-        return null;
-    }
+        migrateStep();
+        Node<K, V> curNode = findNode(key);
+        return curNode == null ? null : curNode.getValue();
     }
 
     /*
@@ -197,33 +374,82 @@ public class HashMap<K, V> implements MapSet<K, V> {
      */
     @Override
     public V remove(K key) {
-        int index = hash(key);
-
-        if(buckets[index] == null){
+        migrateStep();
+        Node<K, V> removed = removeFromChain(buckets, hash(key), key);
+        if(removed == null && oldBuckets != null){
+            int oldIndex = indexFor(key, oldBuckets.length);
+            if(oldIndex >= migrated){
+                removed = removeFromChain(oldBuckets, oldIndex, key);
+            }
+        }
+        if(removed == null){
             return null;
-        }else{
-            Node <K, V> previousNode = null;
-            Node<K, V> currNode = buckets[index];
-            
+        }
+
+        size--;
+        if(size < .25 * maxLoadFactor * capacity() && capacity() > initialCapacity){
+            resize(capacity() / 2);
+        }
+        return removed.getValue();
+    }
+
+    /*
+     * removes every key value pair that filter accepts and returns how many were removed
+     * 
+     * the chains are pruned in place, and then the table shrinks at most once, straight to
+     * the capacity that removing the keys one at a time would have ended at
+     */
+    @Override
+    public int removeIf(BiPredicate<? super K, ? super V> filter) {
+        finishMigration();
+        int removed = 0;
+        for(int i = 0; i < buckets.length; i++){
+            Node<K, V> previousNode = null;
+            Node<K, V> currNode = buckets[i];
             while(currNode != null){
-                if(currNode.getKey().equals(key)){
+                if(filter.test(currNode.getKey(), currNode.getValue())){
                     if(previousNode == null){
-                        buckets[index] = currNode.next;
+                        buckets[i] = currNode.next;
                     }else{
                         previousNode.next = currNode.next;
                     }
-                    size--;
-                    if(size < .25 * maxLoadFactor * capacity()){
-                        resize(capacity() / 2);
-                    }
-                    return currNode.getValue();
+                    removed++;
+                }else{
+                    previousNode = currNode;
                 }
-                previousNode = currNode;
                 currNode = currNode.next;
             }
-        
-        return null;
         }
+        size -= removed;
+
+        int newCapacity = capacity();
+        while(size < .25 * maxLoadFactor * newCapacity && newCapacity > initialCapacity){
+            newCapacity /= 2;
+        }
+        if(newCapacity != capacity()){
+            resize(newCapacity);
+        }
+        return removed;
+    }
+
+    //unlinks the node holding key from the chain at table[index] and returns it, or null if it is not there
+    private Node<K, V> removeFromChain(Node<K, V>[] table, int index, K key){
+        Node<K, V> previousNode = null;
+        Node<K, V> currNode = table[index];
+
+        while(currNode != null){
+            if(currNode.getKey().equals(key)){
+                if(previousNode == null){
+                    table[index] = currNode.next;
+                }else{
+                    previousNode.next = currNode.next;
+                }
+                return currNode;
+            }
+            previousNode = currNode;
+            currNode = currNode.next;
+        }
+        return null;
     }
 
     /*
@@ -231,6 +457,7 @@ public class HashMap<K, V> implements MapSet<K, V> {
      */
     @Override
     public ArrayList<K> keySet() {
+        finishMigration();
         ArrayList<K> keys = new ArrayList();
         for(Node<K, V> curNode : buckets){
 
@@ -247,6 +474,7 @@ public class HashMap<K, V> implements MapSet<K, V> {
      */
     @Override
     public ArrayList<V> values() {
+        finishMigration();
         ArrayList<V> vals = new ArrayList();
         for(Node<K, V> curNode : buckets){
 
@@ -264,9 +492,7 @@ public class HashMap<K, V> implements MapSet<K, V> {
     @Override
     public ArrayList<MapSet.KeyValuePair<K, V>> entrySet() {
         ArrayList<KeyValuePair<K, V>> myList = new ArrayList();
-        if(buckets == null){
-            return myList;
-        }
+        finishMigration();
 
         for(Node<K, V> curNode : buckets){
             
@@ -278,6 +504,20 @@ public class HashMap<K, V> implements MapSet<K, V> {
         return myList;
     }
 
+    /*
+     * calls action on every key value pair in the hashMap, walking the chains in place
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        finishMigration();
+        for(Node<K, V> curNode : buckets){
+            while(curNode != null){
+                action.accept(curNode.getKey(), curNode.getValue());
+                curNode = curNode.next;
+            }
+        }
+    }
+
     //returns the size of the hashmap
     @Override
     public int size() {
@@ -288,9 +528,11 @@ public class HashMap<K, V> implements MapSet<K, V> {
      * clears the contents of the hashmap
      */
     @Override
+    @SuppressWarnings("unchecked")
     public void clear() {
         size = 0;
-        buckets = null;
+        buckets = (Node<K, V>[]) new Node[initialCapacity];
+        oldBuckets = null;
     }
 
     /*
@@ -298,6 +540,7 @@ public class HashMap<K, V> implements MapSet<K, V> {
      */
     @Override
     public int maxDepth() {
+        finishMigration();
         int maxDepth = 0;
         for(Node<K, V> curNode : buckets){
             int bucketDepth = 0;
@@ -312,10 +555,28 @@ public class HashMap<K, V> implements MapSet<K, V> {
         return maxDepth;
     }
 
+    /*
+     * returns a histogram of bucket lengths: element i is the number of buckets holding exactly i keys.
+     * the last index is the same as maxDepth()
+     */
+    public int[] chainLengthHistogram() {
+        int[] histogram = new int[maxDepth() + 1];
+        for(Node<K, V> curNode : buckets){
+            int bucketDepth = 0;
+            while(curNode != null){
+                bucketDepth++;
+                curNode = curNode.next;
+            }
+            histogram[bucketDepth]++;
+        }
+        return histogram;
+    }
+
     /*
      * returns a string representation of the Hashmap
      */
     public String toString(){
+        finishMigration();
         String result = "{\n";
         boolean isFirst = true;
         int bucketCounter = 1;
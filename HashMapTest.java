@@ -14,6 +14,8 @@
  */
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Comprehensive test suite for HashMap implementation.
@@ -32,6 +34,12 @@ public class HashMapTest {
         testClear();
         testMaxDepth();
         testToString();
+        testMerge();
+        testIncrementalResize();
+        testPutAfterClear();
+        testHashStrategies();
+        testForEach();
+        testRemoveIf();
         System.out.println("All HashMap tests passed!");
     }
 
@@ -93,4 +101,134 @@ public class HashMapTest {
         assert result.contains("banana=2") : "testToString 2 failed";
         assert result.contains("orange=3") : "testToString 3 failed";
     }
+
+    /**
+     * Tests the merge() method functionality.
+     * Verifies that new keys are added and existing values are combined, across resizes.
+     */
+    private static void testMerge() {
+        HashMap<String, Integer> hashMap = new HashMap<>(2);
+        assert hashMap.merge("apple", 1, Integer::sum) == 1 : "testMerge 1 failed";
+        assert hashMap.merge("apple", 1, Integer::sum) == 2 : "testMerge 2 failed";
+        for (int i = 0; i < 100; i++) {
+            hashMap.merge("word" + (i % 10), 1, Integer::sum);
+        }
+        assert hashMap.size() == 11 : "testMerge 3 failed";
+        assert hashMap.get("word3") == 10 : "testMerge 4 failed";
+        assert hashMap.get("apple") == 2 : "testMerge 5 failed";
+    }
+
+    /**
+     * Tests a HashMap with incremental resizing.
+     * Verifies that every key stays reachable while buckets are being migrated.
+     */
+    private static void testIncrementalResize() {
+        HashMap<String, Integer> hashMap = new HashMap<>(4, 0.75, true);
+        for (int i = 0; i < 5000; i++) {
+            hashMap.put("word" + i, i);
+            assert hashMap.get("word" + (i / 2)) == i / 2 : "testIncrementalResize 1 failed at " + i;
+        }
+        assert hashMap.size() == 5000 : "testIncrementalResize 2 failed";
+        for (int i = 0; i < 5000; i += 2) {
+            assert hashMap.remove("word" + i) == i : "testIncrementalResize 3 failed at " + i;
+        }
+        assert hashMap.size() == 2500 : "testIncrementalResize 4 failed";
+        for (int i = 0; i < 5000; i++) {
+            assert hashMap.containsKey("word" + i) == (i % 2 == 1) : "testIncrementalResize 5 failed at " + i;
+        }
+        assert hashMap.keySet().size() == 2500 : "testIncrementalResize 6 failed";
+    }
+
+    /**
+     * Tests that the map can be reused after clear().
+     */
+    private static void testPutAfterClear() {
+        HashMap<String, Integer> hashMap = new HashMap<>();
+        hashMap.put("apple", 1);
+        hashMap.clear();
+        hashMap.put("banana", 2);
+        assert hashMap.get("banana") == 2 : "testPutAfterClear 1 failed";
+        assert hashMap.maxDepth() == 1 : "testPutAfterClear 2 failed";
+    }
+
+    /**
+     * Tests every built-in hash strategy and the chain-length histogram.
+     * Verifies that keys whose hash codes differ only in high bits are still found,
+     * and that removing everything never shrinks the table to zero buckets.
+     */
+    private static void testHashStrategies() {
+        List<HashMap.HashStrategy<Integer>> strategies = Arrays.asList(
+                HashMap.HashStrategy.identity(), HashMap.HashStrategy.spread(), HashMap.HashStrategy.murmur());
+        for (HashMap.HashStrategy<Integer> strategy : strategies) {
+            HashMap<Integer, Integer> hashMap = new HashMap<>(3, 0.75, false, strategy);
+            for (int i = 0; i < 200; i++) {
+                hashMap.put(i << 20, i);
+                hashMap.put(Integer.MIN_VALUE + i, i);
+            }
+            for (int i = 0; i < 200; i++) {
+                assert hashMap.get(i << 20) == i : "testHashStrategies 1 failed at " + i;
+                assert hashMap.get(Integer.MIN_VALUE + i) == i : "testHashStrategies 2 failed at " + i;
+            }
+            int[] histogram = hashMap.chainLengthHistogram();
+            int keys = 0;
+            for (int length = 0; length < histogram.length; length++) {
+                keys += length * histogram[length];
+            }
+            assert keys == 400 : "testHashStrategies 3 failed";
+            assert histogram.length == hashMap.maxDepth() + 1 : "testHashStrategies 4 failed";
+
+            for (int i = 0; i < 200; i++) {
+                hashMap.remove(i << 20);
+                hashMap.remove(Integer.MIN_VALUE + i);
+            }
+            hashMap.put(7, 7);
+            assert hashMap.get(7) == 7 : "testHashStrategies 5 failed";
+        }
+    }
+
+    /**
+     * Tests the forEach() method functionality.
+     * Verifies that every entry is visited in the same order as entrySet().
+     */
+    private static void testForEach() {
+        HashMap<String, Integer> hashMap = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            hashMap.put("word" + i, i);
+        }
+        ArrayList<String> visited = new ArrayList<>();
+        int[] total = new int[1];
+        hashMap.forEach((key, value) -> {
+            visited.add(key);
+            total[0] += value;
+        });
+        assert visited.equals(hashMap.keySet()) : "testForEach 1 failed";
+        assert total[0] == 4950 : "testForEach 2 failed";
+    }
+
+    /**
+     * Tests the removeIf() and removeAll() methods.
+     * Verifies that the right keys are removed and the table shrinks once to a sensible capacity.
+     */
+    private static void testRemoveIf() {
+        HashMap<String, Integer> hashMap = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            hashMap.put("word" + i, i);
+        }
+        int removed = hashMap.removeIf((key, value) -> value % 10 != 0);
+        assert removed == 900 : "testRemoveIf 1 failed";
+        assert hashMap.size() == 100 : "testRemoveIf 2 failed";
+        assert hashMap.get("word10") == 10 : "testRemoveIf 3 failed";
+        assert !hashMap.containsKey("word11") : "testRemoveIf 4 failed";
+        int buckets = 0;
+        for (int count : hashMap.chainLengthHistogram()) {
+            buckets += count;
+        }
+        // 2048 buckets shrink to the first capacity where 100 keys are at least a quarter of the load limit
+        assert buckets == 512 : "testRemoveIf 5 failed, capacity " + buckets;
+
+        assert hashMap.removeAll(Arrays.asList("word0", "word20", "missing")) == 2 : "testRemoveIf 6 failed";
+        assert hashMap.size() == 98 : "testRemoveIf 7 failed";
+        assert hashMap.keySet().size() == 98 : "testRemoveIf 8 failed";
+        assert hashMap.removeIf((key, value) -> false) == 0 : "testRemoveIf 9 failed";
+    }
 }
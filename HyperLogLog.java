@@ -0,0 +1,209 @@
+/**
+ * Estimates the number of distinct words in a stream with HyperLogLog.
+ *
+ * Each word is hashed to 64 bits. The first p bits pick one of 2^p registers, and
+ * the register keeps the longest run of leading zeros seen in the remaining bits.
+ * A long run is unlikely unless many distinct words were seen, so the harmonic mean
+ * of the registers gives the number of distinct words. Counting the same word again
+ * changes nothing, so memory is 2^p bytes however large the file or its vocabulary.
+ *
+ * The standard error is 1.04 / sqrt(2^p): about 0.8% for the default of 2^14
+ * registers (16 KB). Small counts are estimated from the number of empty registers
+ * instead, which is more accurate while many registers are still empty.
+ *
+ * Words are hashed by their UTF-8 bytes, so words added as Strings and tokens read
+ * straight from a UTF-8 file are hashed the same way.
+ *
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ *
+ * Compilation: javac HyperLogLog.java
+ */
+
+// Import required libraries
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Fixed-memory estimator of the number of distinct words.
+ */
+public class HyperLogLog implements ByteTokenizer.TokenSink {
+
+    // Number of index bits used when none is given: 16 KB of registers, 0.8% error
+    public static final int DEFAULT_PRECISION = 14;
+
+    // Instance fields
+    private final byte[] registers;   // Longest run of leading zeros + 1 seen by each register
+    private final int precision;      // Number of hash bits that pick a register
+
+    /**
+     * Constructs an empty estimator with 2^14 registers.
+     */
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Constructs an empty estimator with 2^precision registers.
+     *
+     * @param precision the number of hash bits that pick a register, from 4 to 18
+     */
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("Precision must be between 4 and 18: " + precision);
+        }
+        this.precision = precision;
+        registers = new byte[1 << precision];
+    }
+
+    /**
+     * Reads every word of a file into a new estimator. The words are hashed straight
+     * from the mapped file without being decoded, so this is much cheaper than counting.
+     *
+     * @param filename  the file to read
+     * @param precision the number of hash bits that pick a register, from 4 to 18
+     * @return an estimator holding every distinct word of the file
+     * @throws IOException if the file cannot be read
+     */
+    public static HyperLogLog fromFile(String filename, int precision) throws IOException {
+        HyperLogLog estimator = new HyperLogLog(precision);
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            ByteTokenizer.count(channel, 0, channel.size(), estimator);
+        }
+        return estimator;
+    }
+
+    /**
+     * Reads every word of a file into a new estimator with 2^14 registers.
+     *
+     * @param filename the file to read
+     * @return an estimator holding every distinct word of the file
+     * @throws IOException if the file cannot be read
+     */
+    public static HyperLogLog fromFile(String filename) throws IOException {
+        return fromFile(filename, DEFAULT_PRECISION);
+    }
+
+    /**
+     * Adds a word to the estimator.
+     *
+     * @param word the word to add
+     */
+    public void add(String word) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c >= 0x80) {
+                // outside ASCII a char is not a byte, so hash the UTF-8 encoding instead
+                addBytes(word.getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            h = (h ^ c) * 0x100000001b3L;
+        }
+        addHash(h);
+    }
+
+    //adds a word given as its UTF-8 bytes
+    private void addBytes(byte[] bytes) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            h = (h ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        addHash(h);
+    }
+
+    //adds a token read by ByteTokenizer, hashing its bytes in the mapped file
+    @Override
+    public void token(MappedByteBuffer buffer, int offset, int length, int hash) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = offset; i < offset + length; i++) {
+            h = (h ^ (buffer.get(i) & 0xff)) * 0x100000001b3L;
+        }
+        addHash(h);
+    }
+
+    /*
+     * mixes an FNV-1a hash so every bit depends on every byte, then updates the register
+     * picked by its top bits with the number of leading zeros in the rest
+     */
+    private void addHash(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        int index = (int) (h >>> (64 - precision));
+        // the marker bit caps the run so it never reads past the hash
+        int rank = Long.numberOfLeadingZeros((h << precision) | (1L << (precision - 1))) + 1;
+        if (registers[index] < rank) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    /**
+     * Returns the estimated number of distinct words added so far.
+     *
+     * @return the estimated number of distinct words
+     */
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int empty = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                empty++;
+            }
+        }
+        double alpha = m == 16 ? 0.673 : m == 32 ? 0.697 : m == 64 ? 0.709 : 0.7213 / (1 + 1.079 / m);
+        double estimate = alpha * m * m / sum;
+        if (estimate <= 2.5 * m && empty > 0) {
+            // linear counting: the share of registers still empty
+            estimate = m * Math.log((double) m / empty);
+        }
+        return Math.round(estimate);
+    }
+
+    //returns the relative standard error of estimate()
+    public double standardError() {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+
+    /**
+     * Adds every word of another estimator with the same precision to this one, so this
+     * estimates the distinct words of both streams together.
+     *
+     * @param other the estimator to merge in
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge precision " + other.precision + " into " + precision);
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (registers[i] < other.registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    //empties the estimator
+    public void clear() {
+        Arrays.fill(registers, (byte) 0);
+    }
+
+    //returns the number of hash bits that pick a register
+    public int precision() {
+        return precision;
+    }
+
+    //returns the estimate and its standard error
+    public String toString() {
+        return "HyperLogLog(~" + estimate() + " distinct, +-" + Math.round(standardError() * 1000) / 10.0 + "%)";
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Unit tests for HyperLogLog implementation.
+ *
+ * Tests the accuracy of the distinct word estimate at small and large counts,
+ * that repeated words are ignored, merging, and reading words from a file.
+ *
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ *
+ * Usage:
+ *   javac HyperLogLogTest.java
+ *   java -ea HyperLogLogTest
+ */
+
+// Import required libraries
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Comprehensive test suite for HyperLogLog implementation.
+ */
+public class HyperLogLogTest {
+
+    /**
+     * Main method to run all test cases.
+     * Uses Java assertions to verify correctness.
+     *
+     * @param args command line arguments (not used)
+     * @throws IOException if the temporary file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        System.out.println("Running HyperLogLog tests...");
+        testSmallCounts();
+        testLargeCounts();
+        testDuplicates();
+        testMerge();
+        testFromFile();
+        System.out.println("All HyperLogLog tests passed!");
+    }
+
+    /**
+     * Tests that small counts, estimated from the empty registers, are almost exact.
+     */
+    private static void testSmallCounts() {
+        HyperLogLog estimator = new HyperLogLog();
+        assert estimator.estimate() == 0 : "testSmallCounts 1 failed";
+        estimator.add("apple");
+        assert estimator.estimate() == 1 : "testSmallCounts 2 failed";
+        for (int i = 0; i < 100; i++) {
+            estimator.add("word" + i);
+        }
+        assert Math.abs(estimator.estimate() - 101) <= 2 : "testSmallCounts 3 failed, " + estimator.estimate();
+    }
+
+    /**
+     * Tests that large counts are estimated within three standard errors, at two precisions.
+     */
+    private static void testLargeCounts() {
+        for (int precision : new int[] {10, 14}) {
+            HyperLogLog estimator = new HyperLogLog(precision);
+            for (int n = 1; n <= 200000; n++) {
+                estimator.add("word" + n);
+                if (n == 5000 || n == 50000 || n == 200000) {
+                    double error = Math.abs(estimator.estimate() - n) / (double) n;
+                    assert error <= 3 * estimator.standardError() : "testLargeCounts failed at " + n + " with precision " + precision + ", " + estimator.estimate();
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that adding the same words again does not change the estimate.
+     */
+    private static void testDuplicates() {
+        HyperLogLog estimator = new HyperLogLog();
+        for (int i = 0; i < 10000; i++) {
+            estimator.add("word" + i);
+        }
+        long once = estimator.estimate();
+        for (int repeat = 0; repeat < 5; repeat++) {
+            for (int i = 0; i < 10000; i++) {
+                estimator.add("word" + i);
+            }
+        }
+        assert estimator.estimate() == once : "testDuplicates 1 failed";
+        estimator.clear();
+        assert estimator.estimate() == 0 : "testDuplicates 2 failed";
+    }
+
+    /**
+     * Tests that merging two estimators estimates the union of their words.
+     */
+    private static void testMerge() {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        HyperLogLog both = new HyperLogLog();
+        for (int i = 0; i < 30000; i++) {
+            first.add("word" + i);
+            both.add("word" + i);
+        }
+        for (int i = 20000; i < 50000; i++) {
+            second.add("word" + i);
+            both.add("word" + i);
+        }
+        first.merge(second);
+        assert first.estimate() == both.estimate() : "testMerge 1 failed";
+
+        boolean thrown = false;
+        try {
+            first.merge(new HyperLogLog(10));
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "testMerge 2 failed";
+    }
+
+    /**
+     * Tests that words read from a file hash the same as the same words added as Strings,
+     * including words outside ASCII and the empty token of a blank line.
+     */
+    private static void testFromFile() throws IOException {
+        File temp = File.createTempFile("hll", ".txt");
+        temp.deleteOnExit();
+        String text = "the caf\u00e9 the \u65e5\u672c\n\nthe end";
+        Files.write(temp.toPath(), text.getBytes(StandardCharsets.UTF_8));
+
+        HyperLogLog fromFile = HyperLogLog.fromFile(temp.getPath());
+        HyperLogLog fromWords = new HyperLogLog();
+        for (String word : new String[] {"the", "caf\u00e9", "\u65e5\u672c", "", "end"}) {
+            fromWords.add(word);
+        }
+        assert fromFile.estimate() == 5 : "testFromFile 1 failed, " + fromFile.estimate();
+        fromWords.merge(fromFile);
+        assert fromWords.estimate() == 5 : "testFromFile 2 failed";
+    }
+}
@@ -11,6 +11,12 @@
  * Original interface design by srtaylor, bmaxwell, mbender
  */
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
 
 /**
  * Map interface for key-value pair data structures.
@@ -93,6 +99,22 @@ public interface MapSet<K, V> {
      */
     public V put(K key, V value);
 
+    /**
+     * If the specified key is not already associated with a value, associates it
+     * with the given value. Otherwise, replaces the associated value with the result
+     * of the given remapping function applied to the old value and the given value.
+     * The key is located only once, unlike a {@code containsKey}, {@code get},
+     * {@code put} sequence.
+     *
+     * @param key               key with which the resulting value is to be associated
+     * @param value             the value to use if there is no existing mapping, and the
+     *                          second argument to the remapping function otherwise
+     * @param remappingFunction the function to recompute a value if present; must not
+     *                          return {@code null}
+     * @return the new value associated with the specified key
+     */
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction);
+
     /**
      * Returns {@code true} if this map contains a mapping for the
      * specified key to a value.
@@ -125,6 +147,29 @@ public interface MapSet<K, V> {
      */
     public V remove(K key);
 
+    /**
+     * Removes all of the mappings that satisfy the given predicate. Structural
+     * maintenance (resizing or rebalancing) is done once at the end rather than
+     * after every removal, so removing many keys takes linear time.
+     * The predicate must not modify the map.
+     *
+     * @param filter a predicate which returns {@code true} for mappings to be removed
+     * @return the number of mappings removed
+     */
+    public int removeIf(BiPredicate<? super K, ? super V> filter);
+
+    /**
+     * Removes the mappings for all of the keys in the specified collection that
+     * are present in this map, in a single bulk pass.
+     *
+     * @param keys the keys whose mappings are to be removed from the map
+     * @return the number of mappings removed
+     */
+    public default int removeAll(Collection<? extends K> keys) {
+        Set<?> toRemove = (keys instanceof Set) ? (Set<?>) keys : new HashSet<>(keys);
+        return removeIf((key, value) -> toRemove.contains(key));
+    }
+
     /**
      * Returns an ArrayList of all the keys in the map.
      * 
@@ -150,6 +195,15 @@ public interface MapSet<K, V> {
      */
     public ArrayList<KeyValuePair<K, V>> entrySet();
 
+    /**
+     * Performs the given action for each entry in this map, in the same order as
+     * the keys are returned by keySet(), without building a list of the entries.
+     * The action must not modify the map.
+     *
+     * @param action the action to be performed for each key and value
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action);
+
     /**
      * Returns the number of key-value mappings in this map.
      *
@@ -0,0 +1,466 @@
+/**
+ * Microbenchmarks for the MapSet implementations and the WordCounter pipeline.
+ *
+ * dataStructureData.txt was made by timing one buildMap call per year with
+ * System.currentTimeMillis(), so each figure includes JIT compilation, class loading
+ * and whatever the collector happened to do. This harness measures each case the way
+ * JMH would, without needing a build tool: every case runs several untimed warmup
+ * iterations before the timed ones, results are fed into a sink so the JIT cannot
+ * drop the work, and each case reports the mean and spread of its iterations.
+ *
+ * Map operations (put, get, increment, remove, entrySet) are run on every data
+ * structure for several vocabulary sizes, with keys drawn from a Zipfian distribution
+ * the way word frequencies are. The end-to-end cases count a generated Reddit-like
+ * corpus with readWords + buildMap and with countFile. For hashmap, bst, avl and
+ * robinhood, countFile fills ByteTokenizer's on-heap staging table and then copies
+ * each distinct word into the map, so its figure is the whole pipeline and mostly
+ * reflects the staging table, not the structure. All data is generated from a fixed
+ * seed, so no comment files are needed and runs are repeatable.
+ *
+ * Each case reports throughput in operations per second (for entrySet an operation is
+ * one entry copied out, and for the end-to-end cases one word counted) and the bytes
+ * allocated per operation and per second, measured with the JVM's per-thread
+ * allocation counter, plus the number of collections during the timed iterations.
+ *
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ *
+ * Usage:
+ *   javac MapSetBenchmark.java
+ *   java -Xmx4g MapSetBenchmark [quick] [structure ...]
+ *
+ * With no structures, hashmap, bst, avl, intmap, robinhood, trie, offheap and concurrent are all measured.
+ * "quick" runs fewer and smaller iterations, for checking that everything runs.
+ */
+
+// Import required libraries
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Warmed-up throughput and allocation benchmarks for every MapSet backend.
+ */
+public class MapSetBenchmark {
+
+    // Seed of every generated key stream and corpus
+    private static final long SEED = 2023;
+
+    // Zipf exponents measured; 1.0 is close to English word frequencies, 0 is uniform
+    private static final double[] SKEWS = {1.0, 0.0};
+
+    // Results of the benchmarked calls are mixed in here so they cannot be optimized away
+    private static long sink;
+
+    // Per-thread allocation counter, or null if this JVM does not provide one
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+    /**
+     * One benchmarked operation. run performs the timed work on state prepared by setup
+     * and returns the number of operations it did.
+     */
+    private interface Case {
+        //prepares the state for one iteration; not timed
+        void setup();
+
+        //does the timed work and returns the number of operations performed
+        long run() throws IOException;
+    }
+
+    // Instance fields
+    private int warmupIterations;    // Untimed iterations before measuring
+    private int measuredIterations;  // Timed iterations per case
+
+    /**
+     * Constructs a benchmark runner.
+     *
+     * @param warmupIterations   the number of untimed iterations run first
+     * @param measuredIterations the number of timed iterations per case
+     */
+    public MapSetBenchmark(int warmupIterations, int measuredIterations) {
+        this.warmupIterations = warmupIterations;
+        this.measuredIterations = measuredIterations;
+    }
+
+    //returns the JVM's per-thread allocation counter, or null if it is not available
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) bean;
+            if (counter.isThreadAllocatedMemorySupported()) {
+                counter.setThreadAllocatedMemoryEnabled(true);
+                return counter;
+            }
+        }
+        return null;
+    }
+
+    //returns the bytes allocated so far by this thread, or -1 if that cannot be measured
+    private static long allocatedBytes() {
+        return THREADS == null ? -1 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    //returns the number of collections so far, summed over every collector
+    private static long collections() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+        return total;
+    }
+
+    /**
+     * Returns the word of a vocabulary rank. Every rank gets a distinct lowercase word,
+     * and the most frequent ranks get the shortest words, as in real text. The letters
+     * are written least significant first, so words of neighbouring ranks do not share
+     * a prefix and the trees see keys in no particular order.
+     *
+     * @param rank the rank of the word, 0 for the most frequent
+     * @return the word for that rank
+     */
+    static String word(int rank) {
+        StringBuilder sb = new StringBuilder(6);
+        // bijective base 26, so no two ranks give the same word
+        for (int n = rank + 1; n > 0; n = (n - 1) / 26) {
+            sb.append((char) ('a' + (n - 1) % 26));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the cumulative distribution of a Zipf distribution over the given number of
+     * ranks, where rank r has weight 1 / (r + 1)^skew.
+     *
+     * @param vocabulary the number of ranks
+     * @param skew       the Zipf exponent; 0 gives a uniform distribution
+     * @return cdf[r] = probability of a rank at most r
+     */
+    static double[] zipfCdf(int vocabulary, double skew) {
+        double[] cdf = new double[vocabulary];
+        double total = 0;
+        for (int r = 0; r < vocabulary; r++) {
+            total += 1 / Math.pow(r + 1, skew);
+            cdf[r] = total;
+        }
+        for (int r = 0; r < vocabulary; r++) {
+            cdf[r] /= total;
+        }
+        return cdf;
+    }
+
+    //draws a rank from a Zipf distribution given its cumulative distribution
+    private static int sample(double[] cdf, SplittableRandom random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cdf.length - 1);
+    }
+
+    /**
+     * Returns a stream of keys drawn from a Zipf distribution over the vocabulary. The same
+     * String instance is used for every occurrence of a word, as the tokenizer makes a word's
+     * String once; equal keys therefore still have to be found by hash or comparison.
+     *
+     * @param vocabulary the words, most frequent first
+     * @param skew       the Zipf exponent
+     * @param length     the number of keys to draw
+     * @return the key stream
+     */
+    static String[] zipfKeys(String[] vocabulary, double skew, int length) {
+        double[] cdf = zipfCdf(vocabulary.length, skew);
+        SplittableRandom random = new SplittableRandom(SEED);
+        String[] keys = new String[length];
+        for (int i = 0; i < length; i++) {
+            keys[i] = vocabulary[sample(cdf, random)];
+        }
+        return keys;
+    }
+
+    /**
+     * Writes a Reddit-like corpus: lines of Zipf-distributed words, some capitalized and some
+     * followed by punctuation, separated by single or repeated whitespace.
+     *
+     * @param filename   the file to write
+     * @param words      the number of words to write
+     * @param vocabulary the number of distinct base words
+     * @throws IOException if the file cannot be written
+     */
+    static void writeCorpus(String filename, int words, int vocabulary) throws IOException {
+        double[] cdf = zipfCdf(vocabulary, 1.0);
+        SplittableRandom random = new SplittableRandom(SEED);
+        String[] punctuation = {",", ".", "?", "!", "'s", ":)"};
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(filename), 1 << 16)) {
+            int onLine = 0;
+            for (int i = 0; i < words; i++) {
+                String word = word(sample(cdf, random));
+                int style = random.nextInt(100);
+                if (style < 8) {
+                    word = Character.toUpperCase(word.charAt(0)) + word.substring(1);
+                } else if (style < 14) {
+                    word = word + punctuation[random.nextInt(punctuation.length)];
+                }
+                bw.write(word);
+                // comments are a few dozen words long
+                if (++onLine >= 5 + random.nextInt(60)) {
+                    bw.newLine();
+                    onLine = 0;
+                } else {
+                    bw.write(random.nextInt(20) == 0 ? "  " : " ");
+                }
+            }
+            bw.newLine();
+        }
+    }
+
+    //returns an empty data structure of the given type, as WordCounter makes it
+    private static MapSet<String, Integer> newMap(String structure) {
+        return new WordCounter(structure).myMapSet;
+    }
+
+    /**
+     * Runs one case: warmup iterations, then timed iterations, and prints a line with the
+     * mean throughput, its relative standard deviation and the allocation rate.
+     *
+     * @param label     what is being measured
+     * @param benchmark the case to run
+     * @throws IOException if the case reads or writes a file that fails
+     */
+    public void measure(String label, Case benchmark) throws IOException {
+        for (int i = 0; i < warmupIterations; i++) {
+            benchmark.setup();
+            benchmark.run();
+        }
+
+        double[] rates = new double[measuredIterations];
+        long operations = 0;
+        long bytes = 0;
+        long nanos = 0;
+        long gcBefore = collections();
+        for (int i = 0; i < measuredIterations; i++) {
+            benchmark.setup();
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            long done = benchmark.run();
+            long elapsed = System.nanoTime() - start;
+            long allocatedAfter = allocatedBytes();
+            rates[i] = done * 1e9 / elapsed;
+            operations += done;
+            nanos += elapsed;
+            bytes += allocatedAfter - allocatedBefore;
+        }
+        long gcs = collections() - gcBefore;
+
+        double mean = 0;
+        for (double rate : rates) {
+            mean += rate;
+        }
+        mean /= rates.length;
+        double variance = 0;
+        for (double rate : rates) {
+            variance += (rate - mean) * (rate - mean);
+        }
+        double deviation = rates.length > 1 ? Math.sqrt(variance / (rates.length - 1)) : 0;
+
+        String allocation = THREADS == null ? "allocation n/a"
+                : String.format("%8.1f B/op %9.1f MB/s", (double) bytes / operations, bytes * 1e9 / nanos / (1 << 20));
+        System.out.println(String.format("  %-44s %,14.0f ops/s +-%5.1f%%  %s  %d GCs",
+                label, mean, 100 * deviation / mean, allocation, gcs));
+    }
+
+    /**
+     * Measures put, get, increment, remove and entrySet on one data structure.
+     *
+     * @param structure  the data structure, as for the WordCounter constructor
+     * @param vocabulary the words, most frequent first
+     * @param skew       the Zipf exponent of the key stream
+     * @param streamSize the number of keys in the stream used by put, get and increment
+     * @throws IOException never; map cases do no I/O
+     */
+    public void measureMap(String structure, String[] vocabulary, double skew, int streamSize) throws IOException {
+        String[] keys = zipfKeys(vocabulary, skew, streamSize);
+        String prefix = String.format("%-9s vocab=%-8d zipf=%.1f ", structure, vocabulary.length, skew);
+
+        // a full map, for the cases that read or remove; remove refills its own
+        MapSet<String, Integer> full = newMap(structure);
+        for (String word : vocabulary) {
+            full.put(word, 1);
+        }
+        String[] shuffled = vocabulary.clone();
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = shuffled.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            String swap = shuffled[i];
+            shuffled[i] = shuffled[j];
+            shuffled[j] = swap;
+        }
+        List<MapSet<String, Integer>> state = new ArrayList<>(1);
+        state.add(null);
+
+        measure(prefix + "put", new Case() {
+            public void setup() {
+                state.set(0, newMap(structure));
+            }
+
+            public long run() {
+                MapSet<String, Integer> map = state.get(0);
+                Integer one = 1;
+                for (String key : keys) {
+                    map.put(key, one);
+                }
+                sink += map.size();
+                return keys.length;
+            }
+        });
+
+        measure(prefix + "get", new Case() {
+            public void setup() {
+            }
+
+            public long run() {
+                long found = 0;
+                for (String key : keys) {
+                    found += full.get(key);
+                }
+                sink += found;
+                return keys.length;
+            }
+        });
+
+        measure(prefix + "increment", new Case() {
+            public void setup() {
+                state.set(0, newMap(structure));
+            }
+
+            public long run() {
+                MapSet<String, Integer> map = state.get(0);
+                for (String key : keys) {
+                    map.merge(key, 1, Integer::sum);
+                }
+                sink += map.size();
+                return keys.length;
+            }
+        });
+
+        measure(prefix + "remove", new Case() {
+            public void setup() {
+                MapSet<String, Integer> map = newMap(structure);
+                for (String word : vocabulary) {
+                    map.put(word, 1);
+                }
+                state.set(0, map);
+            }
+
+            public long run() {
+                MapSet<String, Integer> map = state.get(0);
+                long removed = 0;
+                for (String word : shuffled) {
+                    removed += map.remove(word);
+                }
+                sink += removed;
+                return shuffled.length;
+            }
+        });
+
+        int passes = Math.max(1, streamSize / vocabulary.length);
+        measure(prefix + "entrySet", new Case() {
+            public void setup() {
+            }
+
+            public long run() {
+                long total = 0;
+                for (int i = 0; i < passes; i++) {
+                    ArrayList<MapSet.KeyValuePair<String, Integer>> entries = full.entrySet();
+                    total += entries.size() + entries.get(i % entries.size()).getValue();
+                }
+                sink += total;
+                return (long) passes * vocabulary.length;
+            }
+        });
+    }
+
+    /**
+     * Measures counting a corpus file end to end, with readWords + buildMap and with countFile.
+     * Only the readWords + buildMap case times the structure's own inserts; countFile on a
+     * non-counting backend also includes the staging table and the copy out of it.
+     *
+     * @param structure the data structure, as for the WordCounter constructor
+     * @param corpus    the corpus file
+     * @param words     the number of words in the corpus
+     * @throws IOException if the corpus cannot be read
+     */
+    public void measureCorpus(String structure, String corpus, int words) throws IOException {
+        String prefix = String.format("%-9s corpus=%-7d ", structure, words);
+
+        measure(prefix + "readWords+buildMap", new Case() {
+            public void setup() {
+            }
+
+            public long run() throws IOException {
+                WordCounter counter = new WordCounter(structure);
+                counter.buildMap(counter.readWords(corpus));
+                sink += counter.uniqueWordCount();
+                return counter.totalWordCount();
+            }
+        });
+
+        measure(prefix + "countFile", new Case() {
+            public void setup() {
+            }
+
+            public long run() throws IOException {
+                WordCounter counter = new WordCounter(structure);
+                counter.countFile(corpus);
+                sink += counter.uniqueWordCount();
+                return counter.totalWordCount();
+            }
+        });
+    }
+
+    /**
+     * Runs every benchmark on the given data structures.
+     *
+     * @param args "quick" for a short run, then the data structures to measure
+     * @throws IOException if the generated corpus cannot be written or read
+     */
+    public static void main(String[] args) throws IOException {
+        List<String> structures = new ArrayList<>(Arrays.asList(args));
+        boolean quick = structures.remove("quick");
+        if (structures.isEmpty()) {
+            structures.addAll(Arrays.asList("hashmap", "bst", "avl", "intmap", "robinhood", "trie", "offheap", "concurrent"));
+        }
+
+        int[] vocabularySizes = quick ? new int[] {1_000, 50_000} : new int[] {1_000, 100_000, 1_000_000};
+        int streamSize = quick ? 200_000 : 2_000_000;
+        int corpusWords = quick ? 200_000 : 5_000_000;
+        MapSetBenchmark benchmark = quick ? new MapSetBenchmark(2, 3) : new MapSetBenchmark(5, 10);
+
+        System.out.println("MapSet operations (" + streamSize + " keys per iteration; "
+                + benchmark.warmupIterations + " warmup, " + benchmark.measuredIterations + " measured iterations)");
+        for (int size : vocabularySizes) {
+            String[] vocabulary = new String[size];
+            for (int r = 0; r < size; r++) {
+                vocabulary[r] = word(r);
+            }
+            for (double skew : SKEWS) {
+                for (String structure : structures) {
+                    benchmark.measureMap(structure, vocabulary, skew, streamSize);
+                }
+            }
+        }
+
+        File corpus = File.createTempFile("reddit_comments_synthetic", ".txt");
+        corpus.deleteOnExit();
+        writeCorpus(corpus.getPath(), corpusWords, quick ? 50_000 : 500_000);
+        System.out.println("End-to-end counting (" + corpusWords + " word synthetic corpus)");
+        for (String structure : structures) {
+            benchmark.measureCorpus(structure, corpus.getPath(), corpusWords);
+        }
+        System.out.println("(checksum " + sink + ")");
+    }
+}
@@ -0,0 +1,399 @@
+/**
+ * Primitive-specialized String to int counting map implementing the MapSet interface.
+ *
+ * This class stores words and their counts in parallel arrays using open addressing
+ * with linear probing, instead of allocating a Node and a boxed Integer per entry.
+ * Each slot also caches the key's hash code so probing and resizing rarely need to
+ * call equals or hashCode.
+ *
+ * Counts are only boxed when read back through the MapSet interface; the counting
+ * path (increment and add) works entirely on primitive ints.
+ *
+ * Time Complexity:
+ * - Average case: O(1) for search, insert, delete
+ * - Worst case: O(n) when all keys hash to the same run of slots
+ *
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ *
+ * Compilation: javac ObjectIntCountMap.java
+ */
+
+// Import required libraries
+import java.util.ArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Open-addressing hash table from String keys to primitive int counts.
+ */
+public class ObjectIntCountMap implements CountMap {
+
+    // Instance fields
+    private String[] keys;           // Keys, or null for an empty slot
+    private int[] counts;            // Count stored for the key in the same slot
+    private int[] hashes;            // Cached spread hash code of the key in the same slot
+    private int size;                // Number of key-value pairs
+    private double maxLoadFactor;    // Maximum load factor before resizing
+    private int initialCapacity;     // Capacity to return to when cleared
+
+    /**
+     * Constructs a new ObjectIntCountMap with default initial capacity of 16.
+     */
+    public ObjectIntCountMap() {
+        this(16);
+    }
+
+    /**
+     * Constructs a new ObjectIntCountMap with the given number of slots.
+     *
+     * @param initialCapacity the number of slots to start with, rounded up to a power of two
+     */
+    public ObjectIntCountMap(int initialCapacity) {
+        this(initialCapacity, 0.6);
+    }
+
+    /**
+     * Constructs a new ObjectIntCountMap with specified initial capacity and load factor.
+     *
+     * @param initialCapacity the number of slots to start with, rounded up to a power of two
+     * @param maxLoadFactor the maximum load factor before resizing occurs, below 1
+     */
+    public ObjectIntCountMap(int initialCapacity, double maxLoadFactor) {
+        int capacity = 2;
+        while (capacity < initialCapacity) {
+            capacity *= 2;
+        }
+        this.initialCapacity = capacity;
+        this.maxLoadFactor = maxLoadFactor;
+        allocate(capacity);
+    }
+
+    //replaces the arrays with empty ones of the given capacity
+    private void allocate(int capacity) {
+        keys = new String[capacity];
+        counts = new int[capacity];
+        hashes = new int[capacity];
+        size = 0;
+    }
+
+    //returns the capacity of the table
+    private int capacity() {
+        return keys.length;
+    }
+
+    /*
+     * spreads the key's hash code over the low bits used to pick a slot. numbers and short
+     * similar words have hash codes in dense runs, which linear probing turns into long
+     * clusters, so the code is scattered by multiplying before the high bits are folded in
+     */
+    private static int hash(String key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /*
+     * returns the slot holding key, or the empty slot where it would be inserted
+     */
+    private int find(String key, int hash) {
+        int mask = capacity() - 1;
+        int index = hash & mask;
+        while (keys[index] != null) {
+            if (hashes[index] == hash && keys[index].equals(key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    //stores a new key in the empty slot at index and grows the table if needed
+    private void insert(int index, String key, int hash, int count) {
+        keys[index] = key;
+        hashes[index] = hash;
+        counts[index] = count;
+        size++;
+        if (size > capacity() * maxLoadFactor) {
+            resize(capacity() * 2);
+        }
+    }
+
+    /*
+     * rehashes every entry into arrays of newCapacity, using the cached hashes
+     */
+    private void resize(int newCapacity) {
+        String[] oldKeys = keys;
+        int[] oldCounts = counts;
+        int[] oldHashes = hashes;
+        keys = new String[newCapacity];
+        counts = new int[newCapacity];
+        hashes = new int[newCapacity];
+
+        int mask = newCapacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int index = oldHashes[i] & mask;
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                counts[index] = oldCounts[i];
+                hashes[index] = oldHashes[i];
+            }
+        }
+    }
+
+    /**
+     * Adds one to the count of key, inserting it with a count of 1 if absent.
+     *
+     * @param key the word to count
+     * @return the new count of key
+     */
+    @Override
+    public int increment(String key) {
+        return add(key, 1);
+    }
+
+    /**
+     * Adds amount to the count of key, inserting it with a count of amount if absent.
+     *
+     * @param key the word to count
+     * @param amount the number to add to the count
+     * @return the new count of key
+     */
+    public int add(String key, int amount) {
+        int hash = hash(key);
+        int index = find(key, hash);
+        if (keys[index] != null) {
+            counts[index] += amount;
+            return counts[index];
+        }
+        insert(index, key, hash, amount);
+        return amount;
+    }
+
+    /**
+     * Returns the count of key, or 0 if the key is not in the map.
+     *
+     * @param key the word to look up
+     * @return the count of key, or 0 if absent
+     */
+    @Override
+    public int getCount(String key) {
+        int index = find(key, hash(key));
+        return keys[index] == null ? 0 : counts[index];
+    }
+
+    //puts a key value pair into the map and returns the old value, or null if the key was not in the map
+    @Override
+    public Integer put(String key, Integer value) {
+        if (value == null) {
+            return null;
+        }
+        int hash = hash(key);
+        int index = find(key, hash);
+        if (keys[index] != null) {
+            int oldVal = counts[index];
+            counts[index] = value;
+            return oldVal;
+        }
+        insert(index, key, hash, value);
+        return null;
+    }
+
+    /*
+     * merges a value into the map with a single probe sequence
+     */
+    @Override
+    public Integer merge(String key, Integer value, BiFunction<? super Integer, ? super Integer, ? extends Integer> remappingFunction) {
+        int hash = hash(key);
+        int index = find(key, hash);
+        if (keys[index] != null) {
+            int newVal = remappingFunction.apply(counts[index], value);
+            counts[index] = newVal;
+            return newVal;
+        }
+        insert(index, key, hash, value);
+        return value;
+    }
+
+    //checks to see if the map contains a given key
+    @Override
+    public boolean containsKey(String key) {
+        return keys[find(key, hash(key))] != null;
+    }
+
+    //gets the value of a given key, returns null if the map doesnt contain the key
+    @Override
+    public Integer get(String key) {
+        int index = find(key, hash(key));
+        return keys[index] == null ? null : counts[index];
+    }
+
+    /*
+     * removes a key from the map and returns its value, or null if the key is not found
+     *
+     * uses backward-shift deletion: entries after the removed slot are moved back
+     * so no tombstones are left behind and later probes stay short
+     */
+    @Override
+    public Integer remove(String key) {
+        int index = find(key, hash(key));
+        if (keys[index] == null) {
+            return null;
+        }
+        int oldVal = counts[index];
+
+        int mask = capacity() - 1;
+        int hole = index;
+        int next = (hole + 1) & mask;
+        while (keys[next] != null) {
+            int home = hashes[next] & mask;
+            // move the entry back if the hole lies between its home slot and its current slot
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                counts[hole] = counts[next];
+                hashes[hole] = hashes[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = null;
+        counts[hole] = 0;
+        hashes[hole] = 0;
+        size--;
+        return oldVal;
+    }
+
+    /*
+     * removes every key value pair that filter accepts and returns how many were removed
+     * 
+     * matching slots are emptied in one sweep and the survivors are rehashed once, which
+     * closes the gaps left in the probe runs without shifting entries after every removal
+     */
+    @Override
+    public int removeIf(BiPredicate<? super String, ? super Integer> filter) {
+        int removed = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && filter.test(keys[i], counts[i])) {
+                keys[i] = null;
+                counts[i] = 0;
+                hashes[i] = 0;
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            size -= removed;
+            resize(capacity());
+        }
+        return removed;
+    }
+
+    //returns an arraylist of the keys in the map
+    @Override
+    public ArrayList<String> keySet() {
+        ArrayList<String> result = new ArrayList<>(size);
+        for (String key : keys) {
+            if (key != null) {
+                result.add(key);
+            }
+        }
+        return result;
+    }
+
+    //returns an arraylist of the values in the map, in the same order as keySet
+    @Override
+    public ArrayList<Integer> values() {
+        ArrayList<Integer> result = new ArrayList<>(size);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                result.add(counts[i]);
+            }
+        }
+        return result;
+    }
+
+    //returns an arraylist of the key value pairs in the map, in the same order as keySet
+    @Override
+    public ArrayList<MapSet.KeyValuePair<String, Integer>> entrySet() {
+        ArrayList<MapSet.KeyValuePair<String, Integer>> result = new ArrayList<>(size);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                result.add(new KeyValuePair<>(keys[i], counts[i]));
+            }
+        }
+        return result;
+    }
+
+    //calls action on every key value pair in the map, in the same order as keySet
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Integer> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                action.accept(keys[i], counts[i]);
+            }
+        }
+    }
+
+    /**
+     * Calls action on every word and its count without boxing the counts.
+     *
+     * @param action the action to be performed for each word and count
+     */
+    public void forEachCount(ObjIntConsumer<String> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                action.accept(keys[i], counts[i]);
+            }
+        }
+    }
+
+    //returns the number of keys in the map
+    @Override
+    public int size() {
+        return size;
+    }
+
+    //clears the contents of the map
+    @Override
+    public void clear() {
+        allocate(initialCapacity);
+    }
+
+    /*
+     * returns the maxDepth of the map - the longest probe sequence needed to find any key
+     */
+    @Override
+    public int maxDepth() {
+        int mask = capacity() - 1;
+        int maxDepth = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                int depth = ((i - (hashes[i] & mask)) & mask) + 1;
+                if (depth > maxDepth) {
+                    maxDepth = depth;
+                }
+            }
+        }
+        return maxDepth;
+    }
+
+    //returns a string representation of the map
+    public String toString() {
+        StringBuilder result = new StringBuilder("{");
+        boolean isFirst = true;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                if (!isFirst) {
+                    result.append(", ");
+                }
+                isFirst = false;
+                result.append(keys[i]).append('=').append(counts[i]);
+            }
+        }
+        return result.append('}').toString();
+    }
+}
@@ -0,0 +1,189 @@
+/**
+ * Unit tests for ObjectIntCountMap implementation.
+ * 
+ * Tests all major functionality of the primitive counting map
+ * including counting, insertion, deletion, searching, and utility methods.
+ * 
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ * 
+ * Usage:
+ *   javac ObjectIntCountMapTest.java
+ *   java -ea ObjectIntCountMapTest
+ */
+
+// Import required libraries
+import java.util.ArrayList;
+
+/**
+ * Comprehensive test suite for ObjectIntCountMap implementation.
+ */
+public class ObjectIntCountMapTest {
+
+    /**
+     * Main method to run all test cases.
+     * Uses Java assertions to verify correctness.
+     * 
+     * @param args command line arguments (not used)
+     */
+    public static void main(String[] args) {
+        System.out.println("Running ObjectIntCountMap tests...");
+        testIncrement();
+        testPutAndGet();
+        testRemove();
+        testResize();
+        testClear();
+        testMaxDepth();
+        testForEach();
+        testRemoveIf();
+        System.out.println("All ObjectIntCountMap tests passed!");
+    }
+
+    /**
+     * Tests the increment() and add() methods.
+     * Verifies that counts start at the added amount and accumulate.
+     */
+    private static void testIncrement() {
+        ObjectIntCountMap map = new ObjectIntCountMap();
+        assert map.increment("apple") == 1 : "testIncrement 1 failed";
+        assert map.increment("apple") == 2 : "testIncrement 2 failed";
+        assert map.add("banana", 5) == 5 : "testIncrement 3 failed";
+        assert map.add("banana", 5) == 10 : "testIncrement 4 failed";
+        assert map.getCount("apple") == 2 : "testIncrement 5 failed";
+        assert map.getCount("pear") == 0 : "testIncrement 6 failed";
+        assert map.size() == 2 : "testIncrement 7 failed";
+    }
+
+    /**
+     * Tests the MapSet put(), get(), containsKey() and merge() methods.
+     * Verifies that the boxed interface sees the same counts.
+     */
+    private static void testPutAndGet() {
+        ObjectIntCountMap map = new ObjectIntCountMap();
+        assert map.put("apple", 1) == null : "testPutAndGet 1 failed";
+        assert map.put("apple", 4) == 1 : "testPutAndGet 2 failed";
+        assert map.get("apple") == 4 : "testPutAndGet 3 failed";
+        assert map.get("pear") == null : "testPutAndGet 4 failed";
+        assert map.containsKey("apple") : "testPutAndGet 5 failed";
+        assert !map.containsKey("pear") : "testPutAndGet 6 failed";
+        assert map.merge("apple", 2, Integer::sum) == 6 : "testPutAndGet 7 failed";
+        assert map.merge("pear", 2, Integer::sum) == 2 : "testPutAndGet 8 failed";
+    }
+
+    /**
+     * Tests the remove() method.
+     * Verifies that keys probed past a removed slot can still be found.
+     */
+    private static void testRemove() {
+        ObjectIntCountMap map = new ObjectIntCountMap(1024);
+        for (int i = 0; i < 500; i++) {
+            map.add("word" + i, i);
+        }
+        for (int i = 0; i < 500; i += 2) {
+            assert map.remove("word" + i) == i : "testRemove 1 failed for word" + i;
+        }
+        assert map.remove("word0") == null : "testRemove 2 failed";
+        assert map.size() == 250 : "testRemove 3 failed";
+        for (int i = 1; i < 500; i += 2) {
+            assert map.getCount("word" + i) == i : "testRemove 4 failed for word" + i;
+        }
+    }
+
+    /**
+     * Tests growing the table past its initial capacity.
+     * Verifies that every count survives the rehash.
+     */
+    private static void testResize() {
+        ObjectIntCountMap map = new ObjectIntCountMap(2);
+        for (int i = 0; i < 10000; i++) {
+            map.increment("word" + (i % 1000));
+        }
+        assert map.size() == 1000 : "testResize 1 failed";
+        assert map.keySet().size() == 1000 : "testResize 2 failed";
+        for (int i = 0; i < 1000; i++) {
+            assert map.getCount("word" + i) == 10 : "testResize 3 failed for word" + i;
+        }
+    }
+
+    /**
+     * Tests the clear() method.
+     * Verifies that all entries are removed and the map is usable afterwards.
+     */
+    private static void testClear() {
+        ObjectIntCountMap map = new ObjectIntCountMap();
+        map.increment("apple");
+        map.increment("banana");
+        map.clear();
+        assert map.size() == 0 : "testClear 1 failed";
+        assert map.entrySet().isEmpty() : "testClear 2 failed";
+        map.increment("apple");
+        assert map.getCount("apple") == 1 : "testClear 3 failed";
+    }
+
+    /**
+     * Tests the maxDepth() method.
+     * Verifies that probe lengths are reported for an empty and a filled map,
+     * and stay short for dense numeric keys.
+     */
+    private static void testMaxDepth() {
+        ObjectIntCountMap map = new ObjectIntCountMap();
+        assert map.maxDepth() == 0 : "testMaxDepth 1 failed";
+        map.increment("apple");
+        assert map.maxDepth() == 1 : "testMaxDepth 2 failed";
+        for (int i = 0; i < 100; i++) {
+            map.increment("word" + i);
+        }
+        assert map.maxDepth() >= 1 : "testMaxDepth 3 failed";
+
+        // numbers have hash codes in one dense run, which must not become one long cluster
+        ObjectIntCountMap numbers = new ObjectIntCountMap();
+        for (int i = 0; i < 400000; i++) {
+            numbers.increment(Integer.toString(i));
+        }
+        assert numbers.maxDepth() <= 64 : "testMaxDepth 4 failed, " + numbers.maxDepth();
+    }
+
+    /**
+     * Tests the forEach() and forEachCount() methods.
+     * Verifies that both visit every word with its count in keySet order.
+     */
+    private static void testForEach() {
+        ObjectIntCountMap map = new ObjectIntCountMap();
+        for (int i = 0; i < 50; i++) {
+            map.add("word" + i, i);
+        }
+        ArrayList<String> boxed = new ArrayList<>();
+        ArrayList<String> unboxed = new ArrayList<>();
+        int[] total = new int[1];
+        map.forEach((word, count) -> boxed.add(word));
+        map.forEachCount((word, count) -> {
+            unboxed.add(word);
+            total[0] += count;
+        });
+        assert boxed.equals(map.keySet()) : "testForEach 1 failed";
+        assert unboxed.equals(boxed) : "testForEach 2 failed";
+        assert total[0] == 1225 : "testForEach 3 failed";
+    }
+
+    /**
+     * Tests the removeIf() and removeAll() methods.
+     * Verifies that every remaining key can still be found after the survivors are rehashed.
+     */
+    private static void testRemoveIf() {
+        ObjectIntCountMap map = new ObjectIntCountMap();
+        for (int i = 0; i < 1000; i++) {
+            map.add("word" + i, i);
+        }
+        assert map.removeIf((key, count) -> count < 600) == 600 : "testRemoveIf 1 failed";
+        assert map.size() == 400 : "testRemoveIf 2 failed";
+        for (int i = 0; i < 1000; i++) {
+            assert map.getCount("word" + i) == (i < 600 ? 0 : i) : "testRemoveIf 3 failed at " + i;
+        }
+        ArrayList<String> gone = new ArrayList<>();
+        gone.add("word600");
+        gone.add("word1");
+        assert map.removeAll(gone) == 1 : "testRemoveIf 4 failed";
+        assert map.keySet().size() == 399 : "testRemoveIf 5 failed";
+    }
+}
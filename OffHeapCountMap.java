@@ -0,0 +1,551 @@
+/**
+ * String to int counting map that keeps the bytes of its keys outside the Java heap.
+ *
+ * With millions of distinct words, most of the heap used by the other maps is String
+ * objects: an object header, a hash field and a byte[] per word, plus the Node and
+ * boxed Integer that point at them. Every one of those objects is traced by the
+ * garbage collector on every full collection.
+ *
+ * This map copies the UTF-8 bytes of each key into an arena of direct ByteBuffers,
+ * which live outside the heap, and refers to a key by its address in the arena.
+ * The table itself is a handful of primitive arrays (address, length, cached hash
+ * and count per slot) using open addressing with linear probing, so the heap holds
+ * a few large arrays however many words are stored, and the collector has no
+ * per-word objects to trace.
+ *
+ * Keys are turned back into Strings only when they are read out through keySet,
+ * entrySet or forEach. A lookup with an ASCII key compares its characters straight
+ * against the arena bytes and uses the String's cached hash code, so it allocates
+ * nothing.
+ *
+ * Removing a key does not free its bytes in the arena; removeIf and clear do, by
+ * copying the surviving keys into a fresh arena.
+ *
+ * Time Complexity:
+ * - Average case: O(1) for search, insert, delete
+ * - Worst case: O(n) when all keys hash to the same run of slots
+ *
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ *
+ * Compilation: javac OffHeapCountMap.java
+ */
+
+// Import required libraries
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Open-addressing hash table from off-heap String keys to primitive int counts.
+ */
+public class OffHeapCountMap implements CountMap {
+
+    // Size of each arena chunk; a longer key gets a chunk of its own
+    private static final int CHUNK_SIZE = 1 << 22;
+
+    // Instance fields
+    private ArrayList<ByteBuffer> chunks;    // Direct buffers holding the key bytes
+    private int chunkUsed;           // Bytes used in the last chunk
+    private long arenaBytes;         // Bytes reserved by every chunk together
+    private long[] addresses;        // Arena address of the key in each slot, or 0 for an empty slot
+    private int[] lengths;           // UTF-8 length of the key in the same slot
+    private int[] hashes;            // Cached spread hash code of the key in the same slot
+    private int[] counts;            // Count stored for the key in the same slot
+    private int size;                // Number of key-value pairs
+    private double maxLoadFactor;    // Maximum load factor before resizing
+    private int initialCapacity;     // Capacity to return to when cleared
+
+    /**
+     * Constructs a new OffHeapCountMap with default initial capacity of 16.
+     */
+    public OffHeapCountMap() {
+        this(16);
+    }
+
+    /**
+     * Constructs a new OffHeapCountMap with room for the given number of keys.
+     *
+     * @param initialCapacity the number of slots to start with, rounded up to a power of two
+     */
+    public OffHeapCountMap(int initialCapacity) {
+        this(initialCapacity, 0.6);
+    }
+
+    /**
+     * Constructs a new OffHeapCountMap with specified initial capacity and load factor.
+     *
+     * @param initialCapacity the number of slots to start with, rounded up to a power of two
+     * @param maxLoadFactor the maximum load factor before resizing occurs, below 1
+     */
+    public OffHeapCountMap(int initialCapacity, double maxLoadFactor) {
+        int capacity = 2;
+        while (capacity < initialCapacity) {
+            capacity *= 2;
+        }
+        this.initialCapacity = capacity;
+        this.maxLoadFactor = maxLoadFactor;
+        allocate(capacity);
+        chunks = new ArrayList<>();
+        arenaBytes = 0;
+    }
+
+    //replaces the table with empty arrays of the given capacity
+    private void allocate(int capacity) {
+        addresses = new long[capacity];
+        lengths = new int[capacity];
+        hashes = new int[capacity];
+        counts = new int[capacity];
+        size = 0;
+    }
+
+    //returns the capacity of the table
+    private int capacity() {
+        return addresses.length;
+    }
+
+    /*
+     * reserves length bytes in the arena and returns their address: the chunk number plus one
+     * in the high 32 bits, so no address is 0, and the offset in the chunk in the low 32 bits
+     */
+    private long reserve(int length) {
+        if (chunks.isEmpty() || chunks.get(chunks.size() - 1).capacity() - chunkUsed < length) {
+            int chunkSize = Math.max(CHUNK_SIZE, length);
+            chunks.add(ByteBuffer.allocateDirect(chunkSize));
+            arenaBytes += chunkSize;
+            chunkUsed = 0;
+        }
+        long address = ((long) chunks.size() << 32) | chunkUsed;
+        chunkUsed += length;
+        return address;
+    }
+
+    //copies bytes into the arena and returns their address
+    private long store(byte[] bytes, int length) {
+        long address = reserve(length);
+        chunk(address).put((int) address, bytes, 0, length);
+        return address;
+    }
+
+    //copies an ASCII String into the arena, one byte per character, and returns its address
+    private long store(String key) {
+        long address = reserve(key.length());
+        ByteBuffer chunk = chunk(address);
+        int offset = (int) address;
+        for (int i = 0; i < key.length(); i++) {
+            chunk.put(offset + i, (byte) key.charAt(i));
+        }
+        return address;
+    }
+
+    //returns the chunk an address points into
+    private ByteBuffer chunk(long address) {
+        return chunks.get((int) (address >>> 32) - 1);
+    }
+
+    //returns the key at an address, decoded from UTF-8
+    private String decode(long address, int length) {
+        byte[] bytes = new byte[length];
+        chunk(address).get((int) address, bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    //returns the UTF-8 bytes of key, or null if key is ASCII and its characters are its bytes
+    private static byte[] utf8(String key) {
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) >= 0x80) {
+                return key.getBytes(StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    /*
+     * returns the hash of a key's UTF-8 bytes, spread so the high bits reach the slot index.
+     * for ASCII keys the byte hash is the String's own (cached) hash code. numbers and short
+     * similar words hash to dense runs, so the hash is scattered by multiplying before the
+     * high bits are folded in, or linear probing would turn each run into one long cluster
+     */
+    private static int hash(String key, byte[] utf8) {
+        int h;
+        if (utf8 == null) {
+            h = key.hashCode();
+        } else {
+            h = 0;
+            for (byte b : utf8) {
+                h = 31 * h + b;
+            }
+        }
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    //returns true if the key in slot holds the same bytes as key
+    private boolean matches(int slot, String key, byte[] utf8) {
+        int length = lengths[slot];
+        ByteBuffer chunk = chunk(addresses[slot]);
+        int offset = (int) addresses[slot];
+        if (utf8 != null) {
+            if (length != utf8.length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (chunk.get(offset + i) != utf8[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (length != key.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (chunk.get(offset + i) != (byte) key.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * returns the slot holding key, or the empty slot where it would be inserted
+     */
+    private int find(String key, byte[] utf8, int hash) {
+        int mask = capacity() - 1;
+        int index = hash & mask;
+        while (addresses[index] != 0) {
+            if (hashes[index] == hash && matches(index, key, utf8)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    //returns the slot holding key, or an empty slot if key is not in the map
+    private int find(String key) {
+        byte[] utf8 = utf8(key);
+        return find(key, utf8, hash(key, utf8));
+    }
+
+    //copies a new key into the arena, stores it in the empty slot at index and grows the table if needed
+    private void insert(int index, String key, byte[] utf8, int hash, int count) {
+        if (utf8 == null) {
+            addresses[index] = store(key);
+            lengths[index] = key.length();
+        } else {
+            addresses[index] = store(utf8, utf8.length);
+            lengths[index] = utf8.length;
+        }
+        hashes[index] = hash;
+        counts[index] = count;
+        size++;
+        if (size > capacity() * maxLoadFactor) {
+            resize(capacity() * 2);
+        }
+    }
+
+    /*
+     * rehashes every entry into arrays of newCapacity, using the cached hashes.
+     * the keys stay where they are in the arena
+     */
+    private void resize(int newCapacity) {
+        long[] oldAddresses = addresses;
+        int[] oldLengths = lengths;
+        int[] oldHashes = hashes;
+        int[] oldCounts = counts;
+        int oldSize = size;
+        allocate(newCapacity);
+        size = oldSize;
+
+        int mask = newCapacity - 1;
+        for (int i = 0; i < oldAddresses.length; i++) {
+            if (oldAddresses[i] != 0) {
+                int index = oldHashes[i] & mask;
+                while (addresses[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                addresses[index] = oldAddresses[i];
+                lengths[index] = oldLengths[i];
+                hashes[index] = oldHashes[i];
+                counts[index] = oldCounts[i];
+            }
+        }
+    }
+
+    /**
+     * Adds one to the count of key, inserting it with a count of 1 if absent.
+     *
+     * @param key the word to count
+     * @return the new count of key
+     */
+    @Override
+    public int increment(String key) {
+        return add(key, 1);
+    }
+
+    /**
+     * Adds amount to the count of key, inserting it with a count of amount if absent.
+     *
+     * @param key the word to count
+     * @param amount the number to add to the count
+     * @return the new count of key
+     */
+    public int add(String key, int amount) {
+        byte[] utf8 = utf8(key);
+        int hash = hash(key, utf8);
+        int index = find(key, utf8, hash);
+        if (addresses[index] != 0) {
+            counts[index] += amount;
+            return counts[index];
+        }
+        insert(index, key, utf8, hash, amount);
+        return amount;
+    }
+
+    /**
+     * Returns the count of key, or 0 if the key is not in the map.
+     *
+     * @param key the word to look up
+     * @return the count of key, or 0 if absent
+     */
+    @Override
+    public int getCount(String key) {
+        int index = find(key);
+        return addresses[index] == 0 ? 0 : counts[index];
+    }
+
+    //puts a key value pair into the map and returns the old value, or null if the key was not in the map
+    @Override
+    public Integer put(String key, Integer value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] utf8 = utf8(key);
+        int hash = hash(key, utf8);
+        int index = find(key, utf8, hash);
+        if (addresses[index] != 0) {
+            int oldVal = counts[index];
+            counts[index] = value;
+            return oldVal;
+        }
+        insert(index, key, utf8, hash, value);
+        return null;
+    }
+
+    /*
+     * merges a value into the map with a single probe sequence
+     */
+    @Override
+    public Integer merge(String key, Integer value, BiFunction<? super Integer, ? super Integer, ? extends Integer> remappingFunction) {
+        byte[] utf8 = utf8(key);
+        int hash = hash(key, utf8);
+        int index = find(key, utf8, hash);
+        if (addresses[index] != 0) {
+            int newVal = remappingFunction.apply(counts[index], value);
+            counts[index] = newVal;
+            return newVal;
+        }
+        insert(index, key, utf8, hash, value);
+        return value;
+    }
+
+    //checks to see if the map contains a given key
+    @Override
+    public boolean containsKey(String key) {
+        return addresses[find(key)] != 0;
+    }
+
+    //gets the value of a given key, returns null if the map doesnt contain the key
+    @Override
+    public Integer get(String key) {
+        int index = find(key);
+        return addresses[index] == 0 ? null : counts[index];
+    }
+
+    /*
+     * removes a key from the map and returns its value, or null if the key is not found
+     *
+     * uses backward-shift deletion, as ObjectIntCountMap does. the key's bytes stay in the
+     * arena until the next removeIf or clear
+     */
+    @Override
+    public Integer remove(String key) {
+        int index = find(key);
+        if (addresses[index] == 0) {
+            return null;
+        }
+        int oldVal = counts[index];
+
+        int mask = capacity() - 1;
+        int hole = index;
+        int next = (hole + 1) & mask;
+        while (addresses[next] != 0) {
+            int home = hashes[next] & mask;
+            // move the entry back if the hole lies between its home slot and its current slot
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                addresses[hole] = addresses[next];
+                lengths[hole] = lengths[next];
+                hashes[hole] = hashes[next];
+                counts[hole] = counts[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        addresses[hole] = 0;
+        lengths[hole] = 0;
+        hashes[hole] = 0;
+        counts[hole] = 0;
+        size--;
+        return oldVal;
+    }
+
+    /*
+     * removes every key value pair that filter accepts and returns how many were removed
+     *
+     * the survivors are copied into a fresh arena and rehashed once, which frees the bytes
+     * of every key removed so far and closes the gaps left in the probe runs
+     */
+    @Override
+    public int removeIf(BiPredicate<? super String, ? super Integer> filter) {
+        ArrayList<ByteBuffer> oldChunks = chunks;
+        long[] oldAddresses = addresses;
+        int[] oldLengths = lengths;
+        int[] oldHashes = hashes;
+        int[] oldCounts = counts;
+        int removed = 0;
+
+        chunks = new ArrayList<>();
+        arenaBytes = 0;
+        allocate(oldAddresses.length);
+        int mask = oldAddresses.length - 1;
+        byte[] scratch = new byte[64];
+        for (int i = 0; i < oldAddresses.length; i++) {
+            if (oldAddresses[i] == 0) {
+                continue;
+            }
+            ByteBuffer chunk = oldChunks.get((int) (oldAddresses[i] >>> 32) - 1);
+            int length = oldLengths[i];
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            chunk.get((int) oldAddresses[i], scratch, 0, length);
+            if (filter.test(new String(scratch, 0, length, StandardCharsets.UTF_8), oldCounts[i])) {
+                removed++;
+                continue;
+            }
+            int index = oldHashes[i] & mask;
+            while (addresses[index] != 0) {
+                index = (index + 1) & mask;
+            }
+            addresses[index] = store(scratch, length);
+            lengths[index] = length;
+            hashes[index] = oldHashes[i];
+            counts[index] = oldCounts[i];
+            size++;
+        }
+        return removed;
+    }
+
+    //returns an arraylist of the keys in the map
+    @Override
+    public ArrayList<String> keySet() {
+        ArrayList<String> result = new ArrayList<>(size);
+        forEachCount((key, count) -> result.add(key));
+        return result;
+    }
+
+    //returns an arraylist of the values in the map, in the same order as keySet
+    @Override
+    public ArrayList<Integer> values() {
+        ArrayList<Integer> result = new ArrayList<>(size);
+        for (int i = 0; i < addresses.length; i++) {
+            if (addresses[i] != 0) {
+                result.add(counts[i]);
+            }
+        }
+        return result;
+    }
+
+    //returns an arraylist of the key value pairs in the map, in the same order as keySet
+    @Override
+    public ArrayList<MapSet.KeyValuePair<String, Integer>> entrySet() {
+        ArrayList<MapSet.KeyValuePair<String, Integer>> result = new ArrayList<>(size);
+        forEachCount((key, count) -> result.add(new KeyValuePair<>(key, count)));
+        return result;
+    }
+
+    //calls action on every key value pair in the map, in the same order as keySet
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Integer> action) {
+        forEachCount(action::accept);
+    }
+
+    /**
+     * Calls action on every word and its count without boxing the counts. Each word is
+     * decoded from the arena into a new String.
+     *
+     * @param action the action to be performed for each word and count
+     */
+    public void forEachCount(ObjIntConsumer<String> action) {
+        for (int i = 0; i < addresses.length; i++) {
+            if (addresses[i] != 0) {
+                action.accept(decode(addresses[i], lengths[i]), counts[i]);
+            }
+        }
+    }
+
+    //returns the number of keys in the map
+    @Override
+    public int size() {
+        return size;
+    }
+
+    //returns the number of bytes of direct memory reserved for keys
+    public long offHeapBytes() {
+        return arenaBytes;
+    }
+
+    //clears the contents of the map and releases the arena
+    @Override
+    public void clear() {
+        allocate(initialCapacity);
+        chunks = new ArrayList<>();
+        arenaBytes = 0;
+    }
+
+    /*
+     * returns the maxDepth of the map - the longest probe sequence needed to find any key
+     */
+    @Override
+    public int maxDepth() {
+        int mask = capacity() - 1;
+        int maxDepth = 0;
+        for (int i = 0; i < addresses.length; i++) {
+            if (addresses[i] != 0) {
+                int depth = ((i - (hashes[i] & mask)) & mask) + 1;
+                if (depth > maxDepth) {
+                    maxDepth = depth;
+                }
+            }
+        }
+        return maxDepth;
+    }
+
+    //returns a string representation of the map
+    public String toString() {
+        StringBuilder result = new StringBuilder("{");
+        forEachCount((key, count) -> {
+            if (result.length() > 1) {
+                result.append(", ");
+            }
+            result.append(key).append('=').append(count);
+        });
+        return result.append('}').toString();
+    }
+}
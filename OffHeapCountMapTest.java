@@ -0,0 +1,217 @@
+/**
+ * Unit tests for OffHeapCountMap implementation.
+ *
+ * Tests all major functionality of the off-heap counting map
+ * including counting, insertion, deletion, non-ASCII keys and arena reuse.
+ *
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ *
+ * Usage:
+ *   javac OffHeapCountMapTest.java
+ *   java -ea OffHeapCountMapTest
+ */
+
+// Import required libraries
+import java.util.ArrayList;
+
+/**
+ * Comprehensive test suite for OffHeapCountMap implementation.
+ */
+public class OffHeapCountMapTest {
+
+    /**
+     * Main method to run all test cases.
+     * Uses Java assertions to verify correctness.
+     *
+     * @param args command line arguments (not used)
+     */
+    public static void main(String[] args) {
+        System.out.println("Running OffHeapCountMap tests...");
+        testIncrement();
+        testPutAndGet();
+        testUnicode();
+        testRemove();
+        testResize();
+        testClear();
+        testMaxDepth();
+        testForEach();
+        testRemoveIf();
+        System.out.println("All OffHeapCountMap tests passed!");
+    }
+
+    /**
+     * Tests the increment() and add() methods.
+     * Verifies that counts start at the added amount and accumulate.
+     */
+    private static void testIncrement() {
+        OffHeapCountMap map = new OffHeapCountMap();
+        assert map.increment("apple") == 1 : "testIncrement 1 failed";
+        assert map.increment("apple") == 2 : "testIncrement 2 failed";
+        assert map.add("banana", 5) == 5 : "testIncrement 3 failed";
+        assert map.add("banana", 5) == 10 : "testIncrement 4 failed";
+        assert map.getCount("apple") == 2 : "testIncrement 5 failed";
+        assert map.getCount("appl") == 0 && map.getCount("apples") == 0 : "testIncrement 6 failed";
+        assert map.size() == 2 : "testIncrement 7 failed";
+    }
+
+    /**
+     * Tests the MapSet put(), get(), containsKey() and merge() methods,
+     * including the empty string as a key.
+     */
+    private static void testPutAndGet() {
+        OffHeapCountMap map = new OffHeapCountMap();
+        assert map.put("apple", 1) == null : "testPutAndGet 1 failed";
+        assert map.put("apple", 4) == 1 : "testPutAndGet 2 failed";
+        assert map.get("apple") == 4 : "testPutAndGet 3 failed";
+        assert map.get("pear") == null : "testPutAndGet 4 failed";
+        assert map.containsKey("apple") && !map.containsKey("pear") : "testPutAndGet 5 failed";
+        assert map.merge("apple", 2, Integer::sum) == 6 : "testPutAndGet 6 failed";
+        assert map.merge("pear", 2, Integer::sum) == 2 : "testPutAndGet 7 failed";
+        assert map.put("", 3) == null && map.get("") == 3 : "testPutAndGet 8 failed";
+        assert map.size() == 3 : "testPutAndGet 9 failed";
+    }
+
+    /**
+     * Tests keys outside ASCII, which are stored as multi-byte UTF-8.
+     * Verifies that they are found again and decode to the same Strings.
+     */
+    private static void testUnicode() {
+        OffHeapCountMap map = new OffHeapCountMap();
+        String[] words = {"caf\u00e9", "cafe", "\u00fcber", "\u65e5\u672c", "\ud83d\ude00", "na\u00efve"};
+        for (String word : words) {
+            map.increment(word);
+            map.increment(word);
+        }
+        assert map.size() == words.length : "testUnicode 1 failed";
+        for (String word : words) {
+            assert map.getCount(word) == 2 : "testUnicode 2 failed for " + word;
+        }
+        ArrayList<String> keys = map.keySet();
+        for (String word : words) {
+            assert keys.contains(word) : "testUnicode 3 failed for " + word;
+        }
+        assert map.getCount("caf") == 0 : "testUnicode 4 failed";
+    }
+
+    /**
+     * Tests the remove() method.
+     * Verifies that keys probed past a removed slot can still be found.
+     */
+    private static void testRemove() {
+        OffHeapCountMap map = new OffHeapCountMap(1024);
+        for (int i = 0; i < 500; i++) {
+            map.add("word" + i, i);
+        }
+        for (int i = 0; i < 500; i += 2) {
+            assert map.remove("word" + i) == i : "testRemove 1 failed for word" + i;
+        }
+        assert map.remove("word0") == null : "testRemove 2 failed";
+        assert map.size() == 250 : "testRemove 3 failed";
+        for (int i = 1; i < 500; i += 2) {
+            assert map.getCount("word" + i) == i : "testRemove 4 failed for word" + i;
+        }
+    }
+
+    /**
+     * Tests growing the table past its initial capacity and the arena past one chunk.
+     * Verifies that every count survives the rehash.
+     */
+    private static void testResize() {
+        OffHeapCountMap map = new OffHeapCountMap(2);
+        for (int i = 0; i < 10000; i++) {
+            map.increment("word" + (i % 1000));
+        }
+        assert map.size() == 1000 : "testResize 1 failed";
+        for (int i = 0; i < 1000; i++) {
+            assert map.getCount("word" + i) == 10 : "testResize 2 failed for word" + i;
+        }
+
+        // a key longer than a chunk gets a chunk of its own
+        String longWord = "x".repeat((1 << 22) + 10);
+        long before = map.offHeapBytes();
+        map.increment(longWord);
+        map.increment("after");
+        assert map.getCount(longWord) == 1 && map.getCount("after") == 1 : "testResize 3 failed";
+        assert map.offHeapBytes() >= before + longWord.length() : "testResize 4 failed";
+        assert map.getCount("word999") == 10 : "testResize 5 failed";
+    }
+
+    /**
+     * Tests the clear() method.
+     * Verifies that all entries and the arena are released and the map is usable afterwards.
+     */
+    private static void testClear() {
+        OffHeapCountMap map = new OffHeapCountMap();
+        map.increment("apple");
+        map.increment("banana");
+        assert map.offHeapBytes() > 0 : "testClear 1 failed";
+        map.clear();
+        assert map.size() == 0 && map.offHeapBytes() == 0 : "testClear 2 failed";
+        assert map.entrySet().isEmpty() : "testClear 3 failed";
+        map.increment("apple");
+        assert map.getCount("apple") == 1 : "testClear 4 failed";
+    }
+
+    /**
+     * Tests the maxDepth() method.
+     * Verifies that dense numeric keys do not pile up into one long probe sequence.
+     */
+    private static void testMaxDepth() {
+        OffHeapCountMap map = new OffHeapCountMap();
+        assert map.maxDepth() == 0 : "testMaxDepth 1 failed";
+        for (int i = 0; i < 400000; i++) {
+            map.increment(Integer.toString(i));
+        }
+        assert map.size() == 400000 : "testMaxDepth 2 failed";
+        assert map.maxDepth() <= 64 : "testMaxDepth 3 failed, " + map.maxDepth();
+    }
+
+    /**
+     * Tests the forEach() and forEachCount() methods.
+     * Verifies that both visit every word with its count in keySet order.
+     */
+    private static void testForEach() {
+        OffHeapCountMap map = new OffHeapCountMap();
+        for (int i = 0; i < 50; i++) {
+            map.add("word" + i, i);
+        }
+        ArrayList<String> boxed = new ArrayList<>();
+        ArrayList<String> unboxed = new ArrayList<>();
+        int[] total = new int[1];
+        map.forEach((word, count) -> boxed.add(word));
+        map.forEachCount((word, count) -> {
+            unboxed.add(word);
+            total[0] += count;
+        });
+        assert boxed.equals(map.keySet()) : "testForEach 1 failed";
+        assert unboxed.equals(boxed) : "testForEach 2 failed";
+        assert total[0] == 1225 : "testForEach 3 failed";
+        assert map.values().size() == 50 && map.entrySet().get(0).getKey().equals(boxed.get(0)) : "testForEach 4 failed";
+    }
+
+    /**
+     * Tests the removeIf() and removeAll() methods.
+     * Verifies that every remaining key can still be found after the survivors are
+     * copied into a fresh arena.
+     */
+    private static void testRemoveIf() {
+        OffHeapCountMap map = new OffHeapCountMap();
+        for (int i = 0; i < 1000; i++) {
+            map.add("word" + i, i);
+        }
+        map.increment("\u00e9t\u00e9");
+        assert map.removeIf((key, count) -> count < 600 && !key.startsWith("\u00e9")) == 600 : "testRemoveIf 1 failed";
+        assert map.size() == 401 : "testRemoveIf 2 failed";
+        for (int i = 0; i < 1000; i++) {
+            assert map.getCount("word" + i) == (i < 600 ? 0 : i) : "testRemoveIf 3 failed at " + i;
+        }
+        assert map.getCount("\u00e9t\u00e9") == 1 : "testRemoveIf 4 failed";
+        ArrayList<String> gone = new ArrayList<>();
+        gone.add("word600");
+        gone.add("word1");
+        assert map.removeAll(gone) == 1 : "testRemoveIf 5 failed";
+        assert map.keySet().size() == 400 : "testRemoveIf 6 failed";
+    }
+}
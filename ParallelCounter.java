@@ -0,0 +1,299 @@
+/**
+ * Parallel word counting engine for large Reddit comment files.
+ *
+ * The input file is split into byte ranges whose boundaries are moved forward to
+ * the next newline, so no line is ever cut in half. Each range is counted into its
+ * own private map on a fork-join pool, the partial maps are merged pairwise as the
+ * tasks join, and the result is merged into the caller's MapSet.
+ *
+ * When the caller's map is a ConcurrentCountMap, each task instead adds its
+ * chunk's counts straight into that map from its own worker thread, so neither
+ * the pairwise merges nor the final single-threaded merge are needed. The
+ * counts are not staged first, so if a later chunk cannot be read, the shared
+ * map keeps the counts of the chunks that were already added to it; clear it
+ * before counting the file again.
+ *
+ * A CountMinSketch is counted into the same way, so its memory stays fixed: each
+ * task gathers its words in a small table of at most SKETCH_BATCH_WORDS words and
+ * adds the table to the sketch, under the sketch's lock, whenever it fills up.
+ *
+ * Each range is tokenized with ByteTokenizer, which splits lines exactly as
+ * WordCounter.readWords does, so the counts are identical to the sequential path.
+ *
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ *
+ * Compilation: javac ParallelCounter.java
+ */
+
+// Import required libraries
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Splits a file into newline-aligned chunks and counts them on all cores.
+ */
+public class ParallelCounter {
+
+    // Largest chunk a single task reads into memory at once
+    private static final long MAX_CHUNK_BYTES = 16L * 1024 * 1024;
+
+    // Distinct words a task gathers before adding them to a shared sketch
+    static final int SKETCH_BATCH_WORDS = 16 * 1024;
+
+    /**
+     * Result of counting one or more chunks: the partial word counts and
+     * the number of words that were read.
+     */
+    static class Partial {
+        ByteTokenizer.WordTable counts;     // null once the counts were added to a shared map
+        int wordCount;
+
+        Partial(ByteTokenizer.WordTable counts, int wordCount) {
+            this.counts = counts;
+            this.wordCount = wordCount;
+        }
+    }
+
+    /**
+     * Counts every word of a file in parallel and merges the counts into target.
+     *
+     * @param filename    the file to count
+     * @param parallelism the number of worker threads to use
+     * @param target      the map the final counts are merged into
+     * @return the number of words read from the file
+     * @throws IOException if the file cannot be read
+     */
+    public static int count(String filename, int parallelism, MapSet<String, Integer> target) throws IOException {
+        return count(filename, parallelism, target, null);
+    }
+
+    /**
+     * Counts every word of a file in parallel and merges the counts of all but the
+     * stop words into target. The returned word count still includes the stop words.
+     *
+     * @param filename    the file to count
+     * @param parallelism the number of worker threads to use
+     * @param target      the map the final counts are merged into
+     * @param stopWords   the words to leave out of target, or null to keep every word
+     * @return the number of words read from the file
+     * @throws IOException if the file cannot be read; a ConcurrentCountMap target may
+     *                     already hold the counts of some chunks, any other target is untouched
+     */
+    public static int count(String filename, int parallelism, MapSet<String, Integer> target, StopWordFilter stopWords) throws IOException {
+        long length = Paths.get(filename).toFile().length();
+        int chunks = (int) Math.max(parallelism * 4L, (length + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES);
+        return count(filename, parallelism, chunks, target, stopWords);
+    }
+
+    /**
+     * Counts every word of a file in parallel, splitting it into the given number of chunks.
+     *
+     * @param filename    the file to count
+     * @param parallelism the number of worker threads to use
+     * @param chunks      the number of byte ranges to split the file into
+     * @param target      the map the final counts are merged into
+     * @return the number of words read from the file
+     * @throws IOException if the file cannot be read
+     */
+    static int count(String filename, int parallelism, int chunks, MapSet<String, Integer> target) throws IOException {
+        return count(filename, parallelism, chunks, target, null);
+    }
+
+    /**
+     * Counts every word of a file in parallel, splitting it into the given number of chunks
+     * and leaving the stop words out of target.
+     *
+     * @param filename    the file to count
+     * @param parallelism the number of worker threads to use
+     * @param chunks      the number of byte ranges to split the file into
+     * @param target      the map the final counts are merged into
+     * @param stopWords   the words to leave out of target, or null to keep every word
+     * @return the number of words read from the file
+     * @throws IOException if the file cannot be read
+     */
+    static int count(String filename, int parallelism, int chunks, MapSet<String, Integer> target, StopWordFilter stopWords) throws IOException {
+        long[] bounds = chunkBounds(filename, chunks);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        Partial result;
+        try {
+            ConcurrentCountMap shared = target instanceof ConcurrentCountMap ? (ConcurrentCountMap) target : null;
+            CountMinSketch sketch = target instanceof CountMinSketch ? (CountMinSketch) target : null;
+            result = pool.invoke(new CountTask(filename, bounds, 0, bounds.length - 1, shared, sketch, stopWords));
+        } catch (UncheckedIOException e) {
+            // the pool may rethrow a copy of the worker's exception, so look down the cause chain
+            Throwable cause = e;
+            while (cause != null && !(cause instanceof IOException)) {
+                cause = cause.getCause();
+            }
+            if (cause != null) {
+                throw (IOException) cause;
+            }
+            throw e;
+        } finally {
+            pool.shutdown();
+        }
+
+        if (result.counts != null) {
+            result.counts.drainTo(target, stopWords);
+        }
+        return result.wordCount;
+    }
+
+    /*
+     * splits the file into the given number of byte ranges. every boundary except the
+     * first and last is moved forward to just past the next '\n', so each range holds whole lines.
+     * the returned array has one more entry than there are ranges
+     */
+    static long[] chunkBounds(String filename, int chunks) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            long length = channel.size();
+            chunks = (int) Math.max(1, Math.min(chunks, length));
+            long[] bounds = new long[chunks + 1];
+            bounds[chunks] = length;
+
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+            for (int i = 1; i < chunks; i++) {
+                long pos = Math.max(bounds[i - 1], length * i / chunks);
+                bounds[i] = nextLineStart(channel, pos, length, buffer);
+            }
+            return bounds;
+        }
+    }
+
+    //returns the position just after the first '\n' at or after pos, or length if there is none
+    private static long nextLineStart(FileChannel channel, long pos, long length, ByteBuffer buffer) throws IOException {
+        while (pos < length) {
+            buffer.clear();
+            int read = channel.read(buffer, pos);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return pos + i + 1;
+                }
+            }
+            pos += read;
+        }
+        return length;
+    }
+
+    /*
+     * counts the words in the byte range [start, end) of the file into a fresh table
+     */
+    static Partial countRange(String filename, long start, long end) throws IOException {
+        ByteTokenizer.WordTable counts = new ByteTokenizer.WordTable();
+        int wordCount;
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            wordCount = ByteTokenizer.count(channel, start, end, counts);
+        }
+        return new Partial(counts, wordCount);
+    }
+
+    /*
+     * counts the words in the byte range [start, end) of the file into a sketch shared by
+     * every task. the words are gathered in a table that is added to the sketch, under its
+     * lock, each time it holds SKETCH_BATCH_WORDS words, so the memory used does not grow
+     * with the vocabulary and the lock is taken once per batch rather than once per word
+     */
+    static Partial countRange(String filename, long start, long end, CountMinSketch sketch, StopWordFilter stopWords) throws IOException {
+        ByteTokenizer.WordTable batch = new ByteTokenizer.WordTable(SKETCH_BATCH_WORDS);
+        ByteTokenizer.TokenSink sink = (buffer, offset, length, hash) -> {
+            batch.token(buffer, offset, length, hash);
+            if (batch.size() >= SKETCH_BATCH_WORDS) {
+                addBatch(batch, sketch, stopWords);
+            }
+        };
+        int wordCount;
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            wordCount = ByteTokenizer.count(channel, start, end, sink);
+        }
+        addBatch(batch, sketch, stopWords);
+        return new Partial(null, wordCount);
+    }
+
+    //adds a batch of counts to the shared sketch and empties the batch
+    private static void addBatch(ByteTokenizer.WordTable batch, CountMinSketch sketch, StopWordFilter stopWords) {
+        synchronized (sketch) {
+            batch.drainTo(sketch, stopWords);
+        }
+        batch.clear();
+    }
+
+    //merges the smaller partial into the larger one and returns the larger one
+    static Partial merge(Partial a, Partial b) {
+        if (a.counts == null || b.counts == null) {
+            // both were already added to the shared map
+            a.wordCount += b.wordCount;
+            return a;
+        }
+        if (a.counts.size() < b.counts.size()) {
+            Partial temp = a;
+            a = b;
+            b = temp;
+        }
+        a.counts.addAll(b.counts);
+        a.wordCount += b.wordCount;
+        return a;
+    }
+
+    /**
+     * Fork-join task that counts the chunks [lo, hi) by splitting them in half
+     * until a single chunk remains. With a shared map, each chunk's counts are
+     * added to it as soon as the chunk is read, even if another chunk later fails.
+     * With a sketch, they are added in batches while the chunk is read.
+     */
+    private static class CountTask extends RecursiveTask<Partial> {
+        private static final long serialVersionUID = 1L;
+
+        private final String filename;
+        private final long[] bounds;
+        private final int lo, hi;
+        private final ConcurrentCountMap shared;
+        private final CountMinSketch sketch;
+        private final StopWordFilter stopWords;
+
+        CountTask(String filename, long[] bounds, int lo, int hi, ConcurrentCountMap shared, CountMinSketch sketch, StopWordFilter stopWords) {
+            this.filename = filename;
+            this.bounds = bounds;
+            this.lo = lo;
+            this.hi = hi;
+            this.shared = shared;
+            this.sketch = sketch;
+            this.stopWords = stopWords;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (hi - lo <= 1) {
+                try {
+                    if (sketch != null) {
+                        return countRange(filename, bounds[lo], bounds[hi], sketch, stopWords);
+                    }
+                    Partial partial = countRange(filename, bounds[lo], bounds[hi]);
+                    if (shared != null) {
+                        partial.counts.drainTo(shared, stopWords);
+                        partial.counts = null;
+                    }
+                    return partial;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            int mid = (lo + hi) >>> 1;
+            CountTask left = new CountTask(filename, bounds, lo, mid, shared, sketch, stopWords);
+            CountTask right = new CountTask(filename, bounds, mid, hi, shared, sketch, stopWords);
+            left.fork();
+            Partial rightResult = right.compute();
+            return merge(left.join(), rightResult);
+        }
+    }
+}
@@ -0,0 +1,585 @@
+/**
+ * Compressed radix trie implementation of the MapSet interface for String keys and int counts.
+ *
+ * Words in a vocabulary share long prefixes (don't, donald, done, ...). BSTMap and
+ * AVLTree store a whole String in every node and compare whole strings at every
+ * level, so a lookup can read the shared prefix once per node on the path. Here each
+ * edge is labelled with a run of characters and every shared prefix is stored once;
+ * a lookup reads each character of the key exactly once on its way down.
+ *
+ * Each node keeps the first characters of its children in a small sorted array,
+ * grown only as children are added, so most nodes hold one or two children and pay
+ * for no more. Counts are stored as primitive ints in the nodes.
+ *
+ * Because children are kept in character order, iteration visits the keys in
+ * ascending String order, and all words with a given prefix live in one subtree:
+ * prefix and wildcard queries only walk the part of the trie that can match.
+ *
+ * Time Complexity:
+ * - O(length of key) for search, insert, delete, independent of the number of keys
+ * - O(length of prefix + size of matching subtree) for prefix enumeration
+ *
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ *
+ * Compilation: javac RadixTrie.java
+ */
+
+// Import required libraries
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Path-compressed trie from String keys to primitive int counts.
+ */
+public class RadixTrie implements CountMap {
+
+    /**
+     * Internal Node class for the trie. The key of a node is the concatenation of the
+     * labels on the path from the root to it.
+     */
+    private static class Node {
+        char[] label;        // Characters on the edge from the parent to this node
+        char[] firsts;       // First character of each child's label, ascending
+        Node[] children;     // Child whose label starts with the character in the same slot
+        int childCount;      // Number of children in use
+        boolean hasValue;    // True if the key ending at this node is in the map
+        int count;           // Count of the key ending at this node
+
+        /**
+         * Creates a node with the given edge label and no children.
+         *
+         * @param label the characters on the edge from the parent
+         */
+        Node(char[] label) {
+            this.label = label;
+            firsts = new char[0];
+            children = new Node[0];
+        }
+
+        //returns the index of the child starting with c, or -(insertion point) - 1 if there is none
+        int indexOf(char c) {
+            return Arrays.binarySearch(firsts, 0, childCount, c);
+        }
+
+        //returns the child whose label starts with c, or null if there is none
+        Node child(char c) {
+            int index = indexOf(c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        //adds a child at the insertion point returned by indexOf, growing the arrays if needed
+        void addChild(int insertion, Node child) {
+            if (childCount == firsts.length) {
+                int capacity = Math.max(2, childCount * 2);
+                firsts = Arrays.copyOf(firsts, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(firsts, insertion, firsts, insertion + 1, childCount - insertion);
+            System.arraycopy(children, insertion, children, insertion + 1, childCount - insertion);
+            firsts[insertion] = child.label[0];
+            children[insertion] = child;
+            childCount++;
+        }
+
+        //removes the child at index
+        void removeChild(int index) {
+            System.arraycopy(firsts, index + 1, firsts, index, childCount - index - 1);
+            System.arraycopy(children, index + 1, children, index, childCount - index - 1);
+            childCount--;
+            children[childCount] = null;
+        }
+    }
+
+    // Instance fields
+    private Node root;               // Root node, with an empty label
+    private int size;                // Number of key-value pairs
+
+    /**
+     * Constructs an empty trie.
+     */
+    public RadixTrie() {
+        root = new Node(new char[0]);
+        size = 0;
+    }
+
+    /*
+     * returns the node whose key is exactly key, or null if no node ends there.
+     * the node may not hold a value
+     */
+    private Node find(String key) {
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            node = node.child(key.charAt(i));
+            if (node == null) {
+                return null;
+            }
+            if (!startsWithAt(key, i, node.label)) {
+                return null;
+            }
+            i += node.label.length;
+        }
+        return node;
+    }
+
+    //returns true if key holds all of label starting at offset
+    private static boolean startsWithAt(String key, int offset, char[] label) {
+        if (key.length() - offset < label.length) {
+            return false;
+        }
+        // the first character already matched when the child was picked
+        for (int j = 1; j < label.length; j++) {
+            if (key.charAt(offset + j) != label[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * returns the node for key, creating it and splitting an edge if needed.
+     * a new node does not hold a value yet
+     */
+    private Node findOrCreate(String key) {
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int index = node.indexOf(key.charAt(i));
+            if (index < 0) {
+                Node leaf = new Node(key.substring(i).toCharArray());
+                node.addChild(-index - 1, leaf);
+                return leaf;
+            }
+            Node child = node.children[index];
+            char[] label = child.label;
+            int j = 1;
+            while (j < label.length && i + j < key.length() && key.charAt(i + j) == label[j]) {
+                j++;
+            }
+            if (j < label.length) {
+                // the key leaves or ends inside this edge: split it after the matched part
+                Node middle = new Node(Arrays.copyOf(label, j));
+                child.label = Arrays.copyOfRange(label, j, label.length);
+                middle.addChild(0, child);
+                node.children[index] = middle;
+                child = middle;
+            }
+            node = child;
+            i += j;
+        }
+        return node;
+    }
+
+    /**
+     * Adds one to the count of key, inserting it with a count of 1 if absent.
+     *
+     * @param key the word to count
+     * @return the new count of key
+     */
+    @Override
+    public int increment(String key) {
+        return add(key, 1);
+    }
+
+    /**
+     * Adds amount to the count of key, inserting it with a count of amount if absent.
+     *
+     * @param key the word to count
+     * @param amount the number to add to the count
+     * @return the new count of key
+     */
+    public int add(String key, int amount) {
+        Node node = findOrCreate(key);
+        if (node.hasValue) {
+            node.count += amount;
+        } else {
+            node.hasValue = true;
+            node.count = amount;
+            size++;
+        }
+        return node.count;
+    }
+
+    /**
+     * Returns the count of key, or 0 if the key is not in the trie.
+     *
+     * @param key the word to look up
+     * @return the count of key, or 0 if absent
+     */
+    @Override
+    public int getCount(String key) {
+        Node node = find(key);
+        return node == null || !node.hasValue ? 0 : node.count;
+    }
+
+    //puts a key value pair into the trie and returns the old value, or null if the key was not in the trie
+    @Override
+    public Integer put(String key, Integer value) {
+        if (value == null) {
+            return null;
+        }
+        Node node = findOrCreate(key);
+        Integer oldVal = node.hasValue ? node.count : null;
+        if (!node.hasValue) {
+            node.hasValue = true;
+            size++;
+        }
+        node.count = value;
+        return oldVal;
+    }
+
+    /*
+     * merges a value into the trie with a single walk down from the root
+     */
+    @Override
+    public Integer merge(String key, Integer value, BiFunction<? super Integer, ? super Integer, ? extends Integer> remappingFunction) {
+        Node node = findOrCreate(key);
+        if (node.hasValue) {
+            node.count = remappingFunction.apply(node.count, value);
+        } else {
+            node.hasValue = true;
+            node.count = value;
+            size++;
+        }
+        return node.count;
+    }
+
+    //checks to see if the trie contains a given key
+    @Override
+    public boolean containsKey(String key) {
+        Node node = find(key);
+        return node != null && node.hasValue;
+    }
+
+    //gets the value of a given key, returns null if the trie doesnt contain the key
+    @Override
+    public Integer get(String key) {
+        Node node = find(key);
+        return node == null || !node.hasValue ? null : node.count;
+    }
+
+    /*
+     * removes a key from the trie and returns its value, or null if the key is not found
+     *
+     * a node left with no value and no children is unlinked, and a node left with no value
+     * and one child is merged with that child, so the trie stays fully compressed
+     */
+    @Override
+    public Integer remove(String key) {
+        Node parent = null;
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.child(key.charAt(i));
+            if (child == null || !startsWithAt(key, i, child.label)) {
+                return null;
+            }
+            parent = node;
+            node = child;
+            i += child.label.length;
+        }
+        if (!node.hasValue) {
+            return null;
+        }
+        int oldVal = node.count;
+        node.hasValue = false;
+        node.count = 0;
+        size--;
+
+        if (node == root) {
+            return oldVal;
+        }
+        if (node.childCount == 0) {
+            parent.removeChild(parent.indexOf(node.label[0]));
+            // the parent may now be a valueless pass-through node
+            compact(parent);
+        } else {
+            compact(node);
+        }
+        return oldVal;
+    }
+
+    //merges node with its only child if node holds no value; the root is never merged
+    private void compact(Node node) {
+        if (node == root || node.hasValue || node.childCount != 1) {
+            return;
+        }
+        Node child = node.children[0];
+        char[] label = Arrays.copyOf(node.label, node.label.length + child.label.length);
+        System.arraycopy(child.label, 0, label, node.label.length, child.label.length);
+        // node takes over the child's place, keeping the same first character for its parent
+        node.label = label;
+        node.firsts = child.firsts;
+        node.children = child.children;
+        node.childCount = child.childCount;
+        node.hasValue = child.hasValue;
+        node.count = child.count;
+    }
+
+    /*
+     * removes every key value pair that filter accepts and returns how many were removed
+     *
+     * the matching keys are collected in one walk and then removed one at a time; each
+     * removal only touches the nodes on its key's path
+     */
+    @Override
+    public int removeIf(BiPredicate<? super String, ? super Integer> filter) {
+        ArrayList<String> doomed = new ArrayList<>();
+        forEachCount((key, count) -> {
+            if (filter.test(key, count)) {
+                doomed.add(key);
+            }
+        });
+        for (String key : doomed) {
+            remove(key);
+        }
+        return doomed.size();
+    }
+
+    /*
+     * calls action on every key in the subtree of start, in ascending order. prefix is the key
+     * of start without start's own label
+     *
+     * the walk uses an explicit stack and one shared character buffer: a node's label is written
+     * at its depth, and everything before that depth still holds its ancestors' labels because
+     * nodes are visited in depth-first order
+     */
+    private void walk(Node start, String prefix, ObjIntConsumer<String> action) {
+        Node[] stack = new Node[16];
+        int[] depths = new int[16];
+        char[] path = new char[Math.max(16, prefix.length() * 2)];
+        prefix.getChars(0, prefix.length(), path, 0);
+
+        int top = 0;
+        stack[top] = start;
+        depths[top++] = prefix.length();
+        while (top > 0) {
+            Node node = stack[--top];
+            int depth = depths[top];
+            int end = depth + node.label.length;
+            if (end > path.length) {
+                path = Arrays.copyOf(path, Math.max(end, path.length * 2));
+            }
+            System.arraycopy(node.label, 0, path, depth, node.label.length);
+            if (node.hasValue) {
+                action.accept(new String(path, 0, end), node.count);
+            }
+            if (top + node.childCount > stack.length) {
+                stack = Arrays.copyOf(stack, Math.max(top + node.childCount, stack.length * 2));
+                depths = Arrays.copyOf(depths, stack.length);
+            }
+            // push in reverse so the smallest child is visited first
+            for (int c = node.childCount - 1; c >= 0; c--) {
+                stack[top] = node.children[c];
+                depths[top++] = end;
+            }
+        }
+    }
+
+    /**
+     * Calls action on every word that starts with prefix and its count, in ascending order,
+     * without visiting any part of the trie outside the prefix's subtree.
+     *
+     * @param prefix the prefix to match, case-sensitively
+     * @param action the action to be performed for each matching word and count
+     */
+    public void forEachWithPrefix(String prefix, ObjIntConsumer<String> action) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            node = node.child(prefix.charAt(i));
+            if (node == null) {
+                return;
+            }
+            char[] label = node.label;
+            int j = 1;
+            while (j < label.length && i + j < prefix.length()) {
+                if (prefix.charAt(i + j) != label[j]) {
+                    return;
+                }
+                j++;
+            }
+            // if the prefix ends inside this edge, every key below still starts with it
+            i += label.length;
+        }
+        walk(node, prefix.substring(0, i - node.label.length), action);
+    }
+
+    /**
+     * Returns every word that starts with prefix, with its count, in ascending order.
+     *
+     * @param prefix the prefix to match, case-sensitively
+     * @return the matching words and their counts
+     */
+    public ArrayList<MapSet.KeyValuePair<String, Integer>> withPrefix(String prefix) {
+        ArrayList<MapSet.KeyValuePair<String, Integer>> result = new ArrayList<>();
+        forEachWithPrefix(prefix, (word, count) -> result.add(new KeyValuePair<>(word, count)));
+        return result;
+    }
+
+    /**
+     * Returns every word that matches a wildcard pattern, with its count, in ascending order.
+     * In the pattern, '?' matches any one character and '*' matches any run of characters,
+     * including none; every other character matches itself. Subtrees that can no longer
+     * match are skipped, so a pattern starting with literal characters only visits the
+     * subtree of that prefix.
+     *
+     * @param pattern the pattern to match, case-sensitively
+     * @return the matching words and their counts
+     */
+    public ArrayList<MapSet.KeyValuePair<String, Integer>> matching(String pattern) {
+        ArrayList<MapSet.KeyValuePair<String, Integer>> result = new ArrayList<>();
+        int accept = pattern.length();
+
+        // each frame holds a node, the key above it and the pattern positions reachable there
+        ArrayList<Node> nodes = new ArrayList<>();
+        ArrayList<String> prefixes = new ArrayList<>();
+        ArrayList<BitSet> states = new ArrayList<>();
+        BitSet start = new BitSet(accept + 1);
+        start.set(0);
+        closeStars(pattern, start);
+        nodes.add(root);
+        prefixes.add("");
+        states.add(start);
+
+        while (!nodes.isEmpty()) {
+            int last = nodes.size() - 1;
+            Node node = nodes.remove(last);
+            String prefix = prefixes.remove(last);
+            BitSet active = states.remove(last);
+            for (int j = 0; j < node.label.length && !active.isEmpty(); j++) {
+                active = step(pattern, active, node.label[j]);
+            }
+            if (active.isEmpty()) {
+                continue;
+            }
+            String key = prefix + new String(node.label);
+            if (node.hasValue && active.get(accept)) {
+                result.add(new KeyValuePair<>(key, node.count));
+            }
+            for (int c = node.childCount - 1; c >= 0; c--) {
+                nodes.add(node.children[c]);
+                prefixes.add(key);
+                states.add(active);
+            }
+        }
+        return result;
+    }
+
+    //adds every position reachable from an active one by skipping '*'s that match nothing
+    private static void closeStars(String pattern, BitSet active) {
+        for (int p = active.nextSetBit(0); p >= 0 && p < pattern.length(); p = active.nextSetBit(p + 1)) {
+            if (pattern.charAt(p) == '*') {
+                active.set(p + 1);
+            }
+        }
+    }
+
+    //returns the pattern positions reachable from active after reading the character c
+    private static BitSet step(String pattern, BitSet active, char c) {
+        BitSet next = new BitSet(pattern.length() + 1);
+        for (int p = active.nextSetBit(0); p >= 0 && p < pattern.length(); p = active.nextSetBit(p + 1)) {
+            char want = pattern.charAt(p);
+            if (want == '*') {
+                next.set(p);
+            } else if (want == '?' || want == c) {
+                next.set(p + 1);
+            }
+        }
+        closeStars(pattern, next);
+        return next;
+    }
+
+    //returns an arraylist of the keys in the trie, in ascending order
+    @Override
+    public ArrayList<String> keySet() {
+        ArrayList<String> result = new ArrayList<>(size);
+        forEachCount((key, count) -> result.add(key));
+        return result;
+    }
+
+    //returns an arraylist of the values in the trie, in the same order as keySet
+    @Override
+    public ArrayList<Integer> values() {
+        ArrayList<Integer> result = new ArrayList<>(size);
+        forEachCount((key, count) -> result.add(count));
+        return result;
+    }
+
+    //returns an arraylist of the key value pairs in the trie, in the same order as keySet
+    @Override
+    public ArrayList<MapSet.KeyValuePair<String, Integer>> entrySet() {
+        ArrayList<MapSet.KeyValuePair<String, Integer>> result = new ArrayList<>(size);
+        forEachCount((key, count) -> result.add(new KeyValuePair<>(key, count)));
+        return result;
+    }
+
+    //calls action on every key value pair in the trie, in ascending key order
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Integer> action) {
+        forEachCount(action::accept);
+    }
+
+    /**
+     * Calls action on every word and its count, in ascending order, without boxing the counts.
+     *
+     * @param action the action to be performed for each word and count
+     */
+    public void forEachCount(ObjIntConsumer<String> action) {
+        walk(root, "", action);
+    }
+
+    //returns the number of keys in the trie
+    @Override
+    public int size() {
+        return size;
+    }
+
+    //clears the contents of the trie
+    @Override
+    public void clear() {
+        root = new Node(new char[0]);
+        size = 0;
+    }
+
+    /*
+     * returns the maxDepth of the trie - the most edges followed to reach any key
+     */
+    @Override
+    public int maxDepth() {
+        int maxDepth = 0;
+        ArrayList<Node> stack = new ArrayList<>();
+        ArrayList<Integer> depths = new ArrayList<>();
+        stack.add(root);
+        depths.add(0);
+        while (!stack.isEmpty()) {
+            Node node = stack.remove(stack.size() - 1);
+            int depth = depths.remove(depths.size() - 1);
+            maxDepth = Math.max(maxDepth, depth);
+            for (int c = 0; c < node.childCount; c++) {
+                stack.add(node.children[c]);
+                depths.add(depth + 1);
+            }
+        }
+        return maxDepth;
+    }
+
+    //returns a string representation of the trie
+    public String toString() {
+        StringBuilder result = new StringBuilder("{");
+        forEachCount((key, count) -> {
+            if (result.length() > 1) {
+                result.append(", ");
+            }
+            result.append(key).append('=').append(count);
+        });
+        return result.append('}').toString();
+    }
+}
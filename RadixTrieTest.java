@@ -0,0 +1,248 @@
+/**
+ * Unit tests for RadixTrie implementation.
+ *
+ * Tests counting, insertion with edge splits, deletion with re-compression,
+ * ordered iteration, and prefix and wildcard queries.
+ *
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ *
+ * Usage:
+ *   javac RadixTrieTest.java
+ *   java -ea RadixTrieTest
+ */
+
+// Import required libraries
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Comprehensive test suite for RadixTrie implementation.
+ */
+public class RadixTrieTest {
+
+    /**
+     * Main method to run all test cases.
+     * Uses Java assertions to verify correctness.
+     *
+     * @param args command line arguments (not used)
+     */
+    public static void main(String[] args) {
+        System.out.println("Running RadixTrie tests...");
+        testIncrement();
+        testPutAndGet();
+        testSharedPrefixes();
+        testRemove();
+        testOrder();
+        testPrefix();
+        testMatching();
+        testRemoveIf();
+        testAgainstTreeMap();
+        System.out.println("All RadixTrie tests passed!");
+    }
+
+    /**
+     * Tests the increment() and add() methods.
+     * Verifies that counts start at the added amount and accumulate.
+     */
+    private static void testIncrement() {
+        RadixTrie trie = new RadixTrie();
+        assert trie.increment("apple") == 1 : "testIncrement 1 failed";
+        assert trie.increment("apple") == 2 : "testIncrement 2 failed";
+        assert trie.add("banana", 5) == 5 : "testIncrement 3 failed";
+        assert trie.add("banana", 5) == 10 : "testIncrement 4 failed";
+        assert trie.getCount("apple") == 2 : "testIncrement 5 failed";
+        assert trie.getCount("app") == 0 : "testIncrement 6 failed";
+        assert trie.size() == 2 : "testIncrement 7 failed";
+    }
+
+    /**
+     * Tests the MapSet put(), get(), containsKey() and merge() methods,
+     * including the empty string as a key.
+     */
+    private static void testPutAndGet() {
+        RadixTrie trie = new RadixTrie();
+        assert trie.put("cat", 3) == null : "testPutAndGet 1 failed";
+        assert trie.put("cat", 4) == 3 : "testPutAndGet 2 failed";
+        assert trie.get("cat") == 4 : "testPutAndGet 3 failed";
+        assert trie.get("ca") == null && !trie.containsKey("ca") : "testPutAndGet 4 failed";
+        assert trie.get("cats") == null : "testPutAndGet 5 failed";
+        assert trie.merge("cat", 1, Integer::sum) == 5 : "testPutAndGet 6 failed";
+        assert trie.merge("dog", 1, Integer::sum) == 1 : "testPutAndGet 7 failed";
+        assert trie.put("", 9) == null && trie.get("") == 9 : "testPutAndGet 8 failed";
+        assert trie.size() == 3 : "testPutAndGet 9 failed";
+    }
+
+    /**
+     * Tests that keys which are prefixes of each other, or which split an existing
+     * edge, are all kept apart.
+     */
+    private static void testSharedPrefixes() {
+        RadixTrie trie = new RadixTrie();
+        String[] words = {"donald", "don't", "done", "don", "do", "dog", "d", "donalds"};
+        for (int i = 0; i < words.length; i++) {
+            trie.put(words[i], i + 1);
+        }
+        for (int i = 0; i < words.length; i++) {
+            assert trie.getCount(words[i]) == i + 1 : "testSharedPrefixes 1 failed for " + words[i];
+        }
+        assert trie.size() == words.length : "testSharedPrefixes 2 failed";
+        assert !trie.containsKey("dona") && !trie.containsKey("donal") : "testSharedPrefixes 3 failed";
+        // d -> o -> (g, n -> (', a..., e))
+        assert trie.maxDepth() == 5 : "testSharedPrefixes 4 failed, " + trie.maxDepth();
+    }
+
+    /**
+     * Tests the remove() method.
+     * Verifies that removing a key leaves its prefixes and extensions in place.
+     */
+    private static void testRemove() {
+        RadixTrie trie = new RadixTrie();
+        for (String word : new String[] {"test", "tester", "testing", "team"}) {
+            trie.increment(word);
+        }
+        assert trie.remove("test") == 1 : "testRemove 1 failed";
+        assert trie.remove("test") == null : "testRemove 2 failed";
+        assert trie.remove("te") == null : "testRemove 3 failed";
+        assert trie.getCount("tester") == 1 && trie.getCount("testing") == 1 : "testRemove 4 failed";
+
+        assert trie.remove("tester") == 1 : "testRemove 5 failed";
+        assert trie.getCount("testing") == 1 && trie.getCount("team") == 1 : "testRemove 6 failed";
+        // "testing" is merged back into a single edge below "te"
+        assert trie.maxDepth() == 2 : "testRemove 7 failed, " + trie.maxDepth();
+
+        assert trie.remove("testing") == 1 && trie.remove("team") == 1 : "testRemove 8 failed";
+        assert trie.size() == 0 && trie.maxDepth() == 0 : "testRemove 9 failed";
+        trie.increment("te");
+        assert trie.getCount("te") == 1 && trie.size() == 1 : "testRemove 10 failed";
+    }
+
+    /**
+     * Tests that keySet(), values() and entrySet() list the keys in ascending order.
+     */
+    private static void testOrder() {
+        RadixTrie trie = new RadixTrie();
+        String[] words = {"pear", "apple", "Zebra", "app", "banana", "apply"};
+        for (String word : words) {
+            trie.add(word, word.length());
+        }
+        String[] sorted = words.clone();
+        Arrays.sort(sorted);
+        assert trie.keySet().equals(Arrays.asList(sorted)) : "testOrder 1 failed, " + trie.keySet();
+
+        ArrayList<MapSet.KeyValuePair<String, Integer>> entries = trie.entrySet();
+        ArrayList<Integer> values = trie.values();
+        for (int i = 0; i < sorted.length; i++) {
+            assert entries.get(i).getKey().equals(sorted[i]) : "testOrder 2 failed";
+            assert entries.get(i).getValue() == sorted[i].length() && values.get(i) == sorted[i].length() : "testOrder 3 failed";
+        }
+
+        trie.clear();
+        assert trie.size() == 0 && trie.keySet().isEmpty() : "testOrder 4 failed";
+    }
+
+    //returns the keys of a list of entries
+    private static List<String> keys(List<MapSet.KeyValuePair<String, Integer>> entries) {
+        ArrayList<String> keys = new ArrayList<>();
+        for (MapSet.KeyValuePair<String, Integer> entry : entries) {
+            keys.add(entry.getKey());
+        }
+        return keys;
+    }
+
+    /**
+     * Tests withPrefix() for prefixes that end on a node, inside an edge, or nowhere.
+     */
+    private static void testPrefix() {
+        RadixTrie trie = new RadixTrie();
+        for (String word : new String[] {"trump", "trumps", "trumpet", "truck", "true", "tree", "trumpian"}) {
+            trie.increment(word);
+        }
+        trie.increment("trump");
+
+        List<MapSet.KeyValuePair<String, Integer>> trump = trie.withPrefix("trump");
+        assert keys(trump).equals(Arrays.asList("trump", "trumpet", "trumpian", "trumps")) : "testPrefix 1 failed, " + keys(trump);
+        assert trump.get(0).getValue() == 2 : "testPrefix 2 failed";
+
+        // "tru" ends on a node and "trumpe" inside the edge to "trumpet"
+        assert keys(trie.withPrefix("tru")).equals(Arrays.asList("truck", "true", "trump", "trumpet", "trumpian", "trumps")) : "testPrefix 3 failed";
+        assert keys(trie.withPrefix("trumpe")).equals(Arrays.asList("trumpet")) : "testPrefix 4 failed";
+        assert trie.withPrefix("trumpx").isEmpty() : "testPrefix 5 failed";
+        assert trie.withPrefix("x").isEmpty() : "testPrefix 6 failed";
+        assert trie.withPrefix("").size() == 7 : "testPrefix 7 failed";
+
+        int[] total = {0};
+        trie.forEachWithPrefix("trum", (word, count) -> total[0] += count);
+        assert total[0] == 5 : "testPrefix 8 failed";
+    }
+
+    /**
+     * Tests matching() with '?' and '*' wildcards.
+     */
+    private static void testMatching() {
+        RadixTrie trie = new RadixTrie();
+        for (String word : new String[] {"don", "done", "dan", "din", "donald", "dog", "sudden", "d"}) {
+            trie.increment(word);
+        }
+        assert keys(trie.matching("d?n")).equals(Arrays.asList("dan", "din", "don")) : "testMatching 1 failed";
+        assert keys(trie.matching("don*")).equals(Arrays.asList("don", "donald", "done")) : "testMatching 2 failed";
+        assert keys(trie.matching("*d*n")).equals(Arrays.asList("dan", "din", "don", "sudden")) : "testMatching 3 failed";
+        assert keys(trie.matching("d*")).size() == 7 : "testMatching 4 failed";
+        assert keys(trie.matching("*")).size() == 8 : "testMatching 5 failed";
+        assert keys(trie.matching("d")).equals(Arrays.asList("d")) : "testMatching 6 failed";
+        assert trie.matching("x*").isEmpty() && trie.matching("do").isEmpty() : "testMatching 7 failed";
+    }
+
+    /**
+     * Tests the removeIf() method.
+     * Verifies that the right keys are removed and every survivor can still be found.
+     */
+    private static void testRemoveIf() {
+        RadixTrie trie = new RadixTrie();
+        for (int i = 0; i < 500; i++) {
+            trie.put("w" + i, i);
+        }
+        int removed = trie.removeIf((key, value) -> value % 3 != 0);
+        assert removed == 333 : "testRemoveIf 1 failed, " + removed;
+        assert trie.size() == 167 : "testRemoveIf 2 failed";
+        for (int i = 0; i < 500; i++) {
+            assert trie.containsKey("w" + i) == (i % 3 == 0) : "testRemoveIf 3 failed for w" + i;
+        }
+        assert trie.removeAll(Arrays.asList("w0", "w3", "absent")) == 2 : "testRemoveIf 4 failed";
+        assert trie.size() == 165 : "testRemoveIf 5 failed";
+    }
+
+    /**
+     * Tests a long random sequence of increments and removals against java.util.TreeMap,
+     * with a small alphabet so keys share many prefixes.
+     */
+    private static void testAgainstTreeMap() {
+        RadixTrie trie = new RadixTrie();
+        TreeMap<String, Integer> expected = new TreeMap<>();
+        Random random = new Random(231);
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(7);
+            for (int j = 0; j < length; j++) {
+                sb.append((char) ('a' + random.nextInt(3)));
+            }
+            String key = sb.toString();
+            if (random.nextInt(4) == 0) {
+                Integer removed = trie.remove(key);
+                assert Objects.equals(removed, expected.remove(key)) : "testAgainstTreeMap 1 failed for " + key;
+            } else {
+                trie.increment(key);
+                expected.merge(key, 1, Integer::sum);
+            }
+        }
+        assert trie.size() == expected.size() : "testAgainstTreeMap 2 failed";
+        assert trie.keySet().equals(new ArrayList<>(expected.keySet())) : "testAgainstTreeMap 3 failed";
+        assert trie.values().equals(new ArrayList<>(expected.values())) : "testAgainstTreeMap 4 failed";
+        assert keys(trie.withPrefix("ab")).equals(new ArrayList<>(expected.subMap("ab", "ac").keySet())) : "testAgainstTreeMap 5 failed";
+    }
+}
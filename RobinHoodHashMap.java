@@ -0,0 +1,379 @@
+/**
+ * Open-addressing Hash Table implementation of the MapSet interface.
+ *
+ * This class stores keys and values directly in flat arrays instead of chaining
+ * Node objects, so a lookup walks neighbouring array slots rather than following
+ * pointers. Collisions are resolved with Robin Hood linear probing: an entry that
+ * is further from its home slot takes the place of one that is closer, which keeps
+ * probe sequences short and even. Removal uses backward-shift deletion, so no
+ * tombstones are left behind.
+ *
+ * Capacity is always a power of two so a bucket is chosen with a mask.
+ *
+ * Time Complexity:
+ * - Average case: O(1) for search, insert, delete
+ * - Worst case: O(n) when all keys hash to the same slot
+ *
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ *
+ * Compilation: javac RobinHoodHashMap.java
+ */
+
+// Import required libraries
+import java.util.ArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+
+/**
+ * Hash Table implementation using Robin Hood open addressing.
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ */
+public class RobinHoodHashMap<K, V> implements MapSet<K, V> {
+
+    // Instance fields
+    private Object[] keys;           // Keys, or null for an empty slot
+    private Object[] vals;           // Value stored for the key in the same slot
+    private int[] hashes;            // Cached spread hash code of the key in the same slot
+    private int size;                // Number of key-value pairs
+    private double maxLoadFactor;    // Maximum load factor before resizing
+    private int initialCapacity;     // Capacity to return to when cleared
+
+    /**
+     * Constructs a new RobinHoodHashMap with default initial capacity of 16.
+     */
+    public RobinHoodHashMap() {
+        this(16);
+    }
+
+    /**
+     * Constructs a new RobinHoodHashMap with specified initial capacity and default load factor.
+     *
+     * @param initialCapacity the initial capacity, rounded up to a power of two
+     */
+    public RobinHoodHashMap(int initialCapacity) {
+        this(initialCapacity, 0.75);
+    }
+
+    /**
+     * Constructs a new RobinHoodHashMap with specified initial capacity and load factor.
+     *
+     * @param initialCapacity the initial capacity, rounded up to a power of two
+     * @param maxLoadFactor the maximum load factor before resizing occurs, below 1
+     */
+    public RobinHoodHashMap(int initialCapacity, double maxLoadFactor) {
+        int capacity = 2;
+        while (capacity < initialCapacity) {
+            capacity *= 2;
+        }
+        this.initialCapacity = capacity;
+        this.maxLoadFactor = maxLoadFactor;
+        allocate(capacity);
+    }
+
+    //replaces the arrays with empty ones of the given capacity
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        vals = new Object[capacity];
+        hashes = new int[capacity];
+        size = 0;
+    }
+
+    //returns the capacity of the hashmap
+    private int capacity() {
+        return keys.length;
+    }
+
+    /*
+     * returns the spread hash code of a key; the low bits pick its home slot.
+     * short strings have hash codes in dense runs, which linear probing turns into long
+     * clusters, so the code is multiplied by the golden ratio constant to scatter the run
+     * before the high bits are folded in
+     */
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    //returns how far the entry in slot index is from its home slot
+    private int distance(int index) {
+        int mask = capacity() - 1;
+        return (index - (hashes[index] & mask)) & mask;
+    }
+
+    /*
+     * returns the slot holding key, or -(slot + 1) where slot is the place the key
+     * would be inserted. the search stops early at any entry that is closer to its
+     * home than the key would be, since Robin Hood order means the key cannot be further on
+     */
+    private int probe(Object key, int hash) {
+        int mask = capacity() - 1;
+        int index = hash & mask;
+        int dist = 0;
+        while (keys[index] != null) {
+            if (distance(index) < dist) {
+                break;
+            }
+            if (hashes[index] == hash && keys[index].equals(key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+            dist++;
+        }
+        return -(index + 1);
+    }
+
+    /*
+     * inserts a new entry at slot index, pushing richer entries (closer to home)
+     * further along until one lands in an empty slot
+     */
+    private void insertAt(int index, Object key, int hash, Object value) {
+        int mask = capacity() - 1;
+        int dist = (index - (hash & mask)) & mask;
+        while (keys[index] != null) {
+            int slotDist = distance(index);
+            if (slotDist < dist) {
+                Object tempKey = keys[index];
+                Object tempVal = vals[index];
+                int tempHash = hashes[index];
+                keys[index] = key;
+                vals[index] = value;
+                hashes[index] = hash;
+                key = tempKey;
+                value = tempVal;
+                hash = tempHash;
+                dist = slotDist;
+            }
+            index = (index + 1) & mask;
+            dist++;
+        }
+        keys[index] = key;
+        vals[index] = value;
+        hashes[index] = hash;
+    }
+
+    //adds a new entry after a failed probe and grows the table if needed
+    private void addNew(int probeResult, K key, int hash, V value) {
+        insertAt(-probeResult - 1, key, hash, value);
+        size++;
+        if (size > capacity() * maxLoadFactor) {
+            resize(capacity() * 2);
+        }
+    }
+
+    /*
+     * rehashes every entry into arrays of newCapacity, using the cached hashes
+     */
+    private void resize(int newCapacity) {
+        Object[] oldKeys = keys;
+        Object[] oldVals = vals;
+        int[] oldHashes = hashes;
+        keys = new Object[newCapacity];
+        vals = new Object[newCapacity];
+        hashes = new int[newCapacity];
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                insertAt(oldHashes[i] & (newCapacity - 1), oldKeys[i], oldHashes[i], oldVals[i]);
+            }
+        }
+    }
+
+    //puts a key value pair into the hash map and returns the old value, or null if the key was not in the map
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        int hash = hash(key);
+        int index = probe(key, hash);
+        if (index >= 0) {
+            V oldVal = (V) vals[index];
+            vals[index] = value;
+            return oldVal;
+        }
+        addNew(index, key, hash, value);
+        return null;
+    }
+
+    /*
+     * merges a value into the hash map with a single probe sequence
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        int hash = hash(key);
+        int index = probe(key, hash);
+        if (index >= 0) {
+            V newVal = remappingFunction.apply((V) vals[index], value);
+            vals[index] = newVal;
+            return newVal;
+        }
+        addNew(index, key, hash, value);
+        return value;
+    }
+
+    //checks to see if the hashmap contains a given key
+    @Override
+    public boolean containsKey(K key) {
+        return probe(key, hash(key)) >= 0;
+    }
+
+    //gets the value of a given key in the hashmap, returns null if the hashmap doesnt contain the key
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        int index = probe(key, hash(key));
+        return index >= 0 ? (V) vals[index] : null;
+    }
+
+    /*
+     * removes a key value pair from the hashmap and returns the value
+     *
+     * every following entry that is not in its home slot is shifted back one slot,
+     * so the table looks as if the removed key had never been inserted
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(K key) {
+        int index = probe(key, hash(key));
+        if (index < 0) {
+            return null;
+        }
+        V oldVal = (V) vals[index];
+
+        int mask = capacity() - 1;
+        int next = (index + 1) & mask;
+        while (keys[next] != null && distance(next) > 0) {
+            keys[index] = keys[next];
+            vals[index] = vals[next];
+            hashes[index] = hashes[next];
+            index = next;
+            next = (next + 1) & mask;
+        }
+        keys[index] = null;
+        vals[index] = null;
+        hashes[index] = 0;
+        size--;
+        return oldVal;
+    }
+
+    /*
+     * removes every key value pair that filter accepts and returns how many were removed
+     * 
+     * matching slots are emptied in one sweep and the survivors are reinserted once, instead
+     * of backward-shifting the following entries after every removal
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public int removeIf(BiPredicate<? super K, ? super V> filter) {
+        int removed = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && filter.test((K) keys[i], (V) vals[i])) {
+                keys[i] = null;
+                vals[i] = null;
+                hashes[i] = 0;
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            size -= removed;
+            resize(capacity());
+        }
+        return removed;
+    }
+
+    //returns an arraylist of the keys in the hashmap
+    @Override
+    @SuppressWarnings("unchecked")
+    public ArrayList<K> keySet() {
+        ArrayList<K> result = new ArrayList<>(size);
+        for (Object key : keys) {
+            if (key != null) {
+                result.add((K) key);
+            }
+        }
+        return result;
+    }
+
+    //returns an arraylist of the values in the hashmap, in the same order as keySet
+    @Override
+    @SuppressWarnings("unchecked")
+    public ArrayList<V> values() {
+        ArrayList<V> result = new ArrayList<>(size);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                result.add((V) vals[i]);
+            }
+        }
+        return result;
+    }
+
+    //returns an arraylist of the key value pairs in the hashmap, in the same order as keySet
+    @Override
+    @SuppressWarnings("unchecked")
+    public ArrayList<MapSet.KeyValuePair<K, V>> entrySet() {
+        ArrayList<MapSet.KeyValuePair<K, V>> result = new ArrayList<>(size);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                result.add(new KeyValuePair<>((K) keys[i], (V) vals[i]));
+            }
+        }
+        return result;
+    }
+
+    //calls action on every key value pair in the hashmap, in the same order as keySet
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                action.accept((K) keys[i], (V) vals[i]);
+            }
+        }
+    }
+
+    //returns the size of the hashmap
+    @Override
+    public int size() {
+        return size;
+    }
+
+    //clears the contents of the hashmap
+    @Override
+    public void clear() {
+        allocate(initialCapacity);
+    }
+
+    /*
+     * returns the maxDepth of the hashmap - the longest probe sequence needed to find any key
+     */
+    @Override
+    public int maxDepth() {
+        int maxDepth = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && distance(i) + 1 > maxDepth) {
+                maxDepth = distance(i) + 1;
+            }
+        }
+        return maxDepth;
+    }
+
+    //returns a string representation of the hashmap
+    public String toString() {
+        StringBuilder result = new StringBuilder("{");
+        boolean isFirst = true;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                if (!isFirst) {
+                    result.append(", ");
+                }
+                isFirst = false;
+                result.append(keys[i]).append('=').append(vals[i]);
+            }
+        }
+        return result.append('}').toString();
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * Unit tests for RobinHoodHashMap implementation.
+ * 
+ * Tests all major functionality of the open-addressing Hash Table
+ * including insertion, deletion, searching, and utility methods.
+ * 
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ * 
+ * Usage:
+ *   javac RobinHoodHashMapTest.java
+ *   java -ea RobinHoodHashMapTest
+ */
+
+// Import required libraries
+import java.util.Arrays;
+
+/**
+ * Comprehensive test suite for RobinHoodHashMap implementation.
+ */
+public class RobinHoodHashMapTest {
+
+    /**
+     * Main method to run all test cases.
+     * Uses Java assertions to verify correctness.
+     * 
+     * @param args command line arguments (not used)
+     */
+    public static void main(String[] args) {
+        System.out.println("Running RobinHoodHashMap tests...");
+        testPutAndGet();
+        testCollisions();
+        testRemove();
+        testMerge();
+        testClear();
+        testRemoveIf();
+        System.out.println("All RobinHoodHashMap tests passed!");
+    }
+
+    /**
+     * Tests the put(), get() and containsKey() methods.
+     * Verifies insertion of new keys and updating of existing keys.
+     */
+    private static void testPutAndGet() {
+        RobinHoodHashMap<String, Integer> map = new RobinHoodHashMap<>();
+        assert map.put("apple", 1) == null : "testPutAndGet 1 failed";
+        assert map.put("banana", 2) == null : "testPutAndGet 2 failed";
+        assert map.put("apple", 4) == 1 : "testPutAndGet 3 failed";
+        assert map.get("apple") == 4 : "testPutAndGet 4 failed";
+        assert map.get("pear") == null : "testPutAndGet 5 failed";
+        assert map.containsKey("banana") : "testPutAndGet 6 failed";
+        assert !map.containsKey("pear") : "testPutAndGet 7 failed";
+        assert map.size() == 2 : "testPutAndGet 8 failed";
+    }
+
+    /**
+     * Tests many keys that share home slots.
+     * Integer keys that are multiples of the capacity all start probing at slot 0.
+     */
+    private static void testCollisions() {
+        RobinHoodHashMap<Integer, Integer> map = new RobinHoodHashMap<>(64, 0.9);
+        for (int i = 0; i < 40; i++) {
+            map.put((i + 1) * 64 * 65536, i);
+            map.put(i, i);
+        }
+        assert map.size() == 80 : "testCollisions 1 failed";
+        for (int i = 0; i < 40; i++) {
+            assert map.get((i + 1) * 64 * 65536) == i : "testCollisions 2 failed for " + i;
+            assert map.get(i) == i : "testCollisions 3 failed for " + i;
+        }
+        assert map.maxDepth() > 1 : "testCollisions 4 failed";
+    }
+
+    /**
+     * Tests the remove() method.
+     * Verifies that backward-shift deletion keeps every remaining key reachable.
+     */
+    private static void testRemove() {
+        RobinHoodHashMap<String, Integer> map = new RobinHoodHashMap<>(2);
+        for (int i = 0; i < 1000; i++) {
+            map.put("word" + i, i);
+        }
+        for (int i = 0; i < 1000; i += 3) {
+            assert map.remove("word" + i) == i : "testRemove 1 failed for word" + i;
+        }
+        assert map.remove("word0") == null : "testRemove 2 failed";
+        assert map.size() == 666 : "testRemove 3 failed";
+        for (int i = 0; i < 1000; i++) {
+            if (i % 3 == 0) {
+                assert map.get("word" + i) == null : "testRemove 4 failed for word" + i;
+            } else {
+                assert map.get("word" + i) == i : "testRemove 5 failed for word" + i;
+            }
+        }
+    }
+
+    /**
+     * Tests the merge() method.
+     * Verifies that new keys are added and existing values are combined.
+     */
+    private static void testMerge() {
+        RobinHoodHashMap<String, Integer> map = new RobinHoodHashMap<>();
+        for (int i = 0; i < 500; i++) {
+            map.merge("word" + (i % 50), 1, Integer::sum);
+        }
+        assert map.size() == 50 : "testMerge 1 failed";
+        assert map.get("word7") == 10 : "testMerge 2 failed";
+        assert map.keySet().size() == map.values().size() : "testMerge 3 failed";
+    }
+
+    /**
+     * Tests the clear() method.
+     * Verifies that all entries are removed and the map is usable afterwards.
+     */
+    private static void testClear() {
+        RobinHoodHashMap<String, Integer> map = new RobinHoodHashMap<>();
+        map.put("apple", 1);
+        map.put("banana", 2);
+        map.clear();
+        assert map.size() == 0 : "testClear 1 failed";
+        assert map.entrySet().isEmpty() : "testClear 2 failed";
+        assert map.maxDepth() == 0 : "testClear 3 failed";
+        map.put("apple", 3);
+        assert map.get("apple") == 3 : "testClear 4 failed";
+    }
+
+    /**
+     * Tests the removeIf() and removeAll() methods.
+     * Verifies that every remaining key can still be found after the survivors are reinserted.
+     */
+    private static void testRemoveIf() {
+        RobinHoodHashMap<String, Integer> map = new RobinHoodHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put("word" + i, i);
+        }
+        assert map.removeIf((key, value) -> key.endsWith("7")) == 100 : "testRemoveIf 1 failed";
+        assert map.size() == 900 : "testRemoveIf 2 failed";
+        for (int i = 0; i < 1000; i++) {
+            assert map.containsKey("word" + i) == (i % 10 != 7) : "testRemoveIf 3 failed at " + i;
+        }
+        assert map.removeAll(Arrays.asList("word0", "word7")) == 1 : "testRemoveIf 4 failed";
+        assert map.entrySet().size() == 899 : "testRemoveIf 5 failed";
+    }
+}
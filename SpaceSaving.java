@@ -0,0 +1,224 @@
+/**
+ * Streaming approximate heavy-hitters counter using the Space-Saving algorithm.
+ *
+ * Only a fixed number of counters are kept, no matter how many distinct words are
+ * offered. When a new word arrives and every counter is in use, the word takes over
+ * the counter with the smallest count and inherits that count as its error. This
+ * lets the heavy hitters of a whole year of comments be found without ever holding
+ * the full vocabulary in memory.
+ *
+ * Guarantees, for n words offered to m counters:
+ * - a tracked word's estimate is never below its true count, and overestimates it
+ *   by at most its error, which is at most n / m
+ * - every word that occurs more than n / m times is tracked
+ *
+ * The counters are kept in a binary min-heap ordered by count, and an
+ * ObjectIntCountMap from each tracked word to its heap position finds a word's
+ * counter in O(1), so each offer takes O(log m) time.
+ *
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ *
+ * Compilation: javac SpaceSaving.java
+ */
+
+// Import required libraries
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-memory approximate word counter that tracks the most frequent words of a stream.
+ */
+public class SpaceSaving {
+
+    // Instance fields
+    private String[] words;          // Tracked word of each counter, in heap order
+    private long[] counts;           // Estimated count of the word in the same position
+    private long[] errors;           // Maximum overestimate of the count in the same position
+    private ObjectIntCountMap index; // Heap position + 1 of every tracked word
+    private int size;                // Number of counters in use
+    private long total;              // Number of words offered so far
+
+    /**
+     * Constructs a new SpaceSaving counter with the given number of counters.
+     *
+     * @param counters the number of words that can be tracked at once
+     */
+    public SpaceSaving(int counters) {
+        if (counters <= 0) {
+            throw new IllegalArgumentException("Number of counters must be positive: " + counters);
+        }
+        words = new String[counters];
+        counts = new long[counters];
+        errors = new long[counters];
+        index = new ObjectIntCountMap(counters * 2);
+        size = 0;
+        total = 0;
+    }
+
+    /**
+     * Streams every word of a file through a new SpaceSaving counter.
+     * The file is tokenized the same way WordCounter.countFile tokenizes it.
+     *
+     * @param filename the file to read
+     * @param counters the number of words that can be tracked at once
+     * @return the counter holding the heavy hitters of the file
+     * @throws IOException if the file cannot be read
+     */
+    public static SpaceSaving fromFile(String filename, int counters) throws IOException {
+        SpaceSaving summary = new SpaceSaving(counters);
+        ByteTokenizer.forEachWord(filename, summary::offer);
+        return summary;
+    }
+
+    /**
+     * Counts one occurrence of a word.
+     *
+     * @param word the word to count
+     */
+    public void offer(String word) {
+        offer(word, 1);
+    }
+
+    /**
+     * Counts amount occurrences of a word.
+     *
+     * @param word the word to count
+     * @param amount the number of occurrences, at least 1
+     */
+    public void offer(String word, int amount) {
+        total += amount;
+        int pos = index.getCount(word) - 1;
+        if (pos >= 0) {
+            counts[pos] += amount;
+            siftDown(pos);
+        } else if (size < words.length) {
+            words[size] = word;
+            counts[size] = amount;
+            errors[size] = 0;
+            index.put(word, size + 1);
+            size++;
+            siftUp(size - 1);
+        } else {
+            // replace the least frequent word; its count becomes the newcomer's error
+            index.remove(words[0]);
+            words[0] = word;
+            errors[0] = counts[0];
+            counts[0] += amount;
+            index.put(word, 1);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Returns the estimated count of a word, or 0 if it is not tracked.
+     * The estimate is never below the true count of a tracked word.
+     *
+     * @param word the word to look up
+     * @return the estimated count of word
+     */
+    public long estimate(String word) {
+        int pos = index.getCount(word) - 1;
+        return pos >= 0 ? counts[pos] : 0;
+    }
+
+    /**
+     * Returns the largest amount by which the estimate of a word may exceed its true count,
+     * or 0 if it is not tracked.
+     *
+     * @param word the word to look up
+     * @return the maximum overestimate of word's count
+     */
+    public long error(String word) {
+        int pos = index.getCount(word) - 1;
+        return pos >= 0 ? errors[pos] : 0;
+    }
+
+    /**
+     * Returns the number of occurrences of a word that are certain: its estimate minus its error.
+     *
+     * @param word the word to look up
+     * @return a lower bound on the true count of word
+     */
+    public long guaranteedCount(String word) {
+        return estimate(word) - error(word);
+    }
+
+    /**
+     * Returns the k tracked words with the highest estimated counts, most frequent first.
+     * Words with the same estimate are ordered alphabetically.
+     *
+     * @param k the number of words to return
+     * @return up to k words paired with their estimated counts
+     */
+    public List<MapSet.KeyValuePair<String, Long>> topK(int k) {
+        ArrayList<MapSet.KeyValuePair<String, Long>> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(new MapSet.KeyValuePair<>(words[i], counts[i]));
+        }
+        result.sort((a, b) -> {
+            int byCount = b.getValue().compareTo(a.getValue());
+            return byCount != 0 ? byCount : a.getKey().compareTo(b.getKey());
+        });
+        return new ArrayList<>(result.subList(0, Math.max(0, Math.min(k, size))));
+    }
+
+    //returns the number of words offered so far
+    public long totalCount() {
+        return total;
+    }
+
+    //returns the number of words currently tracked
+    public int size() {
+        return size;
+    }
+
+    //moves the counter at pos towards the root while it is smaller than its parent
+    private void siftUp(int pos) {
+        while (pos > 0) {
+            int parent = (pos - 1) / 2;
+            if (counts[parent] <= counts[pos]) {
+                break;
+            }
+            swap(pos, parent);
+            pos = parent;
+        }
+    }
+
+    //moves the counter at pos towards the leaves while it is larger than a child
+    private void siftDown(int pos) {
+        while (true) {
+            int smallest = pos;
+            int left = 2 * pos + 1;
+            int right = left + 1;
+            if (left < size && counts[left] < counts[smallest]) {
+                smallest = left;
+            }
+            if (right < size && counts[right] < counts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == pos) {
+                return;
+            }
+            swap(pos, smallest);
+            pos = smallest;
+        }
+    }
+
+    //swaps two counters and updates the positions recorded in the index
+    private void swap(int i, int j) {
+        String tempWord = words[i];
+        long tempCount = counts[i];
+        long tempError = errors[i];
+        words[i] = words[j];
+        counts[i] = counts[j];
+        errors[i] = errors[j];
+        words[j] = tempWord;
+        counts[j] = tempCount;
+        errors[j] = tempError;
+        index.put(words[i], i + 1);
+        index.put(words[j], j + 1);
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Unit tests for SpaceSaving implementation.
+ *
+ * Tests exact counting while the vocabulary fits in the counters, the error
+ * guarantees once words are evicted, and reading heavy hitters from a file.
+ *
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ *
+ * Usage:
+ *   javac SpaceSavingTest.java
+ *   java -ea SpaceSavingTest
+ */
+
+// Import required libraries
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Test suite for the SpaceSaving heavy-hitters counter.
+ */
+public class SpaceSavingTest {
+
+    /**
+     * Main method to run all test cases.
+     * Uses Java assertions to verify correctness.
+     *
+     * @param args command line arguments (not used)
+     * @throws IOException if the temporary test file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        System.out.println("Running SpaceSaving tests...");
+        testExactWhenSmall();
+        testErrorBounds();
+        testFromFile();
+        System.out.println("All SpaceSaving tests passed!");
+    }
+
+    /**
+     * Tests that counts are exact while every word has its own counter.
+     */
+    private static void testExactWhenSmall() {
+        SpaceSaving summary = new SpaceSaving(10);
+        for (String word : "the cat and the dog and the end".split(" ")) {
+            summary.offer(word);
+        }
+        assert summary.estimate("the") == 3 : "testExactWhenSmall 1 failed";
+        assert summary.error("the") == 0 : "testExactWhenSmall 2 failed";
+        assert summary.estimate("fish") == 0 : "testExactWhenSmall 3 failed";
+        assert summary.size() == 5 : "testExactWhenSmall 4 failed";
+        assert summary.totalCount() == 8 : "testExactWhenSmall 5 failed";
+
+        List<MapSet.KeyValuePair<String, Long>> top = summary.topK(3);
+        assert top.size() == 3 : "testExactWhenSmall 6 failed";
+        assert top.get(0).getKey().equals("the") : "testExactWhenSmall 7 failed";
+        assert top.get(1).getKey().equals("and") : "testExactWhenSmall 8 failed";
+        assert top.get(2).getKey().equals("cat") : "testExactWhenSmall 9 failed";
+        assert summary.topK(100).size() == 5 : "testExactWhenSmall 10 failed";
+    }
+
+    /**
+     * Tests the Space-Saving guarantees on a skewed stream with far more words than counters:
+     * every estimate bounds the true count from above within its error, and every word
+     * occurring more than n / m times is tracked.
+     */
+    private static void testErrorBounds() {
+        int counters = 20;
+        SpaceSaving summary = new SpaceSaving(counters);
+        ObjectIntCountMap exact = new ObjectIntCountMap();
+        Random random = new Random(12);
+        int n = 20000;
+        for (int i = 0; i < n; i++) {
+            // a few heavy words mixed with a long tail of rare ones
+            String word = random.nextInt(3) == 0 ? "heavy" + random.nextInt(4) : "rare" + random.nextInt(5000);
+            summary.offer(word);
+            exact.increment(word);
+        }
+
+        for (MapSet.KeyValuePair<String, Long> entry : summary.topK(counters)) {
+            long trueCount = exact.getCount(entry.getKey());
+            assert entry.getValue() >= trueCount : "testErrorBounds 1 failed for " + entry.getKey();
+            assert summary.guaranteedCount(entry.getKey()) <= trueCount : "testErrorBounds 2 failed for " + entry.getKey();
+            assert summary.error(entry.getKey()) <= n / counters : "testErrorBounds 3 failed for " + entry.getKey();
+        }
+        exact.forEachCount((word, count) -> {
+            if (count > n / counters) {
+                assert summary.estimate(word) > 0 : "testErrorBounds 4 failed for " + word;
+            }
+        });
+        for (int i = 0; i < 4; i++) {
+            assert summary.topK(4).get(i).getKey().startsWith("heavy") : "testErrorBounds 5 failed";
+        }
+    }
+
+    /**
+     * Tests that fromFile() tokenizes a file the same way countFile does.
+     */
+    private static void testFromFile() throws IOException {
+        File temp = File.createTempFile("spacesaving", ".txt");
+        temp.deleteOnExit();
+        Files.write(temp.toPath(), "the cat\nthe dog\r\nthe the\n".getBytes());
+
+        SpaceSaving summary = SpaceSaving.fromFile(temp.getPath(), 2);
+        assert summary.totalCount() == 6 : "testFromFile 1 failed";
+        assert summary.topK(1).get(0).getKey().equals("the") : "testFromFile 2 failed";
+        assert summary.estimate("the") == 4 : "testFromFile 3 failed";
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Case-insensitive set of stop words, such as the common words in commonWords.txt.
+ *
+ * The words are held lowercased in a hashed set, so checking a word costs one
+ * hash lookup instead of a scan over the whole list. A word is a stop word if its
+ * lowercase form is in the set, which is how WordCounter.removeCommonWords has
+ * always matched common words.
+ *
+ * A filter can be given to WordCounter before counting so that stop words are
+ * dropped during ingestion and never enter the data structure.
+ *
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ *
+ * Compilation: javac StopWordFilter.java
+ */
+
+// Import required libraries
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+
+/**
+ * Hashed, case-insensitive stop word set.
+ */
+public class StopWordFilter {
+
+    // Instance fields
+    private HashSet<String> words;   // Stop words, lowercased
+
+    /**
+     * Constructs a filter for the given words.
+     *
+     * @param stopWords the words to filter, in any case
+     */
+    public StopWordFilter(Collection<String> stopWords) {
+        words = new HashSet<>(stopWords.size() * 2);
+        for (String word : stopWords) {
+            words.add(word.trim().toLowerCase());
+        }
+    }
+
+    /**
+     * Reads a filter from a file with one stop word per line.
+     *
+     * @param filename the file to read, such as commonWords.txt
+     * @return a filter for the words in the file
+     * @throws IOException if the file cannot be read
+     */
+    public static StopWordFilter fromFile(String filename) throws IOException {
+        HashSet<String> stopWords = new HashSet<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                stopWords.add(line);
+            }
+        }
+        return new StopWordFilter(stopWords);
+    }
+
+    /**
+     * Returns true if the lowercase form of word is a stop word.
+     *
+     * @param word the word to check
+     * @return true if the word should be filtered out
+     */
+    public boolean contains(String word) {
+        // toLowerCase returns the same String when there is nothing to change
+        return words.contains(word.toLowerCase());
+    }
+
+    //returns the number of stop words in the filter
+    public int size() {
+        return words.size();
+    }
+}
@@ -0,0 +1,244 @@
+/**
+ * Counts a small, fixed set of terms in a Reddit comment file in a single streaming scan.
+ *
+ * Tracking a handful of words (such as the political words in political_words.txt)
+ * does not need the full vocabulary of a year. This class scans the memory-mapped
+ * file with ByteTokenizer and checks each token against a tiny open-addressing
+ * table of the tracked terms, keyed by the same byte hash the tokenizer computes
+ * while scanning. Almost every token misses on the hash alone, no String is ever
+ * built, and memory use does not depend on the size of the file.
+ *
+ * Tokens are split exactly as WordCounter.countFile splits them, and matching is
+ * exact and case-sensitive, so getCount agrees with WordCounter.getCount.
+ *
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ *
+ * Usage:
+ *   javac TermTracker.java
+ *   java TermTracker [termsFile] [outputFile]
+ *
+ * With no arguments, the terms in political_words.txt are tracked across every
+ * reddit_comments_YYYY.txt file for 2008-2015 and written to political_words.txt.
+ */
+
+// Import required libraries
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single-pass counter for a fixed list of terms.
+ */
+public class TermTracker implements ByteTokenizer.TokenSink {
+
+    // Instance fields
+    private String[] terms;          // Tracked terms, in the order they were given
+    private byte[][] termBytes;      // Bytes of each term in the platform charset
+    private int[] counts;            // Occurrences of each term so far
+    private int[] slots;             // Open-addressing table of term index + 1, or 0 for empty
+    private int[] slotHashes;        // Byte hash of the term in the same slot
+    private long totalWords;         // Number of words scanned so far
+
+    /**
+     * Constructs a tracker for the given terms. Repeated terms are tracked once.
+     *
+     * @param terms the words to count, matched exactly and case-sensitively
+     */
+    public TermTracker(Collection<String> terms) {
+        ArrayList<String> unique = new ArrayList<>();
+        for (String term : terms) {
+            if (!term.isEmpty() && !unique.contains(term)) {
+                unique.add(term);
+            }
+        }
+        this.terms = unique.toArray(new String[0]);
+        termBytes = new byte[this.terms.length][];
+        counts = new int[this.terms.length];
+
+        // at most a quarter full, so a miss almost always stops at the first empty slot
+        int capacity = 16;
+        while (capacity < this.terms.length * 4) {
+            capacity *= 2;
+        }
+        slots = new int[capacity];
+        slotHashes = new int[capacity];
+        Charset charset = Charset.defaultCharset();
+        for (int i = 0; i < this.terms.length; i++) {
+            termBytes[i] = this.terms[i].getBytes(charset);
+            int hash = byteHash(termBytes[i]);
+            int index = slot(hash);
+            while (slots[index] != 0) {
+                index = (index + 1) & (slots.length - 1);
+            }
+            slots[index] = i + 1;
+            slotHashes[index] = hash;
+        }
+    }
+
+    /**
+     * Reads the terms to track from a file. Each line is either a term on its own or a
+     * line of political_words.txt output such as {@code "Obama" word count: 10826}, in
+     * which case the quoted word is the term. Blank lines and lines holding only a year
+     * are skipped.
+     *
+     * @param filename the file to read
+     * @return a tracker for the terms in the file
+     * @throws IOException if the file cannot be read
+     */
+    public static TermTracker fromFile(String filename) throws IOException {
+        ArrayList<String> terms = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                line = line.trim();
+                if (line.startsWith("\"") && line.indexOf('"', 1) > 1) {
+                    terms.add(line.substring(1, line.indexOf('"', 1)));
+                } else if (!line.isEmpty() && !line.chars().allMatch(Character::isDigit)) {
+                    terms.add(line);
+                }
+            }
+        }
+        return new TermTracker(terms);
+    }
+
+    //returns the hash ByteTokenizer computes for a token with these bytes
+    private static int byteHash(byte[] bytes) {
+        int hash = 0;
+        for (byte b : bytes) {
+            hash = 31 * hash + b;
+        }
+        return hash;
+    }
+
+    //returns the home slot for a hash value
+    private int slot(int hash) {
+        return (hash ^ (hash >>> 16)) & (slots.length - 1);
+    }
+
+    /**
+     * Scans a file and adds the occurrences of every tracked term to the counts.
+     *
+     * @param filename the file to scan
+     * @return the number of words read from the file
+     * @throws IOException if the file cannot be read
+     */
+    public int count(String filename) throws IOException {
+        int wordCount;
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            wordCount = ByteTokenizer.count(channel, 0, channel.size(), this);
+        }
+        totalWords += wordCount;
+        return wordCount;
+    }
+
+    //checks one token from the tokenizer against the tracked terms
+    @Override
+    public void token(MappedByteBuffer buffer, int offset, int length, int hash) {
+        int mask = slots.length - 1;
+        for (int index = slot(hash); slots[index] != 0; index = (index + 1) & mask) {
+            if (slotHashes[index] == hash && matches(termBytes[slots[index] - 1], buffer, offset, length)) {
+                counts[slots[index] - 1]++;
+                return;
+            }
+        }
+    }
+
+    //returns true if key holds the same bytes as buffer[offset, offset + length)
+    private static boolean matches(byte[] key, MappedByteBuffer buffer, int offset, int length) {
+        if (key.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (key[i] != buffer.get(offset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of times a term has been seen, or 0 if it is not tracked.
+     *
+     * @param term the term to look up
+     * @return the count of term
+     */
+    public int getCount(String term) {
+        for (int i = 0; i < terms.length; i++) {
+            if (terms[i].equals(term)) {
+                return counts[i];
+            }
+        }
+        return 0;
+    }
+
+    //returns the tracked terms, in the order they were given
+    public List<String> getTerms() {
+        return List.of(terms);
+    }
+
+    //returns the number of words scanned so far
+    public long totalWords() {
+        return totalWords;
+    }
+
+    //sets every count back to zero, so the tracker can be reused for another file
+    public void reset() {
+        counts = new int[terms.length];
+        totalWords = 0;
+    }
+
+    /**
+     * Tracks the terms in every year file and writes the counts in the political_words.txt
+     * format: each year on its own line, followed by a {@code "Term" word count: N} line per term.
+     *
+     * @param yearFiles the files to scan, keyed by year, in the order they should be written
+     * @param bw        the writer the counts are written to
+     * @throws IOException if a file cannot be read or written
+     */
+    public void trackYears(Map<Integer, String> yearFiles, BufferedWriter bw) throws IOException {
+        for (Map.Entry<Integer, String> entry : yearFiles.entrySet()) {
+            reset();
+            count(entry.getValue());
+            bw.write(Integer.toString(entry.getKey()));
+            bw.newLine();
+            for (int i = 0; i < terms.length; i++) {
+                bw.write("\"" + terms[i] + "\" word count: " + counts[i]);
+                bw.newLine();
+            }
+        }
+    }
+
+    /**
+     * Tracks the terms of a terms file across the Reddit comment files for 2008-2015.
+     *
+     * @param args the terms file and the output file, both political_words.txt if not given
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        String termsFile = args.length > 0 ? args[0] : "political_words.txt";
+        String outputFile = args.length > 1 ? args[1] : "political_words.txt";
+        TermTracker tracker = fromFile(termsFile);
+        Map<Integer, String> files = CorpusPipeline.findYearFiles(2008, 2015);
+        if (files.isEmpty()) {
+            System.out.println("No input files found. Place reddit_comments_YYYY.txt files here.");
+            return;
+        }
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(outputFile))) {
+            tracker.trackYears(files, bw);
+        }
+        System.out.println("Tracked " + tracker.getTerms().size() + " terms in " + files.size() + " years, written to " + outputFile);
+    }
+}
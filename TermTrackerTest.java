@@ -0,0 +1,109 @@
+/**
+ * Unit tests for TermTracker implementation.
+ *
+ * Tests that tracked terms are counted exactly as WordCounter counts them, and
+ * that term lists can be read in both plain and political_words.txt format.
+ *
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ *
+ * Usage:
+ *   javac TermTrackerTest.java
+ *   java -ea TermTrackerTest
+ */
+
+// Import required libraries
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Test suite for the single-pass TermTracker.
+ */
+public class TermTrackerTest {
+
+    /**
+     * Main method to run all test cases.
+     * Uses Java assertions to verify correctness.
+     *
+     * @param args command line arguments (not used)
+     * @throws IOException if the temporary test files cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        System.out.println("Running TermTracker tests...");
+        testCount();
+        testFromFile();
+        testTrackYears();
+        System.out.println("All TermTracker tests passed!");
+    }
+
+    //writes a temporary file and returns its path
+    private static String tempFile(String text) throws IOException {
+        File file = File.createTempFile("terms", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), text.getBytes());
+        return file.getPath();
+    }
+
+    /**
+     * Tests that tracked terms get the same counts as a full WordCounter map,
+     * with exact, case-sensitive matching.
+     */
+    private static void testCount() throws IOException {
+        String text = tempFile("Obama and Biden\r\n  Obama obama Obamas\n\nIraq\tObama\fTrump Trump\n");
+        TermTracker tracker = new TermTracker(Arrays.asList("Obama", "Biden", "Iraq", "Trump", "Clinton", "Obama"));
+        int words = tracker.count(text);
+
+        WordCounter full = new WordCounter("hashmap");
+        full.countFile(text);
+        assert words == full.totalWordCount() : "testCount 1 failed";
+        assert tracker.totalWords() == words : "testCount 2 failed";
+        assert tracker.getTerms().size() == 5 : "testCount 3 failed";
+        for (String term : tracker.getTerms()) {
+            assert tracker.getCount(term) == full.getCount(term) : "testCount 4 failed for " + term;
+        }
+        assert tracker.getCount("Obama") == 3 : "testCount 5 failed";
+        assert tracker.getCount("obama") == 0 : "testCount 6 failed";
+
+        tracker.count(text);
+        assert tracker.getCount("Trump") == 4 : "testCount 7 failed";
+        tracker.reset();
+        assert tracker.getCount("Trump") == 0 && tracker.totalWords() == 0 : "testCount 8 failed";
+    }
+
+    /**
+     * Tests reading terms from a plain list and from political_words.txt style output.
+     */
+    private static void testFromFile() throws IOException {
+        TermTracker plain = TermTracker.fromFile(tempFile("Obama\n\n Iraq \nDepression\n"));
+        assert plain.getTerms().equals(Arrays.asList("Obama", "Iraq", "Depression")) : "testFromFile 1 failed";
+
+        TermTracker output = TermTracker.fromFile(tempFile("2008\n\"Obama\" word count: 10826\n\"Isis\" word count: 2\n2009\n\"Obama\" word count: 6602\n"));
+        assert output.getTerms().equals(Arrays.asList("Obama", "Isis")) : "testFromFile 2 failed";
+    }
+
+    /**
+     * Tests that trackYears() writes each year's counts in the political_words.txt format.
+     */
+    private static void testTrackYears() throws IOException {
+        TreeMap<Integer, String> files = new TreeMap<>();
+        files.put(2008, tempFile("Obama Iraq Obama"));
+        files.put(2009, tempFile("Iraq"));
+        File output = File.createTempFile("tracked", ".txt");
+        output.deleteOnExit();
+
+        TermTracker tracker = new TermTracker(Arrays.asList("Obama", "Iraq"));
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(output))) {
+            tracker.trackYears(files, bw);
+        }
+        List<String> lines = Files.readAllLines(output.toPath());
+        assert lines.equals(Arrays.asList("2008", "\"Obama\" word count: 2", "\"Iraq\" word count: 1",
+                "2009", "\"Obama\" word count: 0", "\"Iraq\" word count: 1")) : "testTrackYears 1 failed: " + lines;
+    }
+}
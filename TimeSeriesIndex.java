@@ -0,0 +1,345 @@
+/**
+ * Persistent index from each word to its count in every year of the corpus.
+ *
+ * Trend questions ("how often was X used from 2008 to 2015?", "which words rose
+ * the most between 2010 and 2014?") used to mean re-running the whole pipeline for
+ * every year and diffing the text output. This index keeps one row of primitive
+ * int counts per word, one column per year, in a single flat array, along with
+ * each year's total word count. It is built one year at a time as the years are
+ * ingested and can be saved to and loaded from a compact binary file, so trends
+ * can be queried without reading any reddit_comments_*.txt file again.
+ *
+ * Looking up a word's series is a single hash lookup. Risers and fallers are
+ * ranked by the change in frequency (uses per million words) between two years;
+ * the ranking for a pair of years is computed once with a bounded heap and then
+ * cached, so repeated queries only copy out the cached answer.
+ *
+ * File layout: magic "WTS1", first year, number of years, each year's total word
+ * count (8 bytes), number of words, then for each word its varint UTF-8 length,
+ * its bytes and one varint count per year (see WordCountFile).
+ *
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ *
+ * Compilation: javac TimeSeriesIndex.java
+ */
+
+// Import required libraries
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Word to per-year count vector index with trend queries.
+ */
+public class TimeSeriesIndex {
+
+    // First four bytes of every saved index, "WTS1" in ASCII
+    public static final int MAGIC = 0x57545331;
+
+    // Number of risers and fallers kept in the cache for each pair of years
+    private static final int CACHED_RANKS = 1000;
+
+    // Instance fields
+    private int firstYear;           // Year of the first column
+    private int numYears;            // Number of columns in each row
+    private long[] totalWords;       // Total word count of each year
+    private String[] words;          // Word of each row
+    private int[] counts;            // Row-major counts: counts[row * numYears + column]
+    private int rows;                // Number of words in the index
+    private ObjectIntCountMap rowOf; // Row + 1 of every word
+    private HashMap<Long, int[]> rankings;   // Cached rows of the top risers or fallers, by query
+
+    /**
+     * Constructs an empty index for the years firstYear through lastYear.
+     *
+     * @param firstYear the first year in the index
+     * @param lastYear  the last year in the index
+     */
+    public TimeSeriesIndex(int firstYear, int lastYear) {
+        this(firstYear, lastYear, 1024);
+    }
+
+    //constructs an empty index with room for the given number of words
+    private TimeSeriesIndex(int firstYear, int lastYear, int expectedWords) {
+        if (lastYear < firstYear) {
+            throw new IllegalArgumentException("Last year " + lastYear + " is before first year " + firstYear);
+        }
+        this.firstYear = firstYear;
+        this.numYears = lastYear - firstYear + 1;
+        totalWords = new long[numYears];
+        words = new String[Math.max(16, expectedWords)];
+        counts = new int[words.length * numYears];
+        rows = 0;
+        rowOf = new ObjectIntCountMap((int) Math.ceil(Math.max(16, expectedWords) / 0.6));
+        rankings = new HashMap<>();
+    }
+
+    //returns the column of a year, checking that the year is in the index
+    private int column(int year) {
+        if (year < firstYear || year >= firstYear + numYears) {
+            throw new IllegalArgumentException("Year " + year + " is not in the index (" + firstYear + "-" + lastYear() + ")");
+        }
+        return year - firstYear;
+    }
+
+    //returns the row of word, adding an empty row if the word is new
+    private int rowFor(String word) {
+        int row = rowOf.getCount(word) - 1;
+        if (row >= 0) {
+            return row;
+        }
+        if (rows == words.length) {
+            words = Arrays.copyOf(words, rows * 2);
+            counts = Arrays.copyOf(counts, rows * 2 * numYears);
+        }
+        words[rows] = word;
+        rowOf.put(word, rows + 1);
+        return rows++;
+    }
+
+    /**
+     * Adds one year's counts to the index. Calling this again for the same year adds to
+     * the counts already there, so a year can be ingested in several parts.
+     *
+     * @param year       the year the counts are for
+     * @param yearCounts the words of the year and their counts
+     * @param yearTotal  the total number of words read for the year
+     */
+    public void addYear(int year, MapSet<String, Integer> yearCounts, long yearTotal) {
+        int column = column(year);
+        if (yearCounts instanceof ObjectIntCountMap) {
+            ((ObjectIntCountMap) yearCounts).forEachCount((word, count) -> counts[rowFor(word) * numYears + column] += count);
+        } else {
+            yearCounts.forEach((word, count) -> counts[rowFor(word) * numYears + column] += count);
+        }
+        totalWords[column] += yearTotal;
+        rankings = new HashMap<>();
+    }
+
+    /**
+     * Returns the count of word in each year, first year first. A word that is not
+     * in the index has a count of 0 in every year.
+     *
+     * @param word the word to look up
+     * @return a new array of the word's count in each year
+     */
+    public int[] getCounts(String word) {
+        int row = rowOf.getCount(word) - 1;
+        if (row < 0) {
+            return new int[numYears];
+        }
+        return Arrays.copyOfRange(counts, row * numYears, (row + 1) * numYears);
+    }
+
+    /**
+     * Returns the count of word in one year.
+     *
+     * @param word the word to look up
+     * @param year the year to look up
+     * @return the number of times word was used that year
+     */
+    public int getCount(String word, int year) {
+        int column = column(year);
+        int row = rowOf.getCount(word) - 1;
+        return row < 0 ? 0 : counts[row * numYears + column];
+    }
+
+    /**
+     * Returns the frequency of word in each year, in uses per million words.
+     * A year with no words has a frequency of 0.
+     *
+     * @param word the word to look up
+     * @return a new array of the word's frequency in each year
+     */
+    public double[] getFrequencies(String word) {
+        int[] series = getCounts(word);
+        double[] frequencies = new double[numYears];
+        for (int i = 0; i < numYears; i++) {
+            frequencies[i] = frequency(series[i], i);
+        }
+        return frequencies;
+    }
+
+    //returns a count as uses per million words of the year in the given column
+    private double frequency(int count, int column) {
+        return totalWords[column] == 0 ? 0 : count * 1e6 / totalWords[column];
+    }
+
+    /**
+     * Returns the k words whose frequency rose the most from fromYear to toYear,
+     * biggest rise first, each paired with its change in uses per million words.
+     *
+     * @param fromYear the earlier year
+     * @param toYear   the later year
+     * @param k        the number of words to return
+     * @return up to k words with the largest increase in frequency
+     */
+    public List<MapSet.KeyValuePair<String, Double>> risers(int fromYear, int toYear, int k) {
+        return ranked(column(fromYear), column(toYear), k, 1);
+    }
+
+    /**
+     * Returns the k words whose frequency fell the most from fromYear to toYear,
+     * biggest fall first, each paired with its (negative) change in uses per million words.
+     *
+     * @param fromYear the earlier year
+     * @param toYear   the later year
+     * @param k        the number of words to return
+     * @return up to k words with the largest decrease in frequency
+     */
+    public List<MapSet.KeyValuePair<String, Double>> fallers(int fromYear, int toYear, int k) {
+        return ranked(column(fromYear), column(toYear), k, -1);
+    }
+
+    //returns how far the word in row moved between two columns, times sign
+    private double score(int row, int from, int to, int sign) {
+        return sign * (frequency(counts[row * numYears + to], to) - frequency(counts[row * numYears + from], from));
+    }
+
+    /*
+     * returns the top k rows by score, using the cached ranking for this pair of years when
+     * it is long enough, and computing (and caching) it otherwise
+     */
+    private List<MapSet.KeyValuePair<String, Double>> ranked(int from, int to, int k, int sign) {
+        long key = ((long) (from * numYears + to) << 1) | (sign > 0 ? 1 : 0);
+        int[] top = rankings.get(key);
+        if (top == null || (top.length < k && top.length < rows)) {
+            top = topRows(from, to, Math.max(k, CACHED_RANKS), sign);
+            rankings.put(key, top);
+        }
+        ArrayList<MapSet.KeyValuePair<String, Double>> result = new ArrayList<>(Math.min(k, top.length));
+        for (int i = 0; i < k && i < top.length; i++) {
+            result.add(new MapSet.KeyValuePair<>(words[top[i]], sign * score(top[i], from, to, sign)));
+        }
+        return result;
+    }
+
+    /*
+     * finds the k rows with the highest score with a min-heap that never holds more than k rows,
+     * and returns them highest first. ties go to the alphabetically smaller word
+     */
+    private int[] topRows(int from, int to, int k, int sign) {
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.min(k, rows) + 1, (a, b) -> {
+            int byScore = Double.compare(score(a, from, to, sign), score(b, from, to, sign));
+            return byScore != 0 ? byScore : words[b].compareTo(words[a]);
+        });
+        for (int row = 0; row < rows; row++) {
+            heap.add(row);
+            if (heap.size() > k) {
+                heap.poll();
+            }
+        }
+        int[] top = new int[heap.size()];
+        for (int i = top.length - 1; i >= 0; i--) {
+            top[i] = heap.poll();
+        }
+        return top;
+    }
+
+    //returns the total number of words read for a year
+    public long getTotalWords(int year) {
+        return totalWords[column(year)];
+    }
+
+    //returns the number of words in the index
+    public int size() {
+        return rows;
+    }
+
+    //returns the first year in the index
+    public int firstYear() {
+        return firstYear;
+    }
+
+    //returns the last year in the index
+    public int lastYear() {
+        return firstYear + numYears - 1;
+    }
+
+    /**
+     * Saves the index to a binary file.
+     *
+     * @param filename the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void save(String filename) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(firstYear);
+            out.writeInt(numYears);
+            for (long total : totalWords) {
+                out.writeLong(total);
+            }
+            out.writeInt(rows);
+            for (int row = 0; row < rows; row++) {
+                byte[] bytes = words[row].getBytes(StandardCharsets.UTF_8);
+                WordCountFile.writeVarint(out, bytes.length);
+                out.write(bytes);
+                for (int column = 0; column < numYears; column++) {
+                    WordCountFile.writeVarint(out, counts[row * numYears + column]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads an index saved with save(), memory-mapping the file and sizing the index
+     * for its number of words up front.
+     *
+     * @param filename the file to read
+     * @return the loaded index
+     * @throws IOException if the file cannot be read or is not a saved index
+     */
+    public static TimeSeriesIndex load(String filename) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Index file is too large to map: " + filename);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a time series index file: " + filename);
+            }
+            int firstYear = buffer.getInt();
+            int numYears = buffer.getInt();
+            long[] totals = new long[numYears];
+            for (int i = 0; i < numYears; i++) {
+                totals[i] = buffer.getLong();
+            }
+            int numWords = buffer.getInt();
+
+            TimeSeriesIndex index = new TimeSeriesIndex(firstYear, firstYear + numYears - 1, numWords);
+            index.totalWords = totals;
+            byte[] scratch = new byte[64];
+            for (int i = 0; i < numWords; i++) {
+                int length = WordCountFile.readVarint(buffer, filename);
+                if (scratch.length < length) {
+                    scratch = new byte[Math.max(length, scratch.length * 2)];
+                }
+                buffer.get(scratch, 0, length);
+                int row = index.rowFor(new String(scratch, 0, length, StandardCharsets.UTF_8));
+                for (int column = 0; column < numYears; column++) {
+                    index.counts[row * numYears + column] = WordCountFile.readVarint(buffer, filename);
+                }
+            }
+            return index;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IOException("Truncated or malformed time series index file: " + filename, e);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Unit tests for TimeSeriesIndex implementation.
+ *
+ * Tests per-year lookups, riser and faller rankings, saving and loading, and
+ * building the index from a CorpusPipeline run.
+ *
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ *
+ * Usage:
+ *   javac TimeSeriesIndexTest.java
+ *   java -ea TimeSeriesIndexTest
+ */
+
+// Import required libraries
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Test suite for the per-year TimeSeriesIndex.
+ */
+public class TimeSeriesIndexTest {
+
+    /**
+     * Main method to run all test cases.
+     * Uses Java assertions to verify correctness.
+     *
+     * @param args command line arguments (not used)
+     * @throws IOException if the temporary test files cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        System.out.println("Running TimeSeriesIndex tests...");
+        testAddYear();
+        testRisersAndFallers();
+        testSaveAndLoad();
+        testPipeline();
+        System.out.println("All TimeSeriesIndex tests passed!");
+    }
+
+    //returns a map holding the given words and counts
+    private static MapSet<String, Integer> counts(MapSet<String, Integer> map, Object... wordsAndCounts) {
+        for (int i = 0; i < wordsAndCounts.length; i += 2) {
+            map.put((String) wordsAndCounts[i], (Integer) wordsAndCounts[i + 1]);
+        }
+        return map;
+    }
+
+    //returns a small three-year index
+    private static TimeSeriesIndex sample() {
+        TimeSeriesIndex index = new TimeSeriesIndex(2008, 2010);
+        index.addYear(2008, counts(new ObjectIntCountMap(), "the", 50, "cat", 30, "dog", 20), 100);
+        index.addYear(2009, counts(new HashMap<>(), "the", 50, "cat", 10, "dog", 20, "meme", 20), 100);
+        index.addYear(2010, counts(new AVLTree<>(), "the", 100, "cat", 10, "meme", 90), 200);
+        return index;
+    }
+
+    /**
+     * Tests that counts are kept per year, and that missing words and years are handled.
+     */
+    private static void testAddYear() {
+        TimeSeriesIndex index = sample();
+        assert index.size() == 4 : "testAddYear 1 failed";
+        assert Arrays.equals(index.getCounts("cat"), new int[] {30, 10, 10}) : "testAddYear 2 failed";
+        assert Arrays.equals(index.getCounts("meme"), new int[] {0, 20, 90}) : "testAddYear 3 failed";
+        assert Arrays.equals(index.getCounts("absent"), new int[3]) : "testAddYear 4 failed";
+        assert index.getCount("dog", 2010) == 0 && index.getCount("dog", 2009) == 20 : "testAddYear 5 failed";
+        assert index.getTotalWords(2010) == 200 : "testAddYear 6 failed";
+        assert Arrays.equals(index.getFrequencies("the"), new double[] {500000, 500000, 500000}) : "testAddYear 7 failed";
+
+        // a second part of the same year adds to it
+        index.addYear(2010, counts(new ObjectIntCountMap(), "dog", 5), 5);
+        assert index.getCount("dog", 2010) == 5 && index.getTotalWords(2010) == 205 : "testAddYear 8 failed";
+
+        boolean thrown = false;
+        try {
+            index.getCount("the", 2011);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "testAddYear 9 failed";
+    }
+
+    /**
+     * Tests that risers and fallers are ranked by change in frequency, and that
+     * rankings are recomputed after a year is added.
+     */
+    private static void testRisersAndFallers() {
+        TimeSeriesIndex index = sample();
+        List<MapSet.KeyValuePair<String, Double>> risers = index.risers(2008, 2010, 2);
+        assert risers.size() == 2 : "testRisersAndFallers 1 failed";
+        assert risers.get(0).getKey().equals("meme") && risers.get(0).getValue() == 450000 : "testRisersAndFallers 2 failed";
+        // "the" is unchanged at 0; ties would go to the alphabetically smaller word
+        assert risers.get(1).getKey().equals("the") && risers.get(1).getValue() == 0 : "testRisersAndFallers 3 failed";
+
+        List<MapSet.KeyValuePair<String, Double>> fallers = index.fallers(2008, 2010, 10);
+        assert fallers.size() == 4 : "testRisersAndFallers 4 failed";
+        assert fallers.get(0).getKey().equals("cat") && fallers.get(0).getValue() == -250000 : "testRisersAndFallers 5 failed";
+        assert fallers.get(1).getKey().equals("dog") && fallers.get(1).getValue() == -200000 : "testRisersAndFallers 6 failed";
+
+        // a cached ranking answers a smaller query the same way
+        assert index.risers(2008, 2010, 1).get(0).getKey().equals("meme") : "testRisersAndFallers 7 failed";
+
+        index.addYear(2010, counts(new ObjectIntCountMap(), "dog", 1000), 1000);
+        assert index.risers(2008, 2010, 1).get(0).getKey().equals("dog") : "testRisersAndFallers 8 failed";
+    }
+
+    /**
+     * Tests that a saved index loads with the same years, totals and counts.
+     */
+    private static void testSaveAndLoad() throws IOException {
+        TimeSeriesIndex index = sample();
+        File file = File.createTempFile("index", ".bin");
+        file.deleteOnExit();
+        index.save(file.getPath());
+
+        TimeSeriesIndex loaded = TimeSeriesIndex.load(file.getPath());
+        assert loaded.firstYear() == 2008 && loaded.lastYear() == 2010 : "testSaveAndLoad 1 failed";
+        assert loaded.size() == index.size() : "testSaveAndLoad 2 failed";
+        for (String word : new String[] {"the", "cat", "dog", "meme"}) {
+            assert Arrays.equals(loaded.getCounts(word), index.getCounts(word)) : "testSaveAndLoad 3 failed for " + word;
+        }
+        assert loaded.getTotalWords(2010) == 200 : "testSaveAndLoad 4 failed";
+        assert loaded.risers(2008, 2010, 1).get(0).getKey().equals("meme") : "testSaveAndLoad 5 failed";
+
+        // a word count file is not an index
+        File other = File.createTempFile("counts", ".bin");
+        other.deleteOnExit();
+        WordCountFile.write(other.getPath(), 1, counts(new HashMap<>(), "a", 1), false);
+        boolean thrown = false;
+        try {
+            TimeSeriesIndex.load(other.getPath());
+        } catch (IOException e) {
+            thrown = true;
+        }
+        assert thrown : "testSaveAndLoad 6 failed";
+    }
+
+    /**
+     * Tests that a pipeline run fills the index with each year's counts.
+     */
+    private static void testPipeline() throws IOException {
+        File dir = Files.createTempDirectory("index").toFile();
+        dir.deleteOnExit();
+        TreeMap<Integer, String> files = new TreeMap<>();
+        for (int year = 2008; year <= 2009; year++) {
+            File file = new File(dir, "reddit_comments_" + year + ".txt");
+            file.deleteOnExit();
+            new File(CorpusPipeline.snapshotName(file.getPath())).deleteOnExit();
+            Files.write(file.toPath(), (year == 2008 ? "the cat\nthe" : "cat cat dog").getBytes());
+            files.put(year, file.getPath());
+        }
+
+        TimeSeriesIndex index = new TimeSeriesIndex(2008, 2009);
+        CorpusPipeline pipeline = new CorpusPipeline("hashmap", 2);
+        pipeline.setIndex(index);
+        pipeline.run(files);
+
+        assert Arrays.equals(index.getCounts("the"), new int[] {2, 0}) : "testPipeline 1 failed";
+        assert Arrays.equals(index.getCounts("cat"), new int[] {1, 2}) : "testPipeline 2 failed";
+        assert index.getTotalWords(2008) == 3 && index.getTotalWords(2009) == 3 : "testPipeline 3 failed";
+    }
+}
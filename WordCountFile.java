@@ -0,0 +1,298 @@
+/**
+ * Compact binary format for saved word counts.
+ *
+ * The text format written by WordCounter.writeWordCount has to be split with a regex
+ * and parsed with Integer.parseInt line by line. This format is read straight out of
+ * a memory-mapped file instead, and the header says how many entries follow, so the
+ * map can be sized once up front rather than resized as it grows.
+ *
+ * Layout (all fixed-width numbers are big-endian):
+ * - magic number "WCB1" (4 bytes)
+ * - flags (4 bytes); SORTED means the entries are in ascending key order
+ * - total word count (8 bytes)
+ * - number of entries (4 bytes)
+ * - each entry: varint length of the word in UTF-8, the UTF-8 bytes, varint count
+ *
+ * A varint stores 7 bits per byte, least significant group first, with the high bit
+ * set on every byte but the last, so most counts take one or two bytes.
+ *
+ * A sorted file can be loaded into BSTMap or AVLTree with buildFromSorted, which
+ * builds a balanced tree in linear time.
+ *
+ * @author Hunter Broughton
+ * @course CS231A
+ * @date April 2023
+ *
+ * Compilation: javac WordCountFile.java
+ */
+
+// Import required libraries
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+/**
+ * Reader and writer for binary word count files.
+ */
+public class WordCountFile {
+
+    // First four bytes of every binary word count file, "WCB1" in ASCII
+    public static final int MAGIC = 0x57434231;
+
+    // Flag set when the entries are written in ascending key order
+    public static final int SORTED = 1;
+
+    // Instance fields
+    private String filename;         // File this was read from, for error messages
+    private MappedByteBuffer buffer; // The whole file, positioned at the first entry
+    private int flags;               // Flags from the header
+    private long totalWords;         // Total word count from the header
+    private int entryCount;          // Number of entries from the header
+
+    //maps the file and reads its header
+    private WordCountFile(String filename) throws IOException {
+        this.filename = filename;
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Word count file is too large to map: " + filename);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a binary word count file: " + filename);
+            }
+            flags = buffer.getInt();
+            totalWords = buffer.getLong();
+            entryCount = buffer.getInt();
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Not a binary word count file: " + filename, e);
+        }
+        // every entry takes at least two bytes (a one-byte length and a one-byte count), so a larger
+        // count can only come from a corrupt header, and would otherwise be used to size the map
+        if (entryCount < 0 || entryCount > buffer.remaining() / 2) {
+            throw new IOException("Truncated or malformed word count file: " + filename);
+        }
+    }
+
+    /**
+     * Memory-maps a binary word count file and reads its header.
+     *
+     * @param filename the file to open
+     * @return the opened file, ready for readInto
+     * @throws IOException if the file cannot be read or is not in the binary format
+     */
+    public static WordCountFile open(String filename) throws IOException {
+        return new WordCountFile(filename);
+    }
+
+    /**
+     * Returns true if the file starts with the binary format's magic number.
+     *
+     * @param filename the file to check
+     * @return true if the file is a binary word count file
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isBinary(String filename) throws IOException {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(filename))) {
+            return in.readInt() == MAGIC;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes word counts to a file in the binary format.
+     *
+     * @param filename   the file to write
+     * @param totalWords the total word count to store in the header
+     * @param counts     the words and their counts
+     * @param sorted     true to write the entries in ascending key order and set the SORTED flag
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(String filename, long totalWords, MapSet<String, Integer> counts, boolean sorted) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(sorted ? SORTED : 0);
+            out.writeLong(totalWords);
+            out.writeInt(counts.size());
+            BiConsumer<String, Integer> writeEntry = (word, count) -> {
+                try {
+                    byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+                    writeVarint(out, bytes.length);
+                    out.write(bytes);
+                    writeVarint(out, count);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+            try {
+                if (sorted) {
+                    forEachInKeyOrder(counts, writeEntry);
+                } else {
+                    counts.forEach(writeEntry);
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Calls action on every entry of counts in ascending key order. If the map already
+     * iterates in key order, as the trees do, its entries are streamed directly; otherwise
+     * they are copied and sorted once.
+     *
+     * @param counts the words and their counts
+     * @param action the action to be performed for each word and count
+     */
+    public static void forEachInKeyOrder(MapSet<String, Integer> counts, BiConsumer<String, Integer> action) {
+        String[] previous = new String[1];
+        boolean[] ordered = {true};
+        counts.forEach((word, count) -> {
+            if (previous[0] != null && previous[0].compareTo(word) >= 0) {
+                ordered[0] = false;
+            }
+            previous[0] = word;
+        });
+
+        if (ordered[0]) {
+            counts.forEach(action);
+        } else {
+            ArrayList<MapSet.KeyValuePair<String, Integer>> entries = counts.entrySet();
+            entries.sort((a, b) -> a.getKey().compareTo(b.getKey()));
+            for (MapSet.KeyValuePair<String, Integer> entry : entries) {
+                action.accept(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    //returns the total word count stored in the header
+    public long totalWords() {
+        return totalWords;
+    }
+
+    //returns true if the entries are stored in ascending key order
+    public boolean isSorted() {
+        return (flags & SORTED) != 0;
+    }
+
+    //returns the number of entries stored in the file
+    public int entryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Adds every entry of the file to target, merging with any counts already there.
+     * Counts are added without boxing when target is an ObjectIntCountMap.
+     *
+     * @param target the map to add the counts to
+     * @throws IOException if the file is truncated or malformed
+     */
+    public void readInto(MapSet<String, Integer> target) throws IOException {
+        ObjectIntCountMap counts = (target instanceof ObjectIntCountMap) ? (ObjectIntCountMap) target : null;
+        byte[] scratch = new byte[64];
+        try {
+            for (int i = 0; i < entryCount; i++) {
+                int length = readVarint();
+                if (scratch.length < length) {
+                    scratch = new byte[Math.max(length, scratch.length * 2)];
+                }
+                buffer.get(scratch, 0, length);
+                String word = new String(scratch, 0, length, StandardCharsets.UTF_8);
+                int count = readVarint();
+                if (counts != null) {
+                    counts.add(word, count);
+                } else {
+                    target.merge(word, count, Integer::sum);
+                }
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Truncated or malformed word count file: " + filename, e);
+        }
+    }
+
+    /**
+     * Returns an iterator that decodes the entries of the file one at a time, in file order.
+     * A truncated or malformed file makes the iterator throw an UncheckedIOException.
+     * Like readInto, this reads from the current position, so it can only be used once.
+     *
+     * @return an iterator over the entries of the file
+     */
+    public Iterator<MapSet.KeyValuePair<String, Integer>> entries() {
+        return new Iterator<MapSet.KeyValuePair<String, Integer>>() {
+            private int read = 0;
+            private byte[] scratch = new byte[64];
+
+            @Override
+            public boolean hasNext() {
+                return read < entryCount;
+            }
+
+            @Override
+            public MapSet.KeyValuePair<String, Integer> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    int length = readVarint();
+                    if (scratch.length < length) {
+                        scratch = new byte[Math.max(length, scratch.length * 2)];
+                    }
+                    buffer.get(scratch, 0, length);
+                    String word = new String(scratch, 0, length, StandardCharsets.UTF_8);
+                    int count = readVarint();
+                    read++;
+                    return new MapSet.KeyValuePair<>(word, count);
+                } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                    throw new UncheckedIOException(new IOException("Truncated or malformed word count file: " + filename, e));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    //writes an int as a varint; negative values take five bytes
+    static void writeVarint(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    //reads a varint written by writeVarint from the current position of the buffer
+    private int readVarint() throws IOException {
+        return readVarint(buffer, filename);
+    }
+
+    //reads a varint written by writeVarint from the current position of a buffer
+    static int readVarint(ByteBuffer buffer, String filename) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in " + filename);
+    }
+}
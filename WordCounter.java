@@ -23,13 +23,18 @@
 // Import required libraries
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.BiConsumer;
 
 /**
  * Main class for word frequency analysis of text files.
@@ -64,6 +69,9 @@ public class WordCounter {
          * WARNING: This is computationally intensive and may take considerable time.
          * Requires: java -Xmx8g WordCounter
          * 
+         * These are single cold runs, so the times include JIT warmup and GC pauses. For
+         * repeatable, warmed-up numbers on generated data, run MapSetBenchmark instead.
+         * 
          * Uncomment this block to run performance analysis.
          */
 
@@ -89,6 +97,25 @@ public class WordCounter {
         // }
 
 
+
+        /*
+         * MULTI-YEAR PIPELINE MODE
+         * 
+         * Counts every reddit_comments_YYYY.txt file for 2008-2015, two years at a time, saving a
+         * binary snapshot per year and merging all the years into one map. Each file is only read once.
+         * See CorpusPipeline.java, which can also be run on its own.
+         * 
+         * Uncomment this block to run the pipeline.
+         */
+
+        // CorpusPipeline pipeline = new CorpusPipeline("HashMap", 2);
+        // WordCounter allYears = pipeline.run(CorpusPipeline.findYearFiles(2008, 2015));
+        // for(CorpusPipeline.YearResult result : pipeline.getYearResults()){
+        //     System.out.println(result);
+        // }
+        // System.out.println("Unique words in all years: " + allYears.uniqueWordCount());
+
+
         
 
         /*
@@ -105,10 +132,11 @@ public class WordCounter {
         
         // LINE 108: Change this filename to analyze a different year's data
         // Available: reddit_comments_2008.txt, reddit_comments_2009.txt, etc.
-        ArrayList<String> redditWords = myWordCounter.readWords("reddit_comments_2011.txt");
-        
-        double buildTime = myWordCounter.buildMap(redditWords);
-        System.out.println("Build time: " + buildTime + " ms");
+        // countFile streams the file into the map, so the words are never all held in memory at once
+        // the avl tree is not a counting backend, so this time covers tokenizing, the staging table
+        // and copying each distinct word into the tree, not building the tree alone (use buildMap for that)
+        double countTime = myWordCounter.countFile("reddit_comments_2011.txt");
+        System.out.println("Count time (tokenizing, staging table and copy into the tree): " + countTime + " ms");
         
         myWordCounter.writeWordCount("reddit_comments_2011_written.txt");
         System.out.println("Max tree depth: " + myWordCounter.myMapSet.maxDepth());
@@ -128,6 +156,9 @@ public class WordCounter {
          * WARNING: Computationally intensive, processes all Reddit comment files.
          * 
          * Uncomment this block to run political word analysis.
+         * 
+         * To only count the political words, without building each year's full vocabulary,
+         * run TermTracker instead: it scans each year once and writes the same file.
          */
 
         // try(BufferedWriter bw = new BufferedWriter(new FileWriter("political_words.txt"))){
@@ -143,6 +174,9 @@ public class WordCounter {
     // Instance fields
     MapSet<String, Integer> myMapSet;  // The underlying data structure
     int wordCount;                     // Total number of words processed
+    StopWordFilter stopWords;          // Words dropped while counting, or null to keep every word
+    String dataStructure;              // Name of the data structure, used to make a presized replacement
+    int expectedWords;                 // Distinct words the map was sized for, or 0 if it was not sized
 
     /**
      * Constructs a WordCounter with the specified data structure.
@@ -151,22 +185,74 @@ public class WordCounter {
      *                     "bst" for Binary Search Tree
      *                     "HashMap" for Hash Table  
      *                     "avl" for AVL Tree
+     *                     "intmap" for an open-addressing map with unboxed int counts
+     *                     "robinhood" for a Hash Table with Robin Hood open addressing
+     *                     "trie" for a compressed radix trie with prefix queries
+     *                     "offheap" for a counting map whose words are stored outside the heap
+     *                     "concurrent" for a thread-safe counting map that many threads can share
+     *                     "sketch" for approximate counts in a fixed-size Count-Min Sketch
      */
     public WordCounter(String dataStructure) {
-        switch (dataStructure.toLowerCase()) {
+        this(dataStructure, 0);
+    }
+
+    /**
+     * Constructs a WordCounter whose data structure is sized up front for the given number
+     * of distinct words, so the hash tables never resize while counting. HyperLogLog or
+     * approximateUniqueWordCount give a good hint without counting the file.
+     *
+     * @param dataStructure the type of data structure to use, as for WordCounter(String)
+     * @param expectedWords the number of distinct words expected, or 0 to start small and grow
+     */
+    public WordCounter(String dataStructure, int expectedWords) {
+        this.dataStructure = dataStructure.toLowerCase();
+        this.expectedWords = Math.max(0, expectedWords);
+        myMapSet = createMapSet(this.dataStructure, this.expectedWords);
+        wordCount = 0;
+    }
+
+    /**
+     * Constructs a WordCounter that counts approximately into the given Count-Min Sketch.
+     * Memory stays fixed however many distinct words are read; getCount and getFrequency
+     * return estimates that are never too low, getCountError bounds how far they may be
+     * too high, and topK lists the sketch's heavy hitters.
+     *
+     * @param sketch the sketch to count into, sized for the error or memory wanted
+     */
+    public WordCounter(CountMinSketch sketch) {
+        this.dataStructure = "sketch";
+        myMapSet = sketch;
+        wordCount = 0;
+    }
+
+    /*
+     * makes an empty data structure of the given type. the hash tables are given enough
+     * buckets to hold expectedWords words without resizing; the trees and the trie need no sizing
+     */
+    private static MapSet<String, Integer> createMapSet(String dataStructure, int expectedWords) {
+        switch (dataStructure) {
             case "bst":
-                myMapSet = new BSTMap<>();
-                break;
+                return new BSTMap<>();
             case "hashmap":
-                myMapSet = new HashMap<>();
-                break;
+                return new HashMap<>(Math.max(16, (int) Math.ceil(expectedWords / 0.75)));
             case "avl":
-                myMapSet = new AVLTree<>();
-                break;
+                return new AVLTree<>();
+            case "intmap":
+                return new ObjectIntCountMap(Math.max(16, (int) Math.ceil(expectedWords / 0.6)));
+            case "robinhood":
+                return new RobinHoodHashMap<>(Math.max(16, (int) Math.ceil(expectedWords / 0.75)));
+            case "trie":
+                return new RadixTrie();
+            case "offheap":
+                return new OffHeapCountMap(Math.max(16, (int) Math.ceil(expectedWords / 0.6)));
+            case "concurrent":
+                return new ConcurrentCountMap(Math.max(16, expectedWords));
+            case "sketch":
+                // a 32 MB budget buys 5 rows of 2^20 counters: off by at most 2.6 per million words, 99% of the time
+                return CountMinSketch.withByteBudget(32 << 20, 0.01, 1000);
             default:
                 throw new IllegalArgumentException("Unsupported data structure: " + dataStructure);
         }
-        wordCount = 0;
     }
 
 
@@ -179,9 +265,8 @@ public class WordCounter {
      */
     public static void exploration(String mapType, int year, BufferedWriter bw) throws IOException{
             WordCounter myWordCounter = new WordCounter(mapType);
-            ArrayList<String> redditWords = myWordCounter.readWords("reddit_comments_" + year + ".txt");
-            System.out.println(myWordCounter.buildMap(redditWords));
-            myWordCounter.removeCommonWords("commonWords.txt");
+            myWordCounter.setCommonWordFilter("commonWords.txt");
+            System.out.println(myWordCounter.countFile("reddit_comments_" + year + ".txt"));
             myWordCounter.writeWordCount("reddit_comments_" + year + "_written.txt");
             //myWordCounter.getMostFrequentWords();
             bw.write(Integer.toString(year));
@@ -213,31 +298,41 @@ public class WordCounter {
     /*
      * this method will read in the list of common words from kaggle, and then remove 
      * all of the common words from the data structure
+     * 
+     * a Count-Min Sketch cannot remove words, so for the sketch backend the common words
+     * have to be dropped while counting with setCommonWordFilter instead
      */
     public void removeCommonWords(String commonWordsFilename) throws IOException {
-        // Read common words from the file
-        List<String> commonWords = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(commonWordsFilename))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                commonWords.add(line.trim().toLowerCase());
-            }
+        if (myMapSet instanceof CountMinSketch) {
+            throw new IllegalStateException("A Count-Min Sketch cannot remove words; call setCommonWordFilter before counting instead");
+        }
+
+        // Read common words into a hashed set, so each check is a single lookup
+        StopWordFilter commonWords;
+        try {
+            commonWords = StopWordFilter.fromFile(commonWordsFilename);
         } catch (IOException e) {
             e.printStackTrace();
+            return;
         }
     
-        // Remove common words from the map
-        List<String> wordsToRemove = new ArrayList<>();
-        for (MapSet.KeyValuePair<String, Integer> entry : myMapSet.entrySet()) {
-            String word = entry.getKey();
-            if (commonWords.contains(word.toLowerCase())) {
-                wordsToRemove.add(word);
-            }
-        }
-    
-        for (String wordToRemove : wordsToRemove) {
-            myMapSet.remove(wordToRemove);
-        }
+        // Remove every common word in one bulk pass over the map
+        myMapSet.removeIf((word, count) -> commonWords.contains(word));
+    }
+
+    /*
+     * reads in the list of common words and drops them while counting from now on, so they
+     * never enter the data structure and removeCommonWords is not needed afterwards.
+     * 
+     * totalWordCount still includes the common words, just like it does after removeCommonWords
+     */
+    public void setCommonWordFilter(String commonWordsFilename) throws IOException {
+        stopWords = StopWordFilter.fromFile(commonWordsFilename);
+    }
+
+    //sets the words to drop while counting, or null to keep every word
+    public void setStopWords(StopWordFilter stopWords) {
+        this.stopWords = stopWords;
     }
     
     
@@ -269,9 +364,7 @@ public class WordCounter {
      * This method writes to a file, highest_frequency_words.txt, the words that appear the most frequently in a given year
      */
     public List<MapSet.KeyValuePair<String, Integer>> getMostFrequentWords() throws IOException{
-        ArrayList<MapSet.KeyValuePair<String, Integer>> sortedStrings = new ArrayList<>(myMapSet.entrySet());
-        sortedStrings.sort((s1, s2) -> s2.getValue().compareTo(s1.getValue()));
-        List<MapSet.KeyValuePair<String, Integer>> topWords = sortedStrings.subList(0, 150);
+        List<MapSet.KeyValuePair<String, Integer>> topWords = topK(150);
 
         try(BufferedWriter bw = new BufferedWriter(new FileWriter("highest_frequency_words.txt"))){
             for(MapSet.KeyValuePair<String, Integer> word : topWords){
@@ -284,6 +377,50 @@ public class WordCounter {
         return topWords;
     }
 
+    /*
+     * returns the k most frequent words in the data structure, most frequent first.
+     * words with the same count are ordered alphabetically, and if the map holds fewer
+     * than k words, all of them are returned.
+     * 
+     * instead of sorting the whole vocabulary, the map is streamed with forEach into a min-heap
+     * that never holds more than k entries, with the least frequent of the current top k on top.
+     * a word only gets into the heap (and only gets a KeyValuePair) if it beats that minimum,
+     * so this takes O(N log k) time and O(k) extra memory.
+     */
+    public List<MapSet.KeyValuePair<String, Integer>> topK(int k){
+        if(k <= 0){
+            return new ArrayList<>();
+        }
+        PriorityQueue<MapSet.KeyValuePair<String, Integer>> heap = new PriorityQueue<>(Math.min(k, myMapSet.size()) + 1, WordCounter::compareFrequency);
+        myMapSet.forEach((word, count) -> {
+            if(heap.size() < k){
+                heap.add(new MapSet.KeyValuePair<>(word, count));
+            }else{
+                MapSet.KeyValuePair<String, Integer> min = heap.peek();
+                if(count > min.getValue() || (count.equals(min.getValue()) && word.compareTo(min.getKey()) < 0)){
+                    heap.poll();
+                    heap.add(new MapSet.KeyValuePair<>(word, count));
+                }
+            }
+        });
+
+        // the heap hands out the least frequent word first, so fill the list from the back
+        ArrayList<MapSet.KeyValuePair<String, Integer>> topWords = new ArrayList<>(heap.size());
+        for(int i = 0; i < heap.size(); i++){
+            topWords.add(null);
+        }
+        for(int i = topWords.size() - 1; i >= 0; i--){
+            topWords.set(i, heap.poll());
+        }
+        return topWords;
+    }
+
+    //orders word counts from least to most frequent, breaking ties in reverse alphabetical order
+    private static int compareFrequency(MapSet.KeyValuePair<String, Integer> a, MapSet.KeyValuePair<String, Integer> b){
+        int byCount = a.getValue().compareTo(b.getValue());
+        return byCount != 0 ? byCount : b.getKey().compareTo(a.getKey());
+    }
+
 
 
     /*
@@ -297,21 +434,95 @@ public class WordCounter {
 
 
         for(String word : words){
-            if(myMapSet.containsKey(word)){
+            addWord(word);
+        }
+        long endTime = System.currentTimeMillis();
+        double runTime = (double) (endTime - startTime);
+        return runTime;
+    }
 
-                
-                int value = myMapSet.get(word);
-                myMapSet.put(word, ++value);
+    /*
+     * streaming alternative to readWords + buildMap
+     * 
+     * memory-maps the reddit file and counts its words straight from the raw bytes (see ByteTokenizer),
+     * so no list of every word in the file is ever held in memory. the counting backends (intmap, trie,
+     * offheap, concurrent, sketch) are counted into token by token, so nothing but the map grows with
+     * the vocabulary; the other backends get each word once from a staging table that only makes a
+     * String the first time a word is seen. the words are split the same way readWords splits them,
+     * so wordCount and the map end up identical to the two-phase path.
+     * returns the run time in milliseconds. for the non-counting backends this covers tokenizing, filling
+     * the staging table and copying it into the map, so it is not the time to build the data structure
+     * itself; time buildMap on the same words to compare the structures
+     */
+    public double countFile(String filename) throws IOException{
+        long startTime = System.currentTimeMillis();
+        wordCount += ByteTokenizer.count(filename, myMapSet, stopWords, expectedWords);
+        long endTime = System.currentTimeMillis();
+        double runTime = (double) (endTime - startTime);
+        return runTime;
+    }
 
-            }else{
-                myMapSet.put(word, 1);
-            }
-        }
+    /*
+     * parallel alternative to countFile
+     * 
+     * splits the reddit file into newline-aligned chunks, counts each chunk on its own core and
+     * merges the partial counts into the data structure. the counts are identical to countFile,
+     * except that a sketch's estimates may differ within its error bound.
+     * if the file cannot be read, the map is left alone, except that a "concurrent" map or a sketch
+     * keeps the counts of the chunks it was already given; wordCount is not updated either way
+     * returns the run time in milliseconds, like buildMap does
+     */
+    public double countFileParallel(String filename, int parallelism) throws IOException{
+        long startTime = System.currentTimeMillis();
+        wordCount += ParallelCounter.count(filename, parallelism, myMapSet, stopWords);
         long endTime = System.currentTimeMillis();
         double runTime = (double) (endTime - startTime);
         return runTime;
     }
 
+    /*
+     * estimates the number of distinct words in a file with a HyperLogLog pass over its
+     * bytes, and if nothing has been counted yet, replaces the data structure with one
+     * sized for that many words (plus three standard errors, so an estimate that is a
+     * little low does not cost a resize at the very end). returns the estimate
+     *
+     * the pass reads the memory-mapped file without decoding or storing any word. it pays
+     * off when the vocabulary is large: a multi-million word vocabulary otherwise goes
+     * through ~20 doublings of both the tokenizer's table and the map
+     */
+    public long presize(String filename) throws IOException{
+        HyperLogLog estimator = HyperLogLog.fromFile(filename);
+        long estimate = estimator.estimate();
+        if(myMapSet.size() == 0 && !(myMapSet instanceof CountMinSketch)){
+            expectedWords = (int) Math.min(Integer.MAX_VALUE / 2, Math.ceil(estimate * (1 + 3 * estimator.standardError())));
+            myMapSet = createMapSet(dataStructure, expectedWords);
+        }
+        return estimate;
+    }
+
+    //returns the approximate number of unique words in a file, stop words included, without building a map
+    public static long approximateUniqueWordCount(String filename) throws IOException{
+        return HyperLogLog.fromFile(filename).estimate();
+    }
+
+    //runs countFileParallel using every available core
+    public double countFileParallel(String filename) throws IOException{
+        return countFileParallel(filename, Runtime.getRuntime().availableProcessors());
+    }
+
+    //adds a single occurrence of a word to the data structure, locating the word only once
+    private void addWord(String word){
+        if(stopWords != null && stopWords.contains(word)){
+            return;
+        }
+        if(myMapSet instanceof CountMap){
+            // skip boxing the count for the primitive maps
+            ((CountMap) myMapSet).increment(word);
+        }else{
+            myMapSet.merge(word, 1, Integer::sum);
+        }
+    }
+
     //clears the MapSet
     public void clearMap(){
         myMapSet.clear();
@@ -327,14 +538,21 @@ public class WordCounter {
         return myMapSet.size();
     }
 
-    //returns the number of times a word is in the reddit file
+    //returns the number of times a word is in the reddit file, looking the word up only once
     public int getCount(String word){
-        if(myMapSet.get(word)== null){
-            return 0;
-        }else{
-            return myMapSet.get(word);
+        if(myMapSet instanceof CountMap){
+            return ((CountMap) myMapSet).getCount(word);
         }
+        Integer count = myMapSet.get(word);
+        return count == null ? 0 : count;
+    }
 
+    //returns how far getCount may overcount a word: 0 unless counting into a Count-Min Sketch
+    public long getCountError(String word){
+        if(myMapSet instanceof CountMinSketch){
+            return ((CountMinSketch) myMapSet).errorBound(word);
+        }
+        return 0;
     }
 
     //returns the rate at which a word is used in the reddit file
@@ -350,15 +568,46 @@ public class WordCounter {
      * 
      * first line denotes the total number of words,
      * and the following lines contian a word and it's frequency 
+     * 
+     * the entries are streamed from the map with forEach, so no copy of the map is made
      */
     public boolean writeWordCount(String filename) throws IOException{
+        return writeWordCount(filename, false);
+    }
+
+    /*
+     * writes a wordcount file, optionally with the words in alphabetical order.
+     * 
+     * a sorted file has "sorted" after the total on the first line, and readWordCount loads it
+     * into a BST or AVL tree in linear time with buildFromSorted. the trees already iterate in
+     * key order, so only the hash tables have to sort a copy of their entries
+     */
+    public boolean writeWordCount(String filename, boolean sorted) throws IOException{
         try(BufferedWriter bw = new BufferedWriter(new FileWriter(filename))){
             bw.write(Integer.toString(wordCount));
+            if(sorted){
+                bw.write(" sorted");
+            }
             bw.newLine();
 
-            for(MapSet.KeyValuePair<String, Integer> pairing : myMapSet.entrySet()){
-                bw.write(pairing.getKey() + " " + pairing.getValue());
-                bw.newLine();
+            BiConsumer<String, Integer> writeEntry = (word, count) -> {
+                try{
+                    bw.write(word);
+                    bw.write(' ');
+                    bw.write(Integer.toString(count));
+                    bw.newLine();
+                } catch (IOException e){
+                    throw new UncheckedIOException(e);
+                }
+            };
+            try{
+                if(sorted){
+                    WordCountFile.forEachInKeyOrder(myMapSet, writeEntry);
+                }else{
+                    myMapSet.forEach(writeEntry);
+                }
+            } catch (UncheckedIOException e){
+                throw e.getCause();
             }
 
             bw.close();
@@ -372,21 +621,94 @@ public class WordCounter {
 
     }
 
+    /*
+     * writes a wordcount file in the compact binary format (see WordCountFile): a header with
+     * the total number of words and the number of entries, then each word and its count.
+     * 
+     * readWordCount loads this format much faster than the text format, which writeWordCount
+     * still writes for exporting the counts in a readable form.
+     * the words are written in key order when that comes for free, which is when the data
+     * structure is a tree
+     */
+    public boolean writeWordCountBinary(String filename) throws IOException{
+        return writeWordCountBinary(filename, isTree());
+    }
+
+    //writes a binary wordcount file, optionally with the words in alphabetical order
+    public boolean writeWordCountBinary(String filename, boolean sorted) throws IOException{
+        try{
+            WordCountFile.write(filename, wordCount, myMapSet, sorted);
+            return true;
+        } catch (IOException e){
+            e.printStackTrace();
+            return false;
+        }
+    }
+
     /*
      * reads in a word count fie given the filename 
      * 
      * the method clears the current map and inputs the data from the file 
      * into the map data structure. 
+     * 
+     * both the text format and the binary format are read; a binary file is memory-mapped
+     * and the map is replaced by one presized to the number of entries in its header.
+     * a file written in key order is loaded into a BST or AVL tree in linear time.
+     * if a binary file, or a sorted file read into a tree, turns out to be truncated or
+     * out of order, the method returns false and the map is left as it was (a sketch is
+     * cleared before a binary file is read into it, since it cannot be copied cheaply)
      */
     public boolean readWordCount(String filename) throws IOException{
+        try {
+            if (WordCountFile.isBinary(filename)) {
+                WordCountFile file = WordCountFile.open(filename);
+                MapSet<String, Integer> counts;
+                if (myMapSet instanceof CountMinSketch) {
+                    // a sketch keeps the size it was made with; it does not grow with the entries
+                    myMapSet.clear();
+                    counts = myMapSet;
+                } else {
+                    // fill a new map, so a bad file leaves the current one as it was
+                    counts = createMapSet(dataStructure, file.entryCount());
+                }
+                if (file.isSorted() && isTree(counts)) {
+                    loadSorted(counts, file.entries());
+                } else {
+                    file.readInto(counts);
+                }
+                myMapSet = counts;
+                wordCount = (int) file.totalWords();
+                return true;
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        } catch (UncheckedIOException e) {
+            e.getCause().printStackTrace();
+            return false;
+        } catch (IllegalArgumentException e) {
+            // a file marked sorted whose words are out of order or repeated
+            e.printStackTrace();
+            return false;
+        }
         try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
+            // Read the total word count from the first line, and whether the words are sorted
+            String[] header = br.readLine().trim().split("\\s+");
+            int total = Integer.parseInt(header[0]);
+            boolean sorted = header.length > 1 && header[1].equals("sorted");
+
+            if (sorted && isTree(myMapSet)) {
+                // buildFromSorted checks the order before it touches the tree
+                loadSorted(myMapSet, textEntries(br));
+                wordCount = total;
+                return true;
+            }
+
             clearMap();
-    
-            String line;
-            // Read the total word count from the first line
-            wordCount = Integer.parseInt(br.readLine());
+            wordCount = total;
     
             // Read the subsequent lines containing words and their counts
+            String line;
             while ((line = br.readLine()) != null) {
                 String[] words = line.split("\\s+");
                 if (words.length == 2) {
@@ -396,11 +718,75 @@ public class WordCounter {
                 }
             }
             return true;
+        } catch (UncheckedIOException e) {
+            e.getCause().printStackTrace();
+            return false;
         } catch (IOException e) {
             e.printStackTrace();
             return false;
+        } catch (IllegalArgumentException e) {
+            // a file marked sorted whose words are out of order or repeated
+            e.printStackTrace();
+            return false;
         }
 
     }
-}
 
+    //returns true if the data structure is one of the trees, which iterate in key order
+    private boolean isTree(){
+        return isTree(myMapSet);
+    }
+
+    //returns true if the map is one of the trees
+    private static boolean isTree(MapSet<String, Integer> map){
+        return map instanceof BSTMap || map instanceof AVLTree;
+    }
+
+    //replaces the contents of the tree with entries in ascending key order, in linear time
+    @SuppressWarnings("unchecked")
+    private static void loadSorted(MapSet<String, Integer> tree, Iterator<MapSet.KeyValuePair<String, Integer>> entries){
+        if(tree instanceof BSTMap){
+            ((BSTMap<String, Integer>) tree).buildFromSorted(entries);
+        }else{
+            ((AVLTree<String, Integer>) tree).buildFromSorted(entries);
+        }
+    }
+
+    //returns an iterator over the "word count" lines left in a text wordcount file
+    private static Iterator<MapSet.KeyValuePair<String, Integer>> textEntries(BufferedReader br){
+        return new Iterator<MapSet.KeyValuePair<String, Integer>>(){
+            private MapSet.KeyValuePair<String, Integer> next = advance();
+
+            //reads lines until one holds a word and a count, or returns null at the end of the file
+            private MapSet.KeyValuePair<String, Integer> advance(){
+                try{
+                    String line;
+                    while((line = br.readLine()) != null){
+                        String[] words = line.split("\\s+");
+                        if(words.length == 2){
+                            return new MapSet.KeyValuePair<>(words[0], Integer.parseInt(words[1]));
+                        }
+                    }
+                    return null;
+                } catch (IOException e){
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public boolean hasNext(){
+                return next != null;
+            }
+
+            @Override
+            public MapSet.KeyValuePair<String, Integer> next(){
+                if(next == null){
+                    throw new NoSuchElementException();
+                }
+                MapSet.KeyValuePair<String, Integer> result = next;
+                next = advance();
+                return result;
+            }
+        };
+    }
+}
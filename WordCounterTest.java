@@ -14,12 +14,15 @@
  */
 
 // Import required libraries
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -35,6 +38,11 @@ public class WordCounterTest {
      * @throws IOException if file I/O operations fail
      */
     public static void main(String[] args) throws IOException {
+        if(args.length == 2 && args[0].equals("--count-sketch")){
+            // run by testSketchMemoryBudget in a JVM with a small heap
+            countIntoSketch(args[1]);
+            return;
+        }
         System.out.println("Running WordCounter tests...");
         testReadWords();
         testBuildMap();
@@ -44,6 +52,20 @@ public class WordCounterTest {
         testGetCount();
         testWriteWordCount();
         testReadWordCount();
+        testCountFile();
+        testCountFileParallel();
+        testCountFileTokenizing();
+        testIntMapBackend();
+        testOffHeapBackend();
+        testSketchBackend();
+        testSketchMemoryBudget();
+        testPresize();
+        testTopK();
+        testCommonWordFilter();
+        testBinaryWordCount();
+        testSortedWordCount();
+        testMalformedSortedWordCount();
+        testCorruptEntryCount();
         System.out.println("All WordCounter tests passed!");
     }
 
@@ -175,4 +197,476 @@ public class WordCounterTest {
     }
 
 
+    /*
+     * tests the countFile() method from the WordCounter.java file
+     * 
+     * the streaming path should give the same counts as readWords + buildMap
+     */
+    public static void testCountFile() throws IOException{
+        WordCounter twoPhase = new WordCounter("hashmap");
+        twoPhase.buildMap(twoPhase.readWords("test.txt"));
+
+        WordCounter streaming = new WordCounter("hashmap");
+        double runTime = streaming.countFile("test.txt");
+
+        assert runTime >= 0 : "Negative runtime: " + runTime;
+        assert streaming.totalWordCount() == twoPhase.totalWordCount() : "countFile total word count should match readWords";
+        assert streaming.uniqueWordCount() == twoPhase.uniqueWordCount() : "countFile unique word count should match buildMap";
+        assert streaming.getCount("hello") == 1 : "countFile should count the word hello once";
+    }
+
+
+    /*
+     * tests the countFileParallel() method from the WordCounter.java file
+     * 
+     * splits a multi-line file into more chunks than it has lines and checks that the
+     * counts still match the sequential path, both when the chunks are merged afterwards
+     * and when they are added straight into a shared concurrent map
+     */
+    public static void testCountFileParallel() throws IOException{
+        File temp = File.createTempFile("parallel", ".txt");
+        temp.deleteOnExit();
+        Files.write(temp.toPath(), "the cat\r\nthe dog  sat\n\n on the mat\nthe end".getBytes());
+
+        WordCounter sequential = new WordCounter("hashmap");
+        sequential.countFile(temp.getPath());
+
+        for(String backend : new String[]{"avl", "concurrent"}){
+            for(int chunks = 1; chunks <= 12; chunks++){
+                WordCounter parallel = new WordCounter(backend);
+                parallel.wordCount += ParallelCounter.count(temp.getPath(), 4, chunks, parallel.myMapSet);
+                assert parallel.totalWordCount() == sequential.totalWordCount() : backend + " parallel total word count differs with " + chunks + " chunks";
+                assert parallel.uniqueWordCount() == sequential.uniqueWordCount() : backend + " parallel unique word count differs with " + chunks + " chunks";
+                assert parallel.getCount("the") == 4 : backend + " parallel count of 'the' differs with " + chunks + " chunks";
+                assert parallel.getCount("") == sequential.getCount("") : backend + " parallel count of empty tokens differs with " + chunks + " chunks";
+            }
+        }
+
+        WordCounter allCores = new WordCounter("bst");
+        allCores.countFileParallel("test.txt");
+        assert allCores.totalWordCount() == 6 : "countFileParallel should read 6 words from test.txt";
+    }
+
+
+    /*
+     * tests that the byte-level tokenizer behind countFile splits words exactly like readWords,
+     * including empty lines, leading whitespace, whitespace-only lines and every line ending
+     */
+    public static void testCountFileTokenizing() throws IOException{
+        File temp = File.createTempFile("tokens", ".txt");
+        temp.deleteOnExit();
+        Files.write(temp.toPath(), "  lead\n\nthe\tcat\u000Bsat\r\n   \rthe\fend \r\n\u00e9t\u00e9 the".getBytes());
+
+        WordCounter twoPhase = new WordCounter("hashmap");
+        twoPhase.buildMap(twoPhase.readWords(temp.getPath()));
+
+        WordCounter streaming = new WordCounter("hashmap");
+        streaming.countFile(temp.getPath());
+
+        assert streaming.totalWordCount() == twoPhase.totalWordCount() : "countFile read " + streaming.totalWordCount() + " words but readWords read " + twoPhase.totalWordCount();
+        assert streaming.uniqueWordCount() == twoPhase.uniqueWordCount() : "countFile found " + streaming.uniqueWordCount() + " unique words but buildMap found " + twoPhase.uniqueWordCount();
+        for(String word : twoPhase.myMapSet.keySet()){
+            assert streaming.getCount(word) == twoPhase.getCount(word) : "countFile and buildMap disagree on the count of '" + word + "'";
+        }
+    }
+
+
+    /*
+     * tests that the "intmap" backend counts the same words as the other data structures
+     */
+    public static void testIntMapBackend() throws IOException{
+        WordCounter myWordCounter = new WordCounter("intmap");
+        ArrayList<String> words = myWordCounter.readWords("test.txt");
+        myWordCounter.buildMap(words);
+        myWordCounter.buildMap(words);
+        assert myWordCounter.uniqueWordCount() == 6 : "intmap should hold 6 unique words";
+        assert myWordCounter.getCount("test") == 2 : "intmap should count the word test twice";
+        assert myWordCounter.getCount("wassup") == 0 : "intmap thinks a random word is in the file";
+    }
+
+
+    /*
+     * tests that the "offheap" backend writes the same wordcount file as a HashMap
+     */
+    public static void testOffHeapBackend() throws IOException{
+        File sortedHash = File.createTempFile("offheap", ".txt");
+        sortedHash.deleteOnExit();
+        File sortedOffHeap = File.createTempFile("offheap", ".txt");
+        sortedOffHeap.deleteOnExit();
+        File unsorted = File.createTempFile("offheap", ".txt");
+        unsorted.deleteOnExit();
+
+        WordCounter hash = new WordCounter("hashmap");
+        hash.countFile("test.txt");
+        WordCounter offHeap = new WordCounter("offheap");
+        offHeap.countFile("test.txt");
+        assert offHeap.uniqueWordCount() == hash.uniqueWordCount() : "offheap should hold the same words as hashmap";
+        assert offHeap.getCount("test") == hash.getCount("test") : "offheap should count the same as hashmap";
+
+        hash.writeWordCount(sortedHash.getPath(), true);
+        offHeap.writeWordCount(sortedOffHeap.getPath(), true);
+        assert Files.readAllLines(sortedOffHeap.toPath()).equals(Files.readAllLines(sortedHash.toPath())) : "offheap should write the same sorted wordcount file";
+
+        offHeap.writeWordCount(unsorted.getPath());
+        WordCounter reloaded = new WordCounter("offheap");
+        assert reloaded.readWordCount(unsorted.getPath()) : "offheap should read its own wordcount file";
+        assert reloaded.totalWordCount() == hash.totalWordCount() : "offheap read the wrong total";
+        for(String word : hash.myMapSet.keySet()){
+            assert reloaded.getCount(word) == hash.getCount(word) : "offheap read the wrong count for " + word;
+        }
+    }
+
+
+    /*
+     * tests counting into a Count-Min Sketch: estimates are never below the exact counts,
+     * stay within the reported error, and topK still finds the most frequent words
+     */
+    public static void testSketchBackend() throws IOException{
+        File temp = File.createTempFile("sketch", ".txt");
+        temp.deleteOnExit();
+        StringBuilder text = new StringBuilder();
+        for(int i = 0; i < 3000; i++){
+            text.append("the a the w").append(i).append(i % 3 == 0 ? " of\n" : " ");
+        }
+        Files.write(temp.toPath(), text.toString().getBytes());
+
+        WordCounter exact = new WordCounter("hashmap");
+        exact.countFile(temp.getPath());
+        // far fewer counters than distinct words, so collisions are certain
+        WordCounter sketch = new WordCounter(new CountMinSketch(512, 4, 20));
+        sketch.countFile(temp.getPath());
+
+        assert sketch.totalWordCount() == exact.totalWordCount() : "sketch should read every word";
+        for(String word : exact.myMapSet.keySet()){
+            assert sketch.getCount(word) >= exact.getCount(word) : "sketch undercounted " + word;
+        }
+        assert sketch.getCount("the") - exact.getCount("the") <= sketch.getCountError("the") : "sketch overcounted the beyond its error";
+        assert sketch.getCountError("w17") > 0 && exact.getCountError("w17") == 0 : "only the sketch should report an error";
+        assert sketch.getFrequency("the") >= exact.getFrequency("the") : "sketch frequency should not be below the exact one";
+
+        List<MapSet.KeyValuePair<String, Integer>> top = sketch.topK(3);
+        assert top.get(0).getKey().equals("the") && top.get(1).getKey().equals("a") && top.get(2).getKey().equals("of") : "sketch topK should rank the, a, of";
+
+        File counts = File.createTempFile("sketch", ".bin");
+        counts.deleteOnExit();
+        exact.writeWordCountBinary(counts.getPath());
+        assert sketch.readWordCount(counts.getPath()) : "sketch should read a binary wordcount file";
+        assert sketch.myMapSet instanceof CountMinSketch && ((CountMinSketch) sketch.myMapSet).width() == 512 : "reading should keep the configured sketch";
+        assert sketch.getCount("the") >= 6000 && sketch.getCount("the") - 6000 <= sketch.getCountError("the") : "sketch read the wrong count for the";
+
+        boolean rejected = false;
+        try{
+            sketch.removeCommonWords("commonWords.txt");
+        } catch (IllegalStateException e){
+            rejected = e.getMessage().contains("setCommonWordFilter");
+        }
+        assert rejected : "removeCommonWords should point a sketch to setCommonWordFilter";
+
+        WordCounter filtered = new WordCounter(new CountMinSketch(512, 4, 20));
+        filtered.setCommonWordFilter("commonWords.txt");
+        filtered.countFile(temp.getPath());
+        assert filtered.getCount("the") < 6000 && filtered.getCount("w17") >= 1 : "sketch should drop common words while counting";
+    }
+
+
+    /*
+     * tests that counting into a sketch needs no more heap than the sketch itself
+     * 
+     * a file with a million distinct words is counted with countFile and countFileParallel
+     * in a separate JVM whose heap is far too small to hold the vocabulary
+     */
+    public static void testSketchMemoryBudget() throws IOException{
+        File temp = File.createTempFile("distinct", ".txt");
+        temp.deleteOnExit();
+        try(BufferedWriter bw = Files.newBufferedWriter(temp.toPath())){
+            for(int i = 0; i < 1000000; i++){
+                bw.write("w" + i + " the");
+                bw.newLine();
+            }
+        }
+
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        ProcessBuilder builder = new ProcessBuilder(java, "-Xmx32m", "-cp", System.getProperty("java.class.path"),
+                "WordCounterTest", "--count-sketch", temp.getPath());
+        builder.redirectErrorStream(true);
+        builder.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        int exitCode;
+        try{
+            exitCode = builder.start().waitFor();
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+        assert exitCode == 0 : "counting a million distinct words into a sketch should fit in a 32 MB heap";
+    }
+
+    //counts a file into a small sketch sequentially and in parallel, exiting with an error if a count is wrong
+    private static void countIntoSketch(String filename) throws IOException{
+        for(boolean parallel : new boolean[]{false, true}){
+            WordCounter sketch = new WordCounter(new CountMinSketch(1 << 16, 4, 100));
+            if(parallel){
+                sketch.countFileParallel(filename, 4);
+            }else{
+                sketch.countFile(filename);
+            }
+            if(sketch.totalWordCount() != 2000000 || sketch.getCount("the") < 1000000){
+                System.exit(1);
+            }
+        }
+    }
+
+
+    /*
+     * tests presize(), the expected-size constructor and approximateUniqueWordCount()
+     * 
+     * the estimate should be close to the exact unique word count, and counting into a
+     * presized map should give exactly the same counts as counting into a small one
+     */
+    public static void testPresize() throws IOException{
+        File temp = File.createTempFile("presize", ".txt");
+        temp.deleteOnExit();
+        StringBuilder text = new StringBuilder();
+        for(int i = 0; i < 20000; i++){
+            text.append("the w").append(i % 7000).append(i % 10 == 9 ? "\n" : " ");
+        }
+        Files.write(temp.toPath(), text.toString().getBytes());
+
+        WordCounter plain = new WordCounter("hashmap");
+        plain.countFile(temp.getPath());
+        long approximate = WordCounter.approximateUniqueWordCount(temp.getPath());
+        assert Math.abs(approximate - plain.uniqueWordCount()) <= plain.uniqueWordCount() * 0.03 : "approximate unique word count is too far off: " + approximate;
+
+        for(String backend : new String[]{"hashmap", "intmap", "robinhood", "trie"}){
+            WordCounter sized = new WordCounter(backend);
+            assert sized.presize(temp.getPath()) == approximate : backend + " presize should return the estimate";
+            assert sized.expectedWords >= approximate : backend + " should be sized for at least the estimate";
+            sized.countFile(temp.getPath());
+            assert sized.totalWordCount() == plain.totalWordCount() : backend + " presized total differs";
+            assert sized.uniqueWordCount() == plain.uniqueWordCount() : backend + " presized unique count differs";
+            assert sized.getCount("the") == 20000 && sized.getCount("w6999") == plain.getCount("w6999") : backend + " presized counts differ";
+
+            // a map that already holds words is left alone
+            MapSet<String, Integer> before = sized.myMapSet;
+            sized.presize(temp.getPath());
+            assert sized.myMapSet == before : backend + " presize replaced a non-empty map";
+        }
+
+        WordCounter hinted = new WordCounter("hashmap", 7001);
+        hinted.countFile(temp.getPath());
+        assert hinted.uniqueWordCount() == plain.uniqueWordCount() : "a size hint should not change the counts";
+    }
+
+
+    /*
+     * tests the topK() method from the WordCounter.java file
+     * 
+     * checks the order against a full sort, tie-breaking, and a vocabulary smaller than k
+     */
+    public static void testTopK() throws IOException{
+        File temp = File.createTempFile("topk", ".txt");
+        temp.deleteOnExit();
+        Files.write(temp.toPath(), "b a c a b a d\nc e a".getBytes());
+
+        for(String backend : new String[]{"hashmap", "bst", "avl", "intmap", "robinhood", "trie", "offheap", "concurrent"}){
+            WordCounter myWordCounter = new WordCounter(backend);
+            myWordCounter.countFile(temp.getPath());
+
+            List<MapSet.KeyValuePair<String, Integer>> top = myWordCounter.topK(3);
+            assert top.size() == 3 : backend + " topK should return 3 words";
+            assert top.get(0).getKey().equals("a") && top.get(0).getValue() == 4 : backend + " topK should rank a first";
+            assert top.get(1).getKey().equals("b") : backend + " topK should break the tie between b and c alphabetically";
+            assert top.get(2).getKey().equals("c") : backend + " topK should rank c third";
+
+            assert myWordCounter.topK(150).size() == 5 : backend + " topK should return every word of a small vocabulary";
+            assert myWordCounter.topK(0).isEmpty() : backend + " topK(0) should be empty";
+        }
+    }
+
+
+    /*
+     * tests setCommonWordFilter() and removeCommonWords() from the WordCounter.java file
+     * 
+     * dropping common words while counting should leave the same map as removing them afterwards,
+     * whichever way the file is counted, and matching should ignore case
+     */
+    public static void testCommonWordFilter() throws IOException{
+        File text = File.createTempFile("filter", ".txt");
+        text.deleteOnExit();
+        Files.write(text.toPath(), "The cat and the dog\nTHE end AND more".getBytes());
+        File common = File.createTempFile("common", ".txt");
+        common.deleteOnExit();
+        Files.write(common.toPath(), "the\n And \n".getBytes());
+
+        WordCounter postHoc = new WordCounter("hashmap");
+        postHoc.countFile(text.getPath());
+        postHoc.removeCommonWords(common.getPath());
+        assert postHoc.uniqueWordCount() == 4 : "removeCommonWords should leave 4 words, not " + postHoc.uniqueWordCount();
+        assert postHoc.getCount("THE") == 0 : "removeCommonWords should ignore case";
+
+        WordCounter streaming = new WordCounter("avl");
+        streaming.setCommonWordFilter(common.getPath());
+        streaming.countFile(text.getPath());
+
+        WordCounter parallel = new WordCounter("bst");
+        parallel.setCommonWordFilter(common.getPath());
+        parallel.countFileParallel(text.getPath(), 2);
+
+        WordCounter shared = new WordCounter("concurrent");
+        shared.setCommonWordFilter(common.getPath());
+        shared.countFileParallel(text.getPath(), 2);
+
+        WordCounter twoPhase = new WordCounter("intmap");
+        twoPhase.setCommonWordFilter(common.getPath());
+        twoPhase.buildMap(twoPhase.readWords(text.getPath()));
+
+        for(WordCounter filtered : new WordCounter[]{streaming, parallel, shared, twoPhase}){
+            assert filtered.totalWordCount() == 9 : "the total word count should still include common words";
+            assert filtered.uniqueWordCount() == postHoc.uniqueWordCount() : "filtering while counting should keep the same words as removeCommonWords";
+            for(String word : postHoc.myMapSet.keySet()){
+                assert filtered.getCount(word) == postHoc.getCount(word) : "filtered count of '" + word + "' differs";
+            }
+        }
+    }
+
+    /*
+     * tests writeWordCountBinary() and reading it back with readWordCount()
+     * 
+     * every backend should get back exactly the counts it saved, including words outside
+     * ASCII and counts too large for one varint byte, and a damaged file should be rejected
+     */
+    public static void testBinaryWordCount() throws IOException{
+        File binary = File.createTempFile("counts", ".bin");
+        binary.deleteOnExit();
+
+        for(String backend : new String[]{"hashmap", "bst", "avl", "intmap", "robinhood", "trie", "offheap", "concurrent"}){
+            WordCounter saved = new WordCounter(backend);
+            saved.countFile("test.txt");
+            saved.myMapSet.put("\u00e9t\u00e9", 300);
+            saved.myMapSet.put("big", Integer.MAX_VALUE);
+            assert saved.writeWordCountBinary(binary.getPath()) : backend + " writeWordCountBinary should return true";
+            assert WordCountFile.isBinary(binary.getPath()) : "writeWordCountBinary should write the binary format";
+            assert !WordCountFile.isBinary("test.txt") : "a text file should not look binary";
+
+            WordCounter loaded = new WordCounter(backend);
+            loaded.countFile("test.txt");
+            assert loaded.readWordCount(binary.getPath()) : backend + " readWordCount should read a binary file";
+            assert loaded.totalWordCount() == 6 : backend + " should read the total word count from the header";
+            assert loaded.uniqueWordCount() == saved.uniqueWordCount() : backend + " should read back every entry";
+            assert loaded.getCount("hello") == 1 : backend + " should read back the count of hello, not add to it";
+            assert loaded.getCount("\u00e9t\u00e9") == 300 : backend + " should read back a UTF-8 word";
+            assert loaded.getCount("big") == Integer.MAX_VALUE : backend + " should read back a five byte varint";
+        }
+
+        byte[] bytes = Files.readAllBytes(binary.toPath());
+        Files.write(binary.toPath(), Arrays.copyOf(bytes, bytes.length - 3));
+        WordCounter truncated = new WordCounter("hashmap");
+        assert !truncated.readWordCount(binary.getPath()) : "readWordCount should reject a truncated binary file";
+    }
+
+    /*
+     * tests writing sorted wordcount files and loading them back into every backend
+     * 
+     * the trees should come back perfectly balanced instead of degenerate
+     */
+    public static void testSortedWordCount() throws IOException{
+        File text = File.createTempFile("sorted", ".txt");
+        text.deleteOnExit();
+        File binary = File.createTempFile("sorted", ".bin");
+        binary.deleteOnExit();
+
+        WordCounter saved = new WordCounter("hashmap");
+        for(int i = 0; i < 500; i++){
+            saved.myMapSet.put("word" + (1000 + i), i);
+        }
+        saved.wordCount = 124750;
+        assert saved.writeWordCount(text.getPath(), true) : "writeWordCount should write a sorted file";
+        assert saved.writeWordCountBinary(binary.getPath(), true) : "writeWordCountBinary should write a sorted file";
+
+        List<String> lines = Files.readAllLines(text.toPath());
+        assert lines.get(0).equals("124750 sorted") : "a sorted text file should say so on its first line";
+        assert lines.get(1).equals("word1000 0") && lines.get(500).equals("word1499 499") : "the text file should be in key order";
+        assert WordCountFile.open(binary.getPath()).isSorted() : "the binary file should have the SORTED flag";
+
+        for(String backend : new String[]{"bst", "avl", "hashmap", "intmap"}){
+            for(File file : new File[]{text, binary}){
+                WordCounter loaded = new WordCounter(backend);
+                assert loaded.readWordCount(file.getPath()) : backend + " should read " + file;
+                assert loaded.totalWordCount() == 124750 : backend + " read the wrong total from " + file;
+                assert loaded.uniqueWordCount() == 500 : backend + " read the wrong number of words from " + file;
+                assert loaded.getCount("word1234") == 234 : backend + " read the wrong count from " + file;
+                if(!backend.endsWith("map")){
+                    assert loaded.myMapSet.maxDepth() == 9 : backend + " should be balanced after reading " + file + ", depth " + loaded.myMapSet.maxDepth();
+                }
+            }
+        }
+
+        WordCounter tree = new WordCounter("bst");
+        tree.countFile("test.txt");
+        assert tree.writeWordCountBinary(binary.getPath()) : "writeWordCountBinary should write a tree";
+        assert WordCountFile.open(binary.getPath()).isSorted() : "a tree should be written in key order by default";
+    }
+
+    /*
+     * tests that a sorted wordcount file with words out of order is rejected
+     * 
+     * readWordCount should return false instead of throwing, and keep the tree's counts
+     */
+    public static void testMalformedSortedWordCount() throws IOException{
+        File text = File.createTempFile("unsorted", ".txt");
+        text.deleteOnExit();
+        Files.write(text.toPath(), Arrays.asList("6 sorted", "apple 1", "cherry 2", "banana 3"));
+        File repeated = File.createTempFile("repeated", ".txt");
+        repeated.deleteOnExit();
+        Files.write(repeated.toPath(), Arrays.asList("4 sorted", "apple 1", "apple 3"));
+
+        for(String backend : new String[]{"bst", "avl"}){
+            for(File file : new File[]{text, repeated}){
+                WordCounter loaded = new WordCounter(backend);
+                loaded.countFile("test.txt");
+                int total = loaded.totalWordCount();
+                int unique = loaded.uniqueWordCount();
+                assert !loaded.readWordCount(file.getPath()) : backend + " should reject " + file;
+                assert loaded.totalWordCount() == total : backend + " should keep its total after rejecting " + file;
+                assert loaded.uniqueWordCount() == unique : backend + " should keep its words after rejecting " + file;
+                assert loaded.getCount("apple") == 0 : backend + " should not have read any of " + file;
+            }
+        }
+    }
+
+    /*
+     * tests that a binary wordcount file whose header claims more entries than the file can hold is rejected
+     * 
+     * the entry count is used to size the map, so it must fail with an IOException (readWordCount returns
+     * false) before anything is allocated, rather than with an OutOfMemoryError or NegativeArraySizeException
+     */
+    public static void testCorruptEntryCount() throws IOException{
+        WordCounter saved = new WordCounter("hashmap");
+        saved.countFile("test.txt");
+        File binary = File.createTempFile("wordcount", ".wcb");
+        binary.deleteOnExit();
+        assert saved.writeWordCountBinary(binary.getPath()) : "writeWordCountBinary should return true";
+        byte[] valid = Files.readAllBytes(binary.toPath());
+
+        for(int entryCount : new int[]{0x7fffffff, -1, valid.length}){
+            byte[] corrupt = valid.clone();
+            ByteBuffer.wrap(corrupt).putInt(16, entryCount);
+            Files.write(binary.toPath(), corrupt);
+            try{
+                WordCountFile.open(binary.getPath());
+                assert false : "open should reject an entry count of " + entryCount;
+            }catch(IOException e){
+                // expected
+            }
+
+            for(String backend : new String[]{"hashmap", "avl", "intmap", "offheap", "concurrent"}){
+                WordCounter loaded = new WordCounter(backend);
+                loaded.countFile("test.txt");
+                int total = loaded.totalWordCount();
+                int unique = loaded.uniqueWordCount();
+                assert !loaded.readWordCount(binary.getPath()) : backend + " should reject an entry count of " + entryCount;
+                assert loaded.totalWordCount() == total : backend + " should keep its total after rejecting the file";
+                assert loaded.uniqueWordCount() == unique : backend + " should keep its words after rejecting the file";
+            }
+        }
+    }
 }